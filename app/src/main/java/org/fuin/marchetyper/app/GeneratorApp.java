@@ -20,8 +20,10 @@ package org.fuin.marchetyper.app;
 import java.io.File;
 import java.io.IOException;
 
+import org.fuin.marchetyper.core.ArchetypeWatcher;
 import org.fuin.marchetyper.core.Config;
 import org.fuin.marchetyper.core.ConfigImpl;
+import org.fuin.marchetyper.core.GenerationMetrics;
 import org.fuin.marchetyper.core.MavenArchetyper;
 
 /**
@@ -29,32 +31,73 @@ import org.fuin.marchetyper.core.MavenArchetyper;
  */
 public class GeneratorApp {
 
+    private static final String DRY_RUN = "--dry-run";
+
+    private static final String WATCH = "--watch";
+
+    private static final String METRICS = "--metrics=";
+
     /**
      * Main entry point.
      * 
      * @param args
-     *            Path and name of the config file (marchetyper-config.xml) as only argument expected.
+     *            Path and name of the config file (marchetyper-config.xml) as last argument expected. It may be preceded by the option
+     *            '--dry-run' to only print what would be generated without writing anything or by the option '--watch' to regenerate the
+     *            archetype whenever the example or the configuration changes. The option '--metrics=&lt;file&gt;' writes the timings and
+     *            counters of the generation as JSON to the given file.
      * @throws IOException
      *             Error reading the config file or getting a canonical file.
      */
     public static void main(String[] args) throws IOException {
 
-        if (args == null || args.length != 1) {
-            System.err.println("Please provide the config file path and name as only parameter");
+        if (args == null || args.length < 1) {
+            System.err.println("Please provide the config file path and name as last parameter");
             System.exit(1);
         }
-        final File configFile = new File(args[0]).getCanonicalFile();
+        boolean dryRun = false;
+        boolean watch = false;
+        File metricsFile = null;
+        for (int i = 0; i < args.length - 1; i++) {
+            if (DRY_RUN.equals(args[i])) {
+                dryRun = true;
+            } else if (WATCH.equals(args[i])) {
+                watch = true;
+            } else if (args[i].startsWith(METRICS) && args[i].length() > METRICS.length()) {
+                metricsFile = new File(args[i].substring(METRICS.length()));
+            } else {
+                System.err.println("Unknown option: " + args[i]);
+                System.exit(1);
+            }
+        }
+        final File configFile = new File(args[args.length - 1]).getCanonicalFile();
         if (!configFile.exists()) {
             System.err.println("Config file does not exist: " + configFile);
             System.exit(1);
         }
+        if (dryRun && watch) {
+            System.err.println("The options " + DRY_RUN + " and " + WATCH + " cannot be combined");
+            System.exit(1);
+        }
 
         final Config config = ConfigImpl.load(configFile);
         final File baseDir = configFile.getParentFile();
         final File targetDir = new File("target/example-archetype").getCanonicalFile();
         final File srcDir = config.getSrcDir(baseDir);
 
-        new MavenArchetyper(config).generate(baseDir, srcDir, targetDir);
+        if (watch) {
+            final ArchetypeWatcher watcher = new ArchetypeWatcher.Builder().configFile(configFile).baseDir(baseDir).destDir(targetDir)
+                    .build();
+            Runtime.getRuntime().addShutdownHook(new Thread(watcher::close));
+            watcher.run();
+        } else if (dryRun) {
+            new MavenArchetyper(config).plan(baseDir, srcDir, targetDir).print(System.out);
+        } else {
+            final GenerationMetrics metrics = new MavenArchetyper(config).generate(baseDir, srcDir, targetDir);
+            System.out.println(metrics.toSummary());
+            if (metricsFile != null) {
+                metrics.writeJson(metricsFile);
+            }
+        }
 
     }
 
@@ -0,0 +1,191 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.io.FileUtils;
+import org.fuin.marchetyper.core.Mapping;
+
+/**
+ * Creates deterministic input data for the benchmarks. The same parameters always result in the same content, so results of different
+ * runs can be compared.
+ */
+final class BenchmarkData {
+
+    /** Seed used for all random values. */
+    static final long SEED = 4711L;
+
+    private static final String[] WORDS = { "public", "final", "class", "return", "import", "static", "void", "String", "List", "new",
+            "private", "int", "if", "else", "for", "while", "this", "super", "null", "true" };
+
+    private BenchmarkData() {
+        super();
+    }
+
+    /**
+     * Creates mappings with distinct search strings.
+     * 
+     * @param count
+     *            Number of mappings.
+     * 
+     * @return New list of mappings.
+     */
+    static List<Mapping> mappings(final int count) {
+        final List<Mapping> mappings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            mappings.add(new Mapping(search(i), "${replace" + i + "}"));
+        }
+        return mappings;
+    }
+
+    /**
+     * Creates mappings that only apply to Java files in a given package directory.
+     * 
+     * @param count
+     *            Number of mappings.
+     * 
+     * @return New list of mappings.
+     */
+    static List<Mapping> pathMappings(final int count) {
+        final List<Mapping> mappings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            mappings.add(new Mapping(search(i), "__replace" + i + "__", ".*/dir" + i + "(/.*)?", ".*\\.java"));
+        }
+        return mappings;
+    }
+
+    /**
+     * Returns the search string of a mapping created by this class.
+     * 
+     * @param index
+     *            Index of the mapping.
+     * 
+     * @return Search string.
+     */
+    static String search(final int index) {
+        return "example" + index;
+    }
+
+    /**
+     * Creates text that looks like source code.
+     * 
+     * @param size
+     *            Number of characters.
+     * @param mappingCount
+     *            Number of mappings whose search string is placed into the text.
+     * @param hitsPerKilobyte
+     *            Number of search strings per 1024 characters.
+     * 
+     * @return Text with exactly the given size.
+     */
+    static String text(final int size, final int mappingCount, final int hitsPerKilobyte) {
+        final Random random = new Random(SEED);
+        final StringBuilder sb = new StringBuilder(size + 32);
+        final double hitProbability = hitsPerKilobyte / 128.0;
+        int column = 0;
+        while (sb.length() < size) {
+            final String word;
+            if (mappingCount > 0 && random.nextDouble() < hitProbability) {
+                word = search(random.nextInt(mappingCount));
+            } else {
+                word = WORDS[random.nextInt(WORDS.length)];
+            }
+            sb.append(word);
+            column += word.length();
+            if (column > 80) {
+                sb.append('\n');
+                column = 0;
+            } else {
+                sb.append(' ');
+                column++;
+            }
+        }
+        sb.setLength(size);
+        return sb.toString();
+    }
+
+    /**
+     * Creates relative paths of a source tree.
+     * 
+     * @param shape
+     *            Shape of the tree.
+     * @param count
+     *            Number of files.
+     * 
+     * @return Relative file paths.
+     */
+    static List<File> paths(final TreeShape shape, final int count) {
+        final List<File> files = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            File dir = new File("src/main/java");
+            final int depth = shape.getDepth();
+            int n = i;
+            for (int level = 0; level < depth; level++) {
+                dir = new File(dir, "dir" + (n % shape.getFanOut()));
+                n = n / shape.getFanOut();
+            }
+            files.add(new File(dir, "File" + i + (i % 10 == 9 ? ".png" : ".java")));
+        }
+        return files;
+    }
+
+    /**
+     * Creates a source tree on disk. Every tenth file is a binary file.
+     * 
+     * @param baseDir
+     *            Directory to create the files in.
+     * @param shape
+     *            Shape of the tree.
+     * @param count
+     *            Number of files.
+     * @param fileSize
+     *            Size of each file.
+     * @param mappingCount
+     *            Number of mappings whose search string is placed into the text files.
+     * 
+     * @return Created files.
+     */
+    static List<File> createTree(final File baseDir, final TreeShape shape, final int count, final int fileSize,
+            final int mappingCount) {
+        final String text = text(fileSize, mappingCount, 4);
+        final byte[] binary = new byte[fileSize];
+        new Random(SEED).nextBytes(binary);
+        final List<File> files = new ArrayList<>(count);
+        try {
+            for (final File path : paths(shape, count)) {
+                final File file = new File(baseDir, path.getPath());
+                if (file.getName().endsWith(".png")) {
+                    FileUtils.writeByteArrayToFile(file, binary);
+                } else {
+                    FileUtils.writeStringToFile(file, text, StandardCharsets.UTF_8);
+                }
+                files.add(file);
+            }
+        } catch (final IOException ex) {
+            throw new RuntimeException("Error creating benchmark tree: " + baseDir, ex);
+        }
+        return files;
+    }
+
+}
@@ -0,0 +1,68 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.benchmark;
+
+import java.util.Arrays;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the allocation profiler enabled and writes the results as JSON to 'target/jmh-result.json', so runs can be
+ * compared with tools like the JMH visualizer. All JMH command line options are supported. Passing any '-prof' option replaces the default
+ * GC profiler, for example '-prof stack' or '-prof jfr'.
+ */
+public final class BenchmarkRunner {
+
+    private static final String RESULT_FILE = "target/jmh-result.json";
+
+    private BenchmarkRunner() {
+        super();
+    }
+
+    /**
+     * Main entry point.
+     * 
+     * @param args
+     *            JMH command line options, for example a regular expression to select the benchmarks or '-p fileSize=1024' to restrict a
+     *            parameter.
+     * 
+     * @throws RunnerException
+     *             Error running the benchmarks.
+     * @throws CommandLineOptionException
+     *             Invalid command line option.
+     */
+    public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+        final CommandLineOptions cmdOptions = new CommandLineOptions(args);
+        final ChainedOptionsBuilder options = new OptionsBuilder().parent(cmdOptions);
+        if (!Arrays.asList(args).contains("-prof")) {
+            options.addProfiler(GCProfiler.class);
+        }
+        if (!cmdOptions.getResult().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON).result(RESULT_FILE);
+        }
+        new Runner(options.build()).run();
+    }
+
+}
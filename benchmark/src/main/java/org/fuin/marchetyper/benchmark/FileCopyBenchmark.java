@@ -0,0 +1,156 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.apache.commons.io.FileUtils;
+import org.fuin.marchetyper.core.FileCopy;
+import org.fuin.marchetyper.core.FileCopyResult;
+import org.fuin.marchetyper.core.FileMatcher;
+import org.fuin.marchetyper.core.SimplePathMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures a complete {@link FileCopy#copy()} and the streaming {@link FileCopy#copy(java.util.function.Consumer)} of a source tree on
+ * disk including the walk, filters, path mappings and text replacement. Every tenth file is copied as binary file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class FileCopyBenchmark {
+
+    private static final Pattern DEFAULT_SELECTOR = Pattern.compile(".*\\.java");
+
+    /** Shape of the source tree. */
+    @Param({ "FLAT", "WIDE", "DEEP" })
+    public TreeShape treeShape;
+
+    /** Number of files in the source tree. */
+    @Param({ "100", "1000" })
+    public int fileCount;
+
+    /** Size of each file. */
+    @Param({ "4096" })
+    public int fileSize;
+
+    /** Number of content and path mappings. */
+    @Param({ "10" })
+    public int mappingCount;
+
+    private File baseDir;
+
+    private FileCopy fileCopy;
+
+    /**
+     * Creates the source tree in a temporary directory.
+     * 
+     * @throws IOException
+     *             Error creating the directory.
+     */
+    @Setup
+    public void setup() throws IOException {
+        baseDir = Files.createTempDirectory("marchetyper-benchmark").toFile();
+        final File srcDir = new File(baseDir, "src");
+        final File destDir = new File(baseDir, "dest");
+        BenchmarkData.createTree(srcDir, treeShape, fileCount, fileSize, mappingCount);
+        fileCopy = new FileCopy.Builder().srcBaseDir(srcDir).destBaseDir(destDir)
+                .pathMapper(new SimplePathMapper(srcDir, destDir, BenchmarkData.pathMappings(mappingCount)))
+                .fileMatcher(new ExtensionMatcher()).defaultFilenameSelector(DEFAULT_SELECTOR)
+                .mappings(BenchmarkData.mappings(mappingCount)).build();
+    }
+
+    /**
+     * Deletes the temporary directory.
+     * 
+     * @throws IOException
+     *             Error deleting the directory.
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(baseDir);
+    }
+
+    /**
+     * Copies the complete tree. Existing files in the destination directory are overwritten.
+     * 
+     * @return Result of the copy.
+     */
+    @Benchmark
+    public FileCopyResult copy() {
+        return fileCopy.copy();
+    }
+
+    /**
+     * Copies the complete tree with the streaming walk and consumes the result of every file.
+     * 
+     * @param blackhole
+     *            Consumes the results.
+     */
+    @Benchmark
+    public void stream(final Blackhole blackhole) {
+        fileCopy.copy(blackhole::consume);
+    }
+
+    /**
+     * Includes all files and classifies them by extension.
+     */
+    private static final class ExtensionMatcher implements FileMatcher {
+
+        @Override
+        public boolean includes(final File file) {
+            return true;
+        }
+
+        @Override
+        public boolean excludes(final File file) {
+            return false;
+        }
+
+        @Override
+        public boolean isBinary(final File file) {
+            return file.getName().endsWith(".png");
+        }
+
+        @Override
+        public boolean isText(final File file) {
+            return !isBinary(file);
+        }
+
+    }
+
+}
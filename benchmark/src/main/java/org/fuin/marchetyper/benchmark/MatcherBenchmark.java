@@ -0,0 +1,151 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.benchmark;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.fuin.marchetyper.core.FileFilter;
+import org.fuin.marchetyper.core.Mapping;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the matching of {@link FileFilter} and {@link Mapping} against all files of a tree. Each invocation tests every file once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MatcherBenchmark {
+
+    private static final String DEFAULT_SELECTOR_EXPR = ".*\\.(java|xml|md|properties)";
+
+    /** Shape of the tree the files are taken from. */
+    @Param({ "FLAT", "WIDE", "DEEP" })
+    public TreeShape treeShape;
+
+    /** Number of files to test. */
+    @Param({ "1000" })
+    public int fileCount;
+
+    private List<File> files;
+
+    private FileFilter pathFilter;
+
+    private FileFilter fileFilter;
+
+    private Mapping defaultMapping;
+
+    private Mapping pathMapping;
+
+    private Pattern defaultSelector;
+
+    /**
+     * Creates the files and matchers.
+     */
+    @Setup
+    public void setup() {
+        files = BenchmarkData.paths(treeShape, fileCount);
+        pathFilter = new FileFilter(".*/dir1(/.*)?", null);
+        fileFilter = new FileFilter(".*/dir1(/.*)?", ".*\\.java");
+        defaultMapping = BenchmarkData.mappings(1).get(0);
+        pathMapping = BenchmarkData.pathMappings(2).get(1);
+        defaultSelector = Pattern.compile(DEFAULT_SELECTOR_EXPR);
+    }
+
+    /**
+     * Filter with a path expression only.
+     * 
+     * @param blackhole
+     *            Consumes the results.
+     */
+    @Benchmark
+    public void fileFilterPath(final Blackhole blackhole) {
+        for (final File file : files) {
+            blackhole.consume(pathFilter.applies(file));
+        }
+    }
+
+    /**
+     * Filter with a path and a file name expression.
+     * 
+     * @param blackhole
+     *            Consumes the results.
+     */
+    @Benchmark
+    public void fileFilterPathAndFile(final Blackhole blackhole) {
+        for (final File file : files) {
+            blackhole.consume(fileFilter.applies(file));
+        }
+    }
+
+    /**
+     * Mapping with its own path and file name expression.
+     * 
+     * @param blackhole
+     *            Consumes the results.
+     */
+    @Benchmark
+    public void mappingApplies(final Blackhole blackhole) {
+        for (final File file : files) {
+            blackhole.consume(pathMapping.applies(file));
+        }
+    }
+
+    /**
+     * Mapping without expressions that falls back to the default selector given as string.
+     * 
+     * @param blackhole
+     *            Consumes the results.
+     */
+    @Benchmark
+    public void mappingAppliesDefaultExpr(final Blackhole blackhole) {
+        for (final File file : files) {
+            blackhole.consume(defaultMapping.applies(DEFAULT_SELECTOR_EXPR, file));
+        }
+    }
+
+    /**
+     * Mapping without expressions that falls back to the precompiled default selector.
+     * 
+     * @param blackhole
+     *            Consumes the results.
+     */
+    @Benchmark
+    public void mappingAppliesDefaultPattern(final Blackhole blackhole) {
+        for (final File file : files) {
+            blackhole.consume(defaultMapping.appliesTo(defaultSelector, file));
+        }
+    }
+
+}
@@ -0,0 +1,95 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.benchmark;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.fuin.marchetyper.core.SimplePathMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link SimplePathMapper#map(File)} for all files of a tree. Each invocation maps every file once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PathMapperBenchmark {
+
+    private static final File SRC_DIR = new File("/benchmark/src");
+
+    private static final File DEST_DIR = new File("/benchmark/dest");
+
+    /** Shape of the tree the files are taken from. */
+    @Param({ "FLAT", "WIDE", "DEEP" })
+    public TreeShape treeShape;
+
+    /** Number of path mappings. */
+    @Param({ "1", "10", "50" })
+    public int mappingCount;
+
+    /** Number of files to map. */
+    @Param({ "1000" })
+    public int fileCount;
+
+    private List<File> files;
+
+    private SimplePathMapper mapper;
+
+    /**
+     * Creates the files and the mapper.
+     */
+    @Setup
+    public void setup() {
+        files = new ArrayList<>(fileCount);
+        for (final File path : BenchmarkData.paths(treeShape, fileCount)) {
+            files.add(new File(SRC_DIR, path.getPath()));
+        }
+        mapper = new SimplePathMapper(SRC_DIR, DEST_DIR, BenchmarkData.pathMappings(mappingCount));
+    }
+
+    /**
+     * Maps all files.
+     * 
+     * @param blackhole
+     *            Consumes the results.
+     */
+    @Benchmark
+    public void map(final Blackhole blackhole) {
+        for (final File file : files) {
+            blackhole.consume(mapper.map(file));
+        }
+    }
+
+}
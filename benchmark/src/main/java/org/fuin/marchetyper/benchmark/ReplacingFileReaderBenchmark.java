@@ -0,0 +1,106 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.fuin.marchetyper.core.Mapping;
+import org.fuin.marchetyper.core.ReplacingFileReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the search and replace of {@link ReplacingFileReader} on content that is already in memory, so no file system access is
+ * included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ReplacingFileReaderBenchmark {
+
+    private static final File FILE = new File("src/main/java/org/fuin/example/Example.java");
+
+    private static final Pattern DEFAULT_SELECTOR = Pattern.compile(".*\\.java");
+
+    /** Number of characters of the content. */
+    @Param({ "1024", "65536", "1048576" })
+    public int fileSize;
+
+    /** Number of mappings to apply. */
+    @Param({ "1", "10", "50" })
+    public int mappingCount;
+
+    /** Number of search strings per 1024 characters of content. */
+    @Param({ "4" })
+    public int hitsPerKilobyte;
+
+    private String content;
+
+    private List<Mapping> mappings;
+
+    private char[] buffer;
+
+    /**
+     * Creates the content and mappings.
+     */
+    @Setup
+    public void setup() {
+        content = BenchmarkData.text(fileSize, mappingCount, hitsPerKilobyte);
+        mappings = BenchmarkData.mappings(mappingCount);
+        buffer = new char[8192];
+    }
+
+    /**
+     * Reads the content with all replacements applied.
+     * 
+     * @return Number of characters read.
+     * 
+     * @throws IOException
+     *             Error reading the content.
+     */
+    @Benchmark
+    public long read() throws IOException {
+        long count = 0;
+        try (final ReplacingFileReader reader = new ReplacingFileReader.Builder(FILE, new StringReader(content))
+                .defaultFilenameSelector(DEFAULT_SELECTOR).mappings(mappings).build()) {
+            int read;
+            while ((read = reader.read(buffer, 0, buffer.length)) != -1) {
+                count += read;
+            }
+        }
+        return count;
+    }
+
+}
@@ -0,0 +1,61 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.benchmark;
+
+/**
+ * Shape of a generated source tree.
+ */
+public enum TreeShape {
+
+    /** All files in a single directory. */
+    FLAT(0, 1),
+
+    /** Few levels with many directories on each level. */
+    WIDE(2, 32),
+
+    /** Many levels with few directories on each level. */
+    DEEP(12, 2);
+
+    private final int depth;
+
+    private final int fanOut;
+
+    private TreeShape(final int depth, final int fanOut) {
+        this.depth = depth;
+        this.fanOut = fanOut;
+    }
+
+    /**
+     * Returns the number of directory levels below the source root.
+     * 
+     * @return Depth.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Returns the number of sub directories per directory.
+     * 
+     * @return Fan out.
+     */
+    public int getFanOut() {
+        return fanOut;
+    }
+
+}
@@ -18,16 +18,11 @@
 package org.fuin.marchetyper.core;
 
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
-import java.io.Reader;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-
-import org.apache.maven.model.Model;
-import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
-import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import java.util.Properties;
 
 import jakarta.xml.bind.annotation.XmlAttribute;
 import jakarta.xml.bind.annotation.XmlElement;
@@ -118,7 +113,7 @@ public final class Archetype {
      */
     public final List<Property> getProperties() {
         if (properties == null) {
-            Collections.emptyList();
+            return Collections.emptyList();
         }
         return Collections.unmodifiableList(properties);
     }
@@ -182,6 +177,35 @@ public final class Archetype {
         return args;
     }
 
+    /**
+     * Creates the properties for generating an archetype using the configuration test data. Test values can be replaced with other
+     * values, for example to verify the archetype with multiple property sets.
+     * 
+     * @param baseDir
+     *            Base directory for relative path resolution.
+     * @param overrides
+     *            Values that replace the test values or {@literal null}.
+     * 
+     * @return Properties for the 'archetype:generate' Maven command.
+     */
+    public final Properties toArchetypeGenerateProperties(final File baseDir, final Properties overrides) {
+
+        final Properties props = new Properties();
+        props.setProperty("archetypeGroupId", groupId);
+        props.setProperty("archetypeArtifactId", artifactId);
+        props.setProperty("archetypeVersion", retrieveVersion(baseDir));
+        for (final Property property : getProperties()) {
+            if (property.getTestValue() != null) {
+                props.setProperty(property.getName(), property.getTestValue());
+            }
+        }
+        if (overrides != null) {
+            props.putAll(overrides);
+        }
+        props.setProperty("interactiveMode", "false");
+        return props;
+    }
+
     /**
      * Builds an instance of the outer class.
      */
@@ -304,31 +328,11 @@ public final class Archetype {
             return version;
         }
         if (versionPomFile != null) {
-            return readVersion(versionPomFile);
+            return PomVersionResolver.resolve(versionPomFile);
         }
         throw new IllegalStateException("Neither 'versionPomFile' nor 'version' was set");
     }
 
-    private static String readVersion(File versionPomFile) {
-        try (final Reader reader = new FileReader(versionPomFile)) {
-            final MavenXpp3Reader xpp3Reader = new MavenXpp3Reader();
-            final Model model = xpp3Reader.read(reader);
-            String version = model.getVersion();
-            if (version == null && model.getParent() != null) {
-                version = model.getParent().getVersion();
-            }
-            if (version == null) {
-                throw new IllegalStateException("Version not available: " + versionPomFile);
-            }
-            if (version.contains("${")) {
-                throw new IllegalStateException("Version with variable is not supported: '" + version + "' (" + versionPomFile + ")");
-            }
-            return version;
-        } catch (final IOException | XmlPullParserException ex) {
-            throw new IllegalStateException("Failed to read version from POM: " + versionPomFile, ex);
-        }
-    }
-
     private static File canonical(File file) {
         try {
             return file.getCanonicalFile();
@@ -0,0 +1,439 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.FileUtils;
+import org.fuin.objects4j.common.Contract;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Verifies an archetype with multiple sets of property values. Every set is a job that generates a project with 'archetype:generate' and
+ * builds it. Jobs run concurrently, each with it's own working directory and local repository. By default every build runs in a separate
+ * Maven process ({@link MavenExecutor#runner(boolean, File)}). A shared local repository that already contains the archetype and all
+ * required plugins and dependencies can be set as read-only tail ('maven.repo.local.tail'), so the jobs run offline and never write to the
+ * same repository. The tail requires Maven 3.9 or later and is rejected for older versions, as they would silently ignore it. A different
+ * {@link MavenRunner} can be set to execute the builds in another way, for example the {@link EmbeddedMavenExecutor}. <br>
+ * <br>
+ * Directory layout of a job: 'workDir/job-N/project/ARTIFACT_ID' (generated project) and 'workDir/job-N/repository' (local repository).
+ */
+public final class ArchetypeMatrix {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ArchetypeMatrix.class);
+
+    private Config config;
+
+    private File baseDir;
+
+    private File workDir;
+
+    private List<Properties> propertySets;
+
+    private int concurrency;
+
+    private File sharedRepository;
+
+    private boolean offline;
+
+    private String[] goals;
+
+    private MavenRunner runner;
+
+    private ArchetypeMatrix() {
+        super();
+        this.propertySets = new ArrayList<>();
+        this.concurrency = 1;
+        this.goals = new String[] { "verify" };
+    }
+
+    /**
+     * Runs all jobs and waits until they are finished.
+     * 
+     * @return Results in the order of the property sets.
+     * 
+     * @throws IllegalStateException
+     *             A property set has no value for 'artifactId'.
+     */
+    public List<JobResult> run() {
+        return runAsync().join();
+    }
+
+    /**
+     * Runs all jobs asynchronously. Not more than the configured number of jobs run at the same time.
+     * 
+     * @return Future with the results in the order of the property sets. A failed job does not fail the future.
+     * 
+     * @throws IllegalStateException
+     *             A property set has no value for 'artifactId' or the installed Maven does not support a shared repository. No job is
+     *             started in this case.
+     */
+    public CompletableFuture<List<JobResult>> runAsync() {
+        final List<Properties> generateProperties = new ArrayList<>(propertySets.size());
+        for (int i = 0; i < propertySets.size(); i++) {
+            generateProperties.add(generateProperties(i, propertySets.get(i)));
+        }
+        final MavenRunner mavenRunner = runner == null ? MavenExecutor.runner(offline, sharedRepository) : runner;
+        final ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        final List<CompletableFuture<JobResult>> jobs = new ArrayList<>(propertySets.size());
+        for (int i = 0; i < propertySets.size(); i++) {
+            jobs.add(job(i, propertySets.get(i), generateProperties.get(i), mavenRunner, pool));
+        }
+        return CompletableFuture.allOf(jobs.toArray(new CompletableFuture<?>[jobs.size()]))
+                .thenApply(v -> jobs.stream().map(CompletableFuture::join).collect(Collectors.toList()))
+                .whenComplete((results, ex) -> pool.shutdown());
+    }
+
+    private Properties generateProperties(final int index, final Properties values) {
+        final Properties generateProperties = config.getArchetype().toArchetypeGenerateProperties(baseDir, values);
+        final String artifactId = generateProperties.getProperty("artifactId");
+        if (artifactId == null || artifactId.trim().isEmpty()) {
+            throw new IllegalStateException("No value for property 'artifactId' in property set " + index
+                    + " (add it to the set or define a test value for the archetype property): " + values);
+        }
+        return generateProperties;
+    }
+
+    private CompletableFuture<JobResult> job(final int index, final Properties values, final Properties generateProperties,
+            final MavenRunner mavenRunner, final ExecutorService pool) {
+
+        final File jobDir = new File(workDir, "job-" + index);
+        final File projectDir = new File(jobDir, "project");
+        final File repositoryDir = new File(jobDir, "repository");
+        final File generatedDir = new File(projectDir, generateProperties.getProperty("artifactId"));
+
+        final long start = System.currentTimeMillis();
+        return CompletableFuture.runAsync(() -> {
+            prepare(jobDir, projectDir, repositoryDir);
+            mavenRunner.run(projectDir, repositoryDir, generateProperties, "archetype:generate");
+            mavenRunner.run(generatedDir, repositoryDir, null, goals);
+        }, pool).handle((v, ex) -> {
+                    final Throwable failure = unwrap(ex);
+                    final JobResult result = new JobResult(index, values, generatedDir, failure, System.currentTimeMillis() - start);
+                    if (failure == null) {
+                        LOG.info("Job {} succeeded in {} ms: {}", index, result.getDurationMillis(), values);
+                    } else {
+                        LOG.error("Job {} failed: {}", index, values, failure);
+                    }
+                    return result;
+                });
+
+    }
+
+    private static void prepare(final File jobDir, final File projectDir, final File repositoryDir) {
+        try {
+            FileUtils.deleteDirectory(jobDir);
+        } catch (final IOException ex) {
+            throw new RuntimeException("Error deleting job directory: " + jobDir, ex);
+        }
+        if (!projectDir.mkdirs()) {
+            throw new RuntimeException("Error creating project directory: " + projectDir);
+        }
+        // The Maven invoker requires an existing local repository directory
+        if (!repositoryDir.mkdirs()) {
+            throw new RuntimeException("Error creating repository directory: " + repositoryDir);
+        }
+    }
+
+    private static Throwable unwrap(final Throwable ex) {
+        if (ex instanceof CompletionException && ex.getCause() != null) {
+            return ex.getCause();
+        }
+        return ex;
+    }
+
+    /**
+     * Result of a single job.
+     */
+    public static final class JobResult {
+
+        private final int index;
+
+        private final Properties properties;
+
+        private final File dir;
+
+        private final Throwable failure;
+
+        private final long durationMillis;
+
+        /**
+         * Constructor with all data.
+         * 
+         * @param index
+         *            Index of the property set.
+         * @param properties
+         *            Property values of the job.
+         * @param dir
+         *            Directory of the generated project.
+         * @param failure
+         *            Cause of the failure or {@literal null} if the job succeeded.
+         * @param durationMillis
+         *            Duration of generation and build in milliseconds.
+         */
+        public JobResult(final int index, final Properties properties, final File dir, final Throwable failure,
+                final long durationMillis) {
+            super();
+            this.index = index;
+            this.properties = properties;
+            this.dir = dir;
+            this.failure = failure;
+            this.durationMillis = durationMillis;
+        }
+
+        /**
+         * Returns the index of the property set.
+         * 
+         * @return Index.
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * Returns the property values of the job.
+         * 
+         * @return Properties.
+         */
+        public Properties getProperties() {
+            return properties;
+        }
+
+        /**
+         * Returns the directory of the generated project.
+         * 
+         * @return Directory.
+         */
+        public File getDir() {
+            return dir;
+        }
+
+        /**
+         * Determines if generation and build succeeded.
+         * 
+         * @return {@literal true} if the job succeeded.
+         */
+        public boolean isSuccess() {
+            return failure == null;
+        }
+
+        /**
+         * Returns the cause of the failure.
+         * 
+         * @return Exception or {@literal null} if the job succeeded.
+         */
+        public Throwable getFailure() {
+            return failure;
+        }
+
+        /**
+         * Returns the duration of generation and build.
+         * 
+         * @return Duration in milliseconds.
+         */
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        @Override
+        public String toString() {
+            return "JobResult [index=" + index + ", properties=" + properties + ", success=" + isSuccess() + ", durationMillis="
+                    + durationMillis + "]";
+        }
+
+    }
+
+    /**
+     * Builds an instance of the outer class.
+     */
+    public static final class Builder {
+
+        private ArchetypeMatrix delegate;
+
+        /**
+         * Default constructor.
+         */
+        public Builder() {
+            delegate = new ArchetypeMatrix();
+        }
+
+        /**
+         * Sets the configuration of the archetype.
+         * 
+         * @param config
+         *            Configuration.
+         * 
+         * @return The builder.
+         */
+        public Builder config(final Config config) {
+            delegate.config = config;
+            return this;
+        }
+
+        /**
+         * Sets the base directory used to resolve the archetype version.
+         * 
+         * @param baseDir
+         *            Base directory.
+         * 
+         * @return The builder.
+         */
+        public Builder baseDir(final File baseDir) {
+            delegate.baseDir = baseDir;
+            return this;
+        }
+
+        /**
+         * Sets the directory for the job directories. Existing job directories are deleted.
+         * 
+         * @param workDir
+         *            Working directory.
+         * 
+         * @return The builder.
+         */
+        public Builder workDir(final File workDir) {
+            delegate.workDir = workDir;
+            return this;
+        }
+
+        /**
+         * Adds a set of property values. Values that are not set are taken from the test values of the archetype properties.
+         * 
+         * @param properties
+         *            Property values for one job.
+         * 
+         * @return The builder.
+         */
+        public Builder addPropertySet(@NotNull final Properties properties) {
+            Contract.requireArgNotNull("properties", properties);
+            delegate.propertySets.add(properties);
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of jobs that run at the same time. Default is '1'.
+         * 
+         * @param concurrency
+         *            Number of concurrent jobs.
+         * 
+         * @return The builder.
+         */
+        public Builder concurrency(final int concurrency) {
+            delegate.concurrency = concurrency;
+            return this;
+        }
+
+        /**
+         * Sets a pre-seeded local repository that is shared by all jobs and only read. Default is {@literal null}: Each job starts with an
+         * empty local repository. Only used by the default runner and requires Maven 3.9 or later.
+         * 
+         * @param sharedRepository
+         *            Read-only local repository or {@literal null}.
+         * 
+         * @return The builder.
+         */
+        public Builder sharedRepository(final File sharedRepository) {
+            delegate.sharedRepository = sharedRepository;
+            return this;
+        }
+
+        /**
+         * Determines if Maven runs in offline mode. Default is {@literal false}. Only used by the default runner.
+         * 
+         * @param offline
+         *            {@literal true} to never access remote repositories.
+         * 
+         * @return The builder.
+         */
+        public Builder offline(final boolean offline) {
+            delegate.offline = offline;
+            return this;
+        }
+
+        /**
+         * Sets the goals used to build the generated project. Default is 'verify'.
+         * 
+         * @param goals
+         *            Goals.
+         * 
+         * @return The builder.
+         */
+        public Builder goals(final String... goals) {
+            delegate.goals = goals;
+            return this;
+        }
+
+        /**
+         * Sets the runner that executes the Maven builds. Default is a runner that starts a separate Maven process for every build.
+         * 
+         * @param runner
+         *            Runner or {@literal null} for the default.
+         * 
+         * @return The builder.
+         */
+        public Builder runner(final MavenRunner runner) {
+            delegate.runner = runner;
+            return this;
+        }
+
+        /**
+         * Builds a new instance of the outer class.
+         * 
+         * @return The new instance.
+         */
+        public ArchetypeMatrix build() {
+            if (delegate.config == null) {
+                throw new IllegalStateException("It's mandatory to set a value for 'config'");
+            }
+            if (delegate.baseDir == null) {
+                throw new IllegalStateException("It's mandatory to set a value for 'baseDir'");
+            }
+            if (delegate.workDir == null) {
+                throw new IllegalStateException("It's mandatory to set a value for 'workDir'");
+            }
+            if (delegate.concurrency < 1) {
+                throw new IllegalStateException("The value for 'concurrency' must be greater than zero, but was: " + delegate.concurrency);
+            }
+            if (delegate.goals == null || delegate.goals.length == 0) {
+                throw new IllegalStateException("It's mandatory to set a value for 'goals'");
+            }
+            if (delegate.runner != null && (delegate.offline || delegate.sharedRepository != null)) {
+                throw new IllegalStateException("The values for 'offline' and 'sharedRepository' are only used by the default runner");
+            }
+            delegate.propertySets = Collections.unmodifiableList(new ArrayList<>(delegate.propertySets));
+            final ArchetypeMatrix tmp = delegate;
+            delegate = new ArchetypeMatrix();
+            return tmp;
+        }
+
+    }
+
+}
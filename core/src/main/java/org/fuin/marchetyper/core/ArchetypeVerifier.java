@@ -0,0 +1,347 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.velocity.VelocityContext;
+import org.apache.velocity.app.VelocityEngine;
+import org.fuin.objects4j.common.Contract;
+import org.fuin.utils4j.Utils4J;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Verifies a generated archetype in-process without running 'archetype:generate'. The archetype resources are rendered in memory using
+ * the test values of the archetype properties and the result is compared with the source directory the archetype was created from.
+ */
+public final class ArchetypeVerifier {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ArchetypeVerifier.class);
+
+    private final Config config;
+
+    /**
+     * Constructor with mandatory data.
+     *
+     * @param config
+     *            Configuration used to generate the archetype.
+     */
+    public ArchetypeVerifier(@NotNull final Config config) {
+        super();
+        Contract.requireArgNotNull("config", config);
+        this.config = config;
+    }
+
+    /**
+     * Renders the archetype in memory and compares it with the source directory.
+     *
+     * @param srcDir
+     *            Directory with the source example application.
+     * @param archetypeDir
+     *            Directory with the generated archetype project.
+     * @param log
+     *            Result log.
+     */
+    public final void compare(@NotNull final File srcDir, @NotNull final File archetypeDir, @NotNull final StringBuilder log) {
+        Contract.requireArgNotNull("log", log);
+        compare(srcDir, archetypeDir, finding -> finding.appendTo(log));
+    }
+
+    /**
+     * Renders the archetype in memory and compares it with the source directory. The differences are reported to a listener.
+     *
+     * @param srcDir
+     *            Directory with the source example application.
+     * @param archetypeDir
+     *            Directory with the generated archetype project.
+     * @param listener
+     *            Listener to inform about differences.
+     */
+    public final void compare(@NotNull final File srcDir, @NotNull final File archetypeDir, @NotNull final CompareListener listener) {
+
+        Contract.requireArgNotNull("srcDir", srcDir);
+        Contract.requireArgNotNull("archetypeDir", archetypeDir);
+        Contract.requireArgNotNull("listener", listener);
+
+        final File resourcesDir = new File(new File(new File(archetypeDir, "src"), "main"), "resources");
+        final File archetypeResources = new File(resourcesDir, "archetype-resources");
+        final File metadataFile = new File(new File(new File(resourcesDir, "META-INF"), "maven"), "archetype-metadata.xml");
+
+        final SortedMap<String, GeneratedFile> generated = render(archetypeResources, metadataFile);
+        final SortedMap<String, File> sources = sourceFiles(config, srcDir);
+
+        for (final Map.Entry<String, File> entry : sources.entrySet()) {
+            final Path srcFile = entry.getValue().toPath();
+            final GeneratedFile destFile = generated.remove(entry.getKey());
+            if (destFile == null) {
+                listener.onFinding(new CompareFinding(CompareFinding.Type.DEST_FILE_NOT_FOUND, srcFile, Path.of(entry.getKey())));
+            } else {
+                try {
+                    final byte[] srcContent = Files.readAllBytes(srcFile);
+                    if (srcContent.length != destFile.content.length) {
+                        listener.onFinding(new CompareFinding(CompareFinding.Type.SIZE_DIFF, srcFile, destFile.file.toPath(),
+                                srcContent.length, destFile.content.length));
+                    } else if (!Arrays.equals(srcContent, destFile.content)) {
+                        listener.onFinding(new CompareFinding(CompareFinding.Type.CONTENT_DIFF, srcFile, destFile.file.toPath(),
+                                srcContent.length, destFile.content.length));
+                    }
+                } catch (final IOException ex) {
+                    listener.onFinding(new CompareFinding(CompareFinding.Type.ERROR, srcFile, null));
+                }
+            }
+        }
+        for (final Map.Entry<String, GeneratedFile> entry : generated.entrySet()) {
+            listener.onFinding(new CompareFinding(CompareFinding.Type.SRC_FILE_NOT_FOUND, new File(srcDir, entry.getKey()).toPath(),
+                    entry.getValue().file.toPath(), CompareFinding.UNKNOWN_SIZE, entry.getValue().content.length));
+        }
+
+    }
+
+    /**
+     * Renders the archetype in memory and compares it with the source directory. Fails with an {@link IllegalStateException} if they are
+     * not equal. Only the first {@link DirectoryCompare#MAX_REPORTED_FINDINGS} differences are included in the exception message.
+     *
+     * @param baseDir
+     *            Base directory used to resolve the configured source and destination directory.
+     */
+    public void verify(@NotNull final File baseDir) {
+        Contract.requireArgNotNull("baseDir", baseDir);
+        final CompareSummary summary = new CompareSummary(DirectoryCompare.MAX_REPORTED_FINDINGS);
+        compare(config.getSrcDir(baseDir), config.getDestDir(baseDir), summary);
+        if (!summary.isEmpty()) {
+            throw new IllegalStateException("Differences found:" + System.lineSeparator() + summary);
+        }
+    }
+
+    private SortedMap<String, GeneratedFile> render(final File archetypeResources, final File metadataFile) {
+
+        final Map<String, String> values = testValues(config);
+        final VelocityEngine ve = new VelocityEngine();
+        ve.init();
+
+        final SortedMap<String, GeneratedFile> generated = new TreeMap<>();
+        readFileSets(archetypeResources, metadataFile).forEach((relativePath, filtered) -> {
+            final File file = new File(archetypeResources, relativePath);
+            if (!file.isFile()) {
+                LOG.warn("Archetype resource listed in metadata does not exist: {}", file);
+                return;
+            }
+            final String projectPath = projectPath(config, relativePath, values);
+            try {
+                final byte[] content;
+                if (filtered) {
+                    final VelocityContext context = new VelocityContext(new HashMap<>(values));
+                    final StringWriter writer = new StringWriter();
+                    ve.evaluate(context, writer, relativePath, Files.readString(file.toPath(), StandardCharsets.UTF_8));
+                    content = writer.toString().getBytes(StandardCharsets.UTF_8);
+                } else {
+                    content = Files.readAllBytes(file.toPath());
+                }
+                LOG.debug("Rendered {} to {}", relativePath, projectPath);
+                generated.put(projectPath, new GeneratedFile(file, content));
+            } catch (final IOException ex) {
+                throw new RuntimeException("Error rendering archetype resource: " + file, ex);
+            }
+        });
+        return generated;
+
+    }
+
+    /**
+     * Determines the path of a file in the project generated by Maven. Placeholders like '__artifactId__' are replaced with the values and
+     * masked dot files are restored.
+     *
+     * @param config
+     *            Configuration to use.
+     * @param relativePath
+     *            Path relative to the archetype resources directory using '/' as separator.
+     * @param values
+     *            Values of the archetype properties.
+     *
+     * @return Path relative to the generated project.
+     */
+    static String projectPath(final Config config, final String relativePath, final Map<String, String> values) {
+        String path = relativePath;
+        for (final Map.Entry<String, String> entry : values.entrySet()) {
+            path = path.replace("__" + entry.getKey() + "__", entry.getValue());
+        }
+        if (config.isMaskDotFile()) {
+            final int idx = path.lastIndexOf('/');
+            if (path.startsWith("_.", idx + 1)) {
+                path = path.substring(0, idx + 1) + path.substring(idx + 2);
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Lists all files of the source directory that are included in the archetype.
+     *
+     * @param config
+     *            Configuration with the include and exclude filters.
+     * @param srcDir
+     *            Directory with the source example application.
+     *
+     * @return Files sorted by their path relative to the source directory using '/' as separator.
+     */
+    static SortedMap<String, File> sourceFiles(final Config config, final File srcDir) {
+        final SortedMap<String, File> files = new TreeMap<>();
+        try (final Stream<Path> stream = Files.walk(srcDir.toPath())) {
+            stream.filter(Files::isRegularFile).map(Path::toFile).filter(file -> config.includes(file) || !config.excludes(file))
+                    .forEach(file -> files.put(Utils4J.getRelativePath(srcDir, file).replace(File.separatorChar, '/'), file));
+        } catch (final IOException ex) {
+            throw new RuntimeException("Error reading source directory: " + srcDir, ex);
+        }
+        return files;
+    }
+
+    /**
+     * Creates the values that Maven would use to render the archetype: The test values of all archetype properties and the configured
+     * variables derived from them.
+     *
+     * @param config
+     *            Configuration to use.
+     *
+     * @return Name/value map.
+     */
+    static Map<String, String> testValues(final Config config) {
+        final Map<String, String> values = new HashMap<>();
+        for (final Property property : config.getArchetype().getProperties()) {
+            if (property.getTestValue() != null) {
+                values.put(property.getName(), property.getTestValue());
+            }
+        }
+        for (final Variable variable : config.getVariables()) {
+            final String value = variable.getTransformation().apply(values.get(variable.getSource()));
+            if (value != null) {
+                values.put(variable.getName(), value);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Reads the files of the archetype from the 'archetype-metadata.xml'.
+     *
+     * @param archetypeResources
+     *            Directory with the archetype resources.
+     * @param metadataFile
+     *            Archetype descriptor.
+     *
+     * @return Map with resource paths relative to the archetype resources directory and the information if the resource is filtered.
+     */
+    static SortedMap<String, Boolean> readFileSets(final File archetypeResources, final File metadataFile) {
+        final SortedMap<String, Boolean> fileSets = new TreeMap<>();
+        final Document doc = parse(metadataFile);
+        final NodeList fileSetList = doc.getElementsByTagName("fileSet");
+        for (int i = 0; i < fileSetList.getLength(); i++) {
+            final Element fileSet = (Element) fileSetList.item(i);
+            final boolean filtered = Boolean.parseBoolean(fileSet.getAttribute("filtered"));
+            final String directory = text(fileSet, "directory");
+            final NodeList includes = fileSet.getElementsByTagName("include");
+            for (int j = 0; j < includes.getLength(); j++) {
+                final String include = includes.item(j).getTextContent().trim();
+                for (final String path : resolve(archetypeResources, directory, include)) {
+                    fileSets.put(path, filtered);
+                }
+            }
+        }
+        return fileSets;
+    }
+
+    private static Iterable<String> resolve(final File archetypeResources, final String directory, final String include) {
+        final String prefix = directory.isEmpty() ? "" : directory + "/";
+        if (include.indexOf('*') < 0 && include.indexOf('?') < 0) {
+            return Arrays.asList(prefix + include);
+        }
+        final File dir = new File(archetypeResources, directory);
+        if (!dir.isDirectory()) {
+            return Arrays.asList();
+        }
+        final PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + include);
+        try (final Stream<Path> stream = Files.walk(dir.toPath())) {
+            return stream.filter(Files::isRegularFile).map(path -> dir.toPath().relativize(path)).filter(matcher::matches)
+                    .map(path -> prefix + path.toString().replace(File.separatorChar, '/')).collect(Collectors.toList());
+        } catch (final IOException ex) {
+            throw new RuntimeException("Error resolving include '" + include + "' in: " + dir, ex);
+        }
+    }
+
+    private static String text(final Element parent, final String tagName) {
+        final NodeList list = parent.getElementsByTagName(tagName);
+        if (list.getLength() == 0) {
+            return "";
+        }
+        return list.item(0).getTextContent().trim();
+    }
+
+    private static Document parse(final File file) {
+        try {
+            final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            final DocumentBuilder builder = factory.newDocumentBuilder();
+            return builder.parse(file);
+        } catch (final ParserConfigurationException | SAXException | IOException ex) {
+            throw new RuntimeException("Error reading archetype metadata: " + file, ex);
+        }
+    }
+
+    /**
+     * A file rendered in memory.
+     */
+    private static final class GeneratedFile {
+
+        private final File file;
+
+        private final byte[] content;
+
+        GeneratedFile(final File file, final byte[] content) {
+            this.file = file;
+            this.content = content;
+        }
+
+    }
+
+}
@@ -0,0 +1,428 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Regenerates an archetype continuously while the example project is edited. The source directory and the directory of the configuration
+ * file are watched for changes. Bursts of events are collected until no further event arrives for a short time (debounce). Changed files
+ * are copied again and deleted files are removed from the archetype. The 'archetype-metadata.xml' is only rewritten if files were added or
+ * removed. A change of the configuration, the custom POM or the post generate script reloads the configuration and regenerates the
+ * complete archetype.
+ */
+public final class ArchetypeWatcher implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ArchetypeWatcher.class);
+
+    /** Default time in milliseconds without further events before the changes are processed. */
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 300;
+
+    private File configFile;
+
+    private File baseDir;
+
+    private File destDir;
+
+    private long debounceMillis;
+
+    private volatile WatchService watchService;
+
+    private final Map<WatchKey, Path> watchedDirs;
+
+    private final TreeMap<File, GenerationPlan.Entry> entries;
+
+    private Config config;
+
+    private MavenArchetyper archetyper;
+
+    private FileCopy fileCopy;
+
+    private File srcDir;
+
+    private File currentDestDir;
+
+    private ArchetypeWatcher() {
+        super();
+        this.debounceMillis = DEFAULT_DEBOUNCE_MILLIS;
+        this.watchedDirs = new HashMap<>();
+        this.entries = new TreeMap<>();
+    }
+
+    /**
+     * Generates the complete archetype and then processes changes until the watcher is closed or the thread is interrupted.
+     */
+    public void run() {
+        try {
+            start();
+            while (true) {
+                final Set<Path> changed = new HashSet<>();
+                boolean overflow = collect(watchService.take(), changed);
+                WatchKey key;
+                while ((key = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+                    overflow = collect(key, changed) || overflow;
+                }
+                try {
+                    process(changed, overflow);
+                } catch (final RuntimeException ex) {
+                    // Files may be in an intermediate state while editing: Keep watching
+                    LOG.error("Error updating archetype", ex);
+                }
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (final ClosedWatchServiceException ex) {
+            // Closed by another thread
+        } finally {
+            close();
+        }
+        LOG.info("Stopped watching: {}", srcDir);
+    }
+
+    /**
+     * Generates the complete archetype and registers the directories to watch.
+     */
+    void start() {
+        regenerate();
+        LOG.info("Watching for changes in: {}", srcDir);
+    }
+
+    /**
+     * Stops watching. Can be called from any thread.
+     */
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (final IOException ex) {
+            LOG.warn("Error closing watch service", ex);
+        }
+    }
+
+    private boolean collect(final WatchKey key, final Set<Path> changed) {
+        boolean overflow = false;
+        final Path dir = watchedDirs.get(key);
+        for (final WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW || dir == null) {
+                overflow = true;
+                continue;
+            }
+            final Path path = dir.resolve((Path) event.context());
+            changed.add(path);
+            if (event.kind() == ENTRY_CREATE && Files.isDirectory(path) && path.startsWith(srcDir.toPath())) {
+                // Files may have been created before the new directory was registered
+                register(path);
+                changed.addAll(files(path));
+            }
+        }
+        if (!key.reset()) {
+            watchedDirs.remove(key);
+        }
+        return overflow;
+    }
+
+    /**
+     * Updates the archetype for a collected burst of changes.
+     * 
+     * @param changed
+     *            Changed, created or deleted files and directories.
+     * @param overflow
+     *            {@literal true} if events were lost and the complete archetype has to be generated again.
+     */
+    void process(final Set<Path> changed, final boolean overflow) {
+        if (overflow || requiresRegenerate(changed)) {
+            regenerate();
+            return;
+        }
+        final Path destPath = currentDestDir.toPath();
+        final Path srcPath = srcDir.toPath();
+        boolean filesChanged = false;
+        int copied = 0;
+        int removed = 0;
+        for (final Path path : changed) {
+            if (!path.startsWith(srcPath) || path.startsWith(destPath) || Files.isDirectory(path)) {
+                continue;
+            }
+            final File srcFile = path.toFile();
+            final GenerationPlan.Entry entry = Files.isRegularFile(path) ? fileCopy.copy(srcFile) : null;
+            if (entry == null) {
+                final int count = remove(path);
+                removed = removed + count;
+                filesChanged = filesChanged || count > 0;
+            } else {
+                final GenerationPlan.Entry previous = entries.put(srcFile, entry);
+                filesChanged = filesChanged || previous == null || previous.getType() != entry.getType();
+                copied++;
+            }
+        }
+        if (filesChanged) {
+            archetyper.createArchetypeMetadata(currentDestDir, result());
+        }
+        LOG.info("Updated archetype: {} file(s) copied, {} file(s) removed{}", copied, removed,
+                filesChanged ? ", metadata rewritten" : "");
+    }
+
+    private boolean requiresRegenerate(final Set<Path> changed) {
+        final File customPomFile = config.getCustomPomFile(baseDir);
+        final File postGenerateFile = config.getPostGenerateFile(baseDir);
+        for (final Path path : changed) {
+            final File file = path.toFile();
+            if (file.equals(configFile) || file.equals(customPomFile) || file.equals(postGenerateFile)) {
+                LOG.info("Changed: {}", file);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int remove(final Path path) {
+        int count = 0;
+        // The deleted file itself or the files of a deleted directory: All start with the same path
+        final File file = path.toFile();
+        final Iterator<Map.Entry<File, GenerationPlan.Entry>> it = entries
+                .subMap(file, true, new File(file.getPath() + '\uffff'), true).entrySet().iterator();
+        while (it.hasNext()) {
+            final GenerationPlan.Entry entry = it.next().getValue();
+            if (entry.getSrcFile().toPath().startsWith(path)) {
+                delete(entry.getDestFile());
+                it.remove();
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static void delete(final File file) {
+        try {
+            Files.deleteIfExists(file.toPath());
+            LOG.info("Deleted {}", file);
+        } catch (final IOException ex) {
+            throw new RuntimeException("Error deleting: " + file, ex);
+        }
+    }
+
+    private FileCopyResult result() {
+        final FileCopyResult.Builder builder = new FileCopyResult.Builder();
+        for (final GenerationPlan.Entry entry : entries.values()) {
+            if (entry.getType() == FileType.BINARY) {
+                builder.addBinaryFile(entry.getDestFile());
+            } else {
+                builder.addTextFile(entry.getDestFile());
+            }
+        }
+        return builder.build();
+    }
+
+    private void regenerate() {
+        LOG.info("Generating complete archetype from: {}", configFile);
+        config = ConfigImpl.load(configFile);
+        archetyper = new MavenArchetyper(config);
+        srcDir = config.getSrcDir(baseDir);
+        if (destDir == null) {
+            currentDestDir = config.getDestDir(baseDir);
+        } else {
+            currentDestDir = destDir;
+        }
+        MavenArchetyper.deleteDestDir(currentDestDir);
+        archetyper.generate(baseDir, srcDir, currentDestDir);
+        fileCopy = archetyper.createFileCopy(baseDir, srcDir, currentDestDir);
+        entries.clear();
+        for (final GenerationPlan.Entry entry : fileCopy.plan().getEntries()) {
+            entries.put(entry.getSrcFile(), entry);
+        }
+
+        for (final WatchKey key : watchedDirs.keySet()) {
+            key.cancel();
+        }
+        watchedDirs.clear();
+        register(srcDir.toPath());
+        registerDir(configFile.getParentFile().toPath());
+    }
+
+    private void register(final Path dir) {
+        try {
+            Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(final Path subDir, final BasicFileAttributes attrs) {
+                    if (subDir.startsWith(currentDestDir.toPath())) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    registerDir(subDir);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (final IOException ex) {
+            throw new RuntimeException("Error registering directory: " + dir, ex);
+        }
+    }
+
+    private void registerDir(final Path dir) {
+        try {
+            watchedDirs.put(dir.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY), dir);
+        } catch (final IOException ex) {
+            throw new RuntimeException("Error watching directory: " + dir, ex);
+        }
+    }
+
+    private static List<Path> files(final Path dir) {
+        try (final Stream<Path> stream = Files.walk(dir)) {
+            final List<Path> files = new ArrayList<>();
+            stream.filter(Files::isRegularFile).forEach(files::add);
+            return files;
+        } catch (final IOException ex) {
+            throw new RuntimeException("Error listing files in: " + dir, ex);
+        }
+    }
+
+    /**
+     * Builds an instance of the outer class.
+     */
+    public static final class Builder {
+
+        private ArchetypeWatcher delegate;
+
+        /**
+         * Default constructor.
+         */
+        public Builder() {
+            delegate = new ArchetypeWatcher();
+        }
+
+        /**
+         * Sets the configuration file (marchetyper-config.xml). It's reloaded on every change.
+         * 
+         * @param configFile
+         *            Configuration file.
+         * 
+         * @return The builder.
+         */
+        public Builder configFile(final File configFile) {
+            delegate.configFile = configFile;
+            return this;
+        }
+
+        /**
+         * Sets the base directory used to resolve relative directories of the configuration. Default is the directory of the
+         * configuration file.
+         * 
+         * @param baseDir
+         *            Base directory.
+         * 
+         * @return The builder.
+         */
+        public Builder baseDir(final File baseDir) {
+            delegate.baseDir = baseDir;
+            return this;
+        }
+
+        /**
+         * Sets the directory to generate the archetype in. Default is the destination directory of the configuration.
+         * 
+         * @param destDir
+         *            Destination directory.
+         * 
+         * @return The builder.
+         */
+        public Builder destDir(final File destDir) {
+            delegate.destDir = destDir;
+            return this;
+        }
+
+        /**
+         * Sets the time without further events before changes are processed. Default is {@link ArchetypeWatcher#DEFAULT_DEBOUNCE_MILLIS}.
+         * 
+         * @param debounceMillis
+         *            Time in milliseconds.
+         * 
+         * @return The builder.
+         */
+        public Builder debounceMillis(final long debounceMillis) {
+            delegate.debounceMillis = debounceMillis;
+            return this;
+        }
+
+        /**
+         * Builds a new instance of the outer class.
+         * 
+         * @return The new instance.
+         */
+        public ArchetypeWatcher build() {
+            if (delegate.configFile == null) {
+                throw new IllegalStateException("It's mandatory to set a value for 'configFile'");
+            }
+            if (delegate.debounceMillis < 0) {
+                throw new IllegalStateException("The value for 'debounceMillis' must not be negative, but was: " + delegate.debounceMillis);
+            }
+            delegate.configFile = canonical(delegate.configFile);
+            if (delegate.baseDir == null) {
+                delegate.baseDir = delegate.configFile.getParentFile();
+            }
+            if (delegate.destDir != null) {
+                delegate.destDir = canonical(delegate.destDir);
+            }
+            try {
+                delegate.watchService = FileSystems.getDefault().newWatchService();
+            } catch (final IOException ex) {
+                throw new RuntimeException("Error creating watch service", ex);
+            }
+            final ArchetypeWatcher tmp = delegate;
+            delegate = new ArchetypeWatcher();
+            return tmp;
+        }
+
+        private static File canonical(final File file) {
+            try {
+                return file.getCanonicalFile();
+            } catch (final IOException ex) {
+                throw new RuntimeException("Error creating canonical file: " + file, ex);
+            }
+        }
+
+    }
+
+}
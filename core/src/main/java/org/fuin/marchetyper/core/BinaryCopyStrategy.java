@@ -0,0 +1,34 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+/**
+ * Determines how binary files are transferred to the archetype.
+ */
+public enum BinaryCopyStrategy {
+
+    /** The content of the file is copied. */
+    COPY,
+
+    /**
+     * A hard link to the source file is created. Falls back to {@link #COPY} if the file system does not support links, for example if
+     * source and destination are on different devices.
+     */
+    HARD_LINK;
+
+}
@@ -0,0 +1,240 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.fuin.objects4j.common.Contract;
+import org.fuin.objects4j.common.Nullable;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Difference found while comparing a source file with it's generated counterpart.
+ */
+public final class CompareFinding {
+
+    /** Value of a size that is not known. */
+    public static final long UNKNOWN_SIZE = -1;
+
+    private final Type type;
+
+    private final Path srcFile;
+
+    private final Path destFile;
+
+    private final long srcSize;
+
+    private final long destSize;
+
+    private final List<String> diff;
+
+    /**
+     * Constructor without sizes.
+     *
+     * @param type
+     *            Type of difference.
+     * @param srcFile
+     *            Source file.
+     * @param destFile
+     *            Destination file or {@literal null} if the type is {@link Type#ERROR}.
+     */
+    public CompareFinding(@NotNull final Type type, @NotNull final Path srcFile, @Nullable final Path destFile) {
+        this(type, srcFile, destFile, UNKNOWN_SIZE, UNKNOWN_SIZE);
+    }
+
+    /**
+     * Constructor with all data.
+     *
+     * @param type
+     *            Type of difference.
+     * @param srcFile
+     *            Source file.
+     * @param destFile
+     *            Destination file or {@literal null} if the type is {@link Type#ERROR}.
+     * @param srcSize
+     *            Size of the source file or {@link #UNKNOWN_SIZE}.
+     * @param destSize
+     *            Size of the destination file or {@link #UNKNOWN_SIZE}.
+     */
+    public CompareFinding(@NotNull final Type type, @NotNull final Path srcFile, @Nullable final Path destFile, final long srcSize,
+            final long destSize) {
+        this(type, srcFile, destFile, srcSize, destSize, null);
+    }
+
+    /**
+     * Constructor with all data and a line diff.
+     *
+     * @param type
+     *            Type of difference.
+     * @param srcFile
+     *            Source file.
+     * @param destFile
+     *            Destination file or {@literal null} if the type is {@link Type#ERROR}.
+     * @param srcSize
+     *            Size of the source file or {@link #UNKNOWN_SIZE}.
+     * @param destSize
+     *            Size of the destination file or {@link #UNKNOWN_SIZE}.
+     * @param diff
+     *            Lines of a diff between both files or {@literal null}.
+     */
+    public CompareFinding(@NotNull final Type type, @NotNull final Path srcFile, @Nullable final Path destFile, final long srcSize,
+            final long destSize, @Nullable final List<String> diff) {
+        super();
+        Contract.requireArgNotNull("type", type);
+        Contract.requireArgNotNull("srcFile", srcFile);
+        this.type = type;
+        this.srcFile = srcFile;
+        this.destFile = destFile;
+        this.srcSize = srcSize;
+        this.destSize = destSize;
+        if (diff == null) {
+            this.diff = Collections.emptyList();
+        } else {
+            this.diff = Collections.unmodifiableList(new ArrayList<>(diff));
+        }
+    }
+
+    /**
+     * Returns the type of difference.
+     *
+     * @return Type.
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Returns the source file.
+     *
+     * @return Source file - May not exist in case of {@link Type#SRC_FILE_NOT_FOUND}.
+     */
+    public Path getSrcFile() {
+        return srcFile;
+    }
+
+    /**
+     * Returns the destination file.
+     *
+     * @return Destination file - May not exist in case of {@link Type#DEST_FILE_NOT_FOUND} or be {@literal null} in case of
+     *         {@link Type#ERROR}.
+     */
+    public Path getDestFile() {
+        return destFile;
+    }
+
+    /**
+     * Returns the size of the source file.
+     *
+     * @return Size or {@link #UNKNOWN_SIZE}.
+     */
+    public long getSrcSize() {
+        return srcSize;
+    }
+
+    /**
+     * Returns the size of the destination file.
+     *
+     * @return Size or {@link #UNKNOWN_SIZE}.
+     */
+    public long getDestSize() {
+        return destSize;
+    }
+
+    /**
+     * Returns the line diff between both files.
+     *
+     * @return Unmodifiable list of diff lines - Empty if no diff was created.
+     */
+    public List<String> getDiff() {
+        return diff;
+    }
+
+    /**
+     * Appends the text of this finding and the indented diff lines (if any) to a log.
+     *
+     * @param log
+     *            Log to append to.
+     */
+    public void appendTo(@NotNull final StringBuilder log) {
+        Contract.requireArgNotNull("log", log);
+        log.append(this).append(System.lineSeparator());
+        for (final String line : diff) {
+            log.append("    ").append(line).append(System.lineSeparator());
+        }
+    }
+
+    /**
+     * Returns a single line text as used in the compare log.
+     *
+     * @return Human readable message.
+     */
+    @Override
+    public String toString() {
+        switch (type) {
+        case SIZE_DIFF:
+            return type.getLabel() + ": Source=" + srcSize + ", Dest=" + destSize + " [Source File=" + srcFile + ", Dest File=" + destFile
+                    + "]";
+        case ERROR:
+            return type.getLabel() + ": " + srcFile;
+        default:
+            return type.getLabel() + ": Source File=" + srcFile + ", Dest File=" + destFile;
+        }
+    }
+
+    /**
+     * Type of difference.
+     */
+    public enum Type {
+
+        /** Both files have the same size, but a different content. */
+        CONTENT_DIFF("CONTENT DIFF"),
+
+        /** Both files have a different size. */
+        SIZE_DIFF("SIZE DIFF"),
+
+        /** The source file has no counterpart in the destination directory. */
+        DEST_FILE_NOT_FOUND("DEST FILE NOT FOUND"),
+
+        /** The destination file has no counterpart in the source directory. */
+        SRC_FILE_NOT_FOUND("SRC FILE NOT FOUND"),
+
+        /** The source file could not be compared. */
+        ERROR("ERROR PROCESSING SRC FILE");
+
+        private final String label;
+
+        private Type(final String label) {
+            this.label = label;
+        }
+
+        /**
+         * Returns the text used in the compare log.
+         *
+         * @return Label.
+         */
+        public String getLabel() {
+            return label;
+        }
+
+    }
+
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Receives the differences found while comparing directories. All methods are called from the thread that started the comparison in a
+ * deterministic order, so implementations do not need to be thread-safe.
+ */
+public interface CompareListener {
+
+    /**
+     * A difference was found.
+     *
+     * @param finding
+     *            Difference.
+     */
+    public void onFinding(CompareFinding finding);
+
+    /**
+     * The comparison was stopped early because the maximum number of findings was reached.
+     *
+     * @param maxFindings
+     *            Configured maximum.
+     */
+    public default void onCutoff(int maxFindings) {
+        // Ignore by default
+    }
+
+    /**
+     * Creates a listener that forwards all events to the given listeners.
+     *
+     * @param listeners
+     *            Listeners to notify in the given order.
+     *
+     * @return New listener.
+     */
+    public static CompareListener all(final CompareListener... listeners) {
+        final List<CompareListener> list = Arrays.asList(listeners);
+        return new CompareListener() {
+
+            @Override
+            public void onFinding(final CompareFinding finding) {
+                for (final CompareListener listener : list) {
+                    listener.onFinding(finding);
+                }
+            }
+
+            @Override
+            public void onCutoff(final int maxFindings) {
+                for (final CompareListener listener : list) {
+                    listener.onCutoff(maxFindings);
+                }
+            }
+
+        };
+    }
+
+}
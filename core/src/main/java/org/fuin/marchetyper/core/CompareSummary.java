@@ -0,0 +1,150 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects compare findings in memory with a fixed upper bound. All findings are counted, but only the first ones are kept. This allows
+ * reporting a meaningful message even if thousands of files differ.
+ */
+public final class CompareSummary implements CompareListener {
+
+    private final int maxRetained;
+
+    private final List<CompareFinding> findings;
+
+    private final Map<CompareFinding.Type, Integer> counts;
+
+    private int count;
+
+    private int cutoff;
+
+    /**
+     * Constructor with the number of findings to keep.
+     * 
+     * @param maxRetained
+     *            Maximum number of findings to keep in memory.
+     */
+    public CompareSummary(final int maxRetained) {
+        super();
+        if (maxRetained < 0) {
+            throw new IllegalArgumentException("The value for 'maxRetained' must not be negative, but was: " + maxRetained);
+        }
+        this.maxRetained = maxRetained;
+        this.findings = new ArrayList<>(Math.min(maxRetained, 100));
+        this.counts = new EnumMap<>(CompareFinding.Type.class);
+    }
+
+    @Override
+    public void onFinding(final CompareFinding finding) {
+        count++;
+        counts.merge(finding.getType(), 1, Integer::sum);
+        if (findings.size() < maxRetained) {
+            findings.add(finding);
+        }
+    }
+
+    @Override
+    public void onCutoff(final int maxFindings) {
+        this.cutoff = maxFindings;
+    }
+
+    /**
+     * Returns the total number of findings.
+     * 
+     * @return Number of findings including those that were not kept.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the number of findings of a given type.
+     * 
+     * @param type
+     *            Type of finding.
+     * 
+     * @return Number of findings including those that were not kept.
+     */
+    public int getCount(final CompareFinding.Type type) {
+        final Integer typeCount = counts.get(type);
+        if (typeCount == null) {
+            return 0;
+        }
+        return typeCount;
+    }
+
+    /**
+     * Returns the findings that were kept in memory.
+     * 
+     * @return Unmodifiable list with the first findings in the order they were reported.
+     */
+    public List<CompareFinding> getFindings() {
+        return Collections.unmodifiableList(findings);
+    }
+
+    /**
+     * Determines if the comparison was stopped before all files were compared.
+     * 
+     * @return {@literal true} if the maximum number of findings was reached.
+     */
+    public boolean isCutoff() {
+        return cutoff > 0;
+    }
+
+    /**
+     * Determines if no finding was reported.
+     * 
+     * @return {@literal true} if both sides are equal.
+     */
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Returns the kept findings (one per line) and a summary of the counts if not all findings were kept.
+     * 
+     * @return Human readable text.
+     */
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+        for (final CompareFinding finding : findings) {
+            finding.appendTo(sb);
+        }
+        if (count > findings.size()) {
+            sb.append("... ").append(count - findings.size()).append(" more (").append(count).append(" total:");
+            String sep = " ";
+            for (final Map.Entry<CompareFinding.Type, Integer> entry : counts.entrySet()) {
+                sb.append(sep).append(entry.getKey().getLabel()).append('=').append(entry.getValue());
+                sep = ", ";
+            }
+            sb.append(")").append(System.lineSeparator());
+        }
+        if (isCutoff()) {
+            sb.append("Compare stopped after ").append(cutoff).append(" findings").append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,357 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.fuin.objects4j.common.Contract;
+import org.fuin.objects4j.common.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Immutable snapshot of a configuration for a base directory. Directories are resolved, regular expressions are compiled and the mappings
+ * and the Velocity header for text files are created only once. All fields are final, so an instance can be shared by multiple threads
+ * without locking.
+ */
+public final class CompiledConfig implements Config {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CompiledConfig.class);
+
+    private final Config config;
+
+    private final File baseDir;
+
+    private final File srcDir;
+
+    private final File destDir;
+
+    private final File customPomFile;
+
+    private final File postGenerateFile;
+
+    private final boolean maskDotFile;
+
+    private final Archetype archetype;
+
+    private final List<Variable> variables;
+
+    private final List<Mapping> pathMappings;
+
+    private final List<Mapping> fileMappings;
+
+    private final List<FileFilter> fileIncludes;
+
+    private final List<FileFilter> fileExcludes;
+
+    private final String binaryFiles;
+
+    private final String textFiles;
+
+    private final Pattern binaryPattern;
+
+    private final Pattern textPattern;
+
+    private final Pattern defaultFilenameSelector;
+
+    private final List<Mapping> mappings;
+
+    private final String header;
+
+    /**
+     * Constructor with configuration and base directory.
+     * 
+     * @param config
+     *            Configuration to create a snapshot of.
+     * @param baseDir
+     *            Base directory used to resolve relative directories and files.
+     */
+    public CompiledConfig(@NotNull final Config config, @Nullable final File baseDir) {
+        super();
+        Contract.requireArgNotNull("config", config);
+        this.config = config;
+        this.baseDir = baseDir;
+        this.srcDir = config.getSrcDir(baseDir);
+        this.destDir = config.getDestDir(baseDir);
+        this.customPomFile = config.getCustomPomFile(baseDir);
+        this.postGenerateFile = config.getPostGenerateFile(baseDir);
+        this.maskDotFile = config.isMaskDotFile();
+        this.archetype = config.getArchetype();
+        this.variables = copy(config.getVariables());
+        this.pathMappings = copy(config.getPathMappings());
+        this.fileMappings = copy(config.getFileMappings());
+        this.fileIncludes = copy(config.getFileIncludes());
+        this.fileExcludes = copy(config.getFileExcludes());
+        this.binaryFiles = config.getBinaryFiles();
+        this.textFiles = config.getTextFiles();
+        this.binaryPattern = compile(binaryFiles);
+        if (textFiles == null) {
+            this.textPattern = Pattern.compile(ConfigImpl.DEFAULT_TEXT_FILES);
+        } else {
+            this.textPattern = Pattern.compile(textFiles);
+        }
+        this.defaultFilenameSelector = compile(textFiles);
+        this.mappings = copy(MavenArchetyper.mappings(config));
+        this.header = MavenArchetyper.header(config);
+    }
+
+    /**
+     * Returns the base directory the snapshot was created for.
+     * 
+     * @return Base directory.
+     */
+    public File getBaseDir() {
+        return baseDir;
+    }
+
+    /**
+     * Returns the resolved source directory.
+     * 
+     * @return Source directory.
+     */
+    public File getSrcDir() {
+        return srcDir;
+    }
+
+    /**
+     * Returns the resolved destination directory.
+     * 
+     * @return Destination directory.
+     */
+    public File getDestDir() {
+        return destDir;
+    }
+
+    /**
+     * Returns the resolved custom 'pom.xml'.
+     * 
+     * @return File or {@literal null} in case no custom POM is configured.
+     */
+    public File getCustomPomFile() {
+        return customPomFile;
+    }
+
+    /**
+     * Returns the resolved post generate Groovy script.
+     * 
+     * @return File or {@literal null} in case no script file is configured.
+     */
+    public File getPostGenerateFile() {
+        return postGenerateFile;
+    }
+
+    /**
+     * Returns all mappings applied to text files: The default mappings that escape Velocity characters followed by the file mappings.
+     * 
+     * @return Unmodifiable list of mappings.
+     */
+    public List<Mapping> getMappings() {
+        return mappings;
+    }
+
+    /**
+     * Returns the compiled expression used for mappings without own path or file expression.
+     * 
+     * @return Compiled 'text-files' expression or {@literal null} if none was configured.
+     */
+    public Pattern getDefaultFilenameSelector() {
+        return defaultFilenameSelector;
+    }
+
+    /**
+     * Returns the Velocity header that is inserted at the beginning of every text file.
+     * 
+     * @return Header with the variable definitions.
+     */
+    public String getHeader() {
+        return header;
+    }
+
+    @Override
+    public File getSrcDir(final File baseDir) {
+        if (isSnapshotBaseDir(baseDir)) {
+            return srcDir;
+        }
+        return config.getSrcDir(baseDir);
+    }
+
+    @Override
+    public File getDestDir(final File baseDir) {
+        if (isSnapshotBaseDir(baseDir)) {
+            return destDir;
+        }
+        return config.getDestDir(baseDir);
+    }
+
+    @Override
+    public File getCustomPomFile(final File baseDir) {
+        if (isSnapshotBaseDir(baseDir)) {
+            return customPomFile;
+        }
+        return config.getCustomPomFile(baseDir);
+    }
+
+    @Override
+    public File getPostGenerateFile(final File baseDir) {
+        if (isSnapshotBaseDir(baseDir)) {
+            return postGenerateFile;
+        }
+        return config.getPostGenerateFile(baseDir);
+    }
+
+    /**
+     * Determines if the snapshot was created for the given base directory.
+     * 
+     * @param baseDir
+     *            Base directory to test.
+     * 
+     * @return {@literal true} if the resolved directories and files of this snapshot can be used for the base directory.
+     */
+    public boolean isSnapshotBaseDir(final File baseDir) {
+        if (this.baseDir == null) {
+            return baseDir == null;
+        }
+        return this.baseDir.equals(baseDir);
+    }
+
+    @Override
+    public GenerationOptions getGenerationOptions() {
+        return config.getGenerationOptions();
+    }
+
+    @Override
+    public boolean isMaskDotFile() {
+        return maskDotFile;
+    }
+
+    @Override
+    public Archetype getArchetype() {
+        return archetype;
+    }
+
+    @Override
+    public List<Variable> getVariables() {
+        return variables;
+    }
+
+    @Override
+    public List<Mapping> getPathMappings() {
+        return pathMappings;
+    }
+
+    @Override
+    public List<Mapping> getFileMappings() {
+        return fileMappings;
+    }
+
+    @Override
+    public List<FileFilter> getFileIncludes() {
+        return fileIncludes;
+    }
+
+    @Override
+    public List<FileFilter> getFileExcludes() {
+        return fileExcludes;
+    }
+
+    @Override
+    public String getBinaryFiles() {
+        return binaryFiles;
+    }
+
+    @Override
+    public String getTextFiles() {
+        return textFiles;
+    }
+
+    @Override
+    public boolean includes(final File file) {
+        for (final FileFilter filter : fileIncludes) {
+            if (filter.applies(file)) {
+                LOG.info("File '{} included by: {}", file, filter);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean excludes(final File file) {
+        for (final FileFilter filter : fileExcludes) {
+            if (filter.applies(file)) {
+                LOG.info("File '{} excluded by: {}", file, filter);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isBinary(final File file) {
+        if (binaryPattern == null) {
+            return !isText(file);
+        }
+        return binaryPattern.matcher(file.getName()).matches();
+    }
+
+    @Override
+    public boolean isText(final File file) {
+        return textPattern.matcher(file.getName()).matches();
+    }
+
+    /**
+     * Returns a snapshot of the configuration for a base directory. A snapshot is only created if the configuration is not already a
+     * snapshot for the same base directory.
+     * 
+     * @param config
+     *            Configuration.
+     * @param baseDir
+     *            Base directory.
+     * 
+     * @return Snapshot.
+     */
+    public static CompiledConfig of(@NotNull final Config config, @Nullable final File baseDir) {
+        Contract.requireArgNotNull("config", config);
+        if (config instanceof CompiledConfig) {
+            final CompiledConfig compiledConfig = (CompiledConfig) config;
+            if (compiledConfig.isSnapshotBaseDir(baseDir)) {
+                return compiledConfig;
+            }
+            return new CompiledConfig(compiledConfig.config, baseDir);
+        }
+        return new CompiledConfig(config, baseDir);
+    }
+
+    private static <T> List<T> copy(final List<T> list) {
+        return Collections.unmodifiableList(new ArrayList<>(list));
+    }
+
+    private static Pattern compile(final String regEx) {
+        if (regEx == null) {
+            return null;
+        }
+        return Pattern.compile(regEx);
+    }
+
+}
@@ -124,4 +124,11 @@ public interface Config extends FileMatcher {
      */
     public String getTextFiles();
 
+    /**
+     * Returns the options that tune how the archetype is generated.
+     * 
+     * @return Options, never {@literal null}.
+     */
+    public GenerationOptions getGenerationOptions();
+
 }
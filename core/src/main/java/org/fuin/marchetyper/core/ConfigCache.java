@@ -0,0 +1,173 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.fuin.objects4j.common.Contract;
+import org.fuin.objects4j.common.FileExists;
+import org.fuin.objects4j.common.FileExistsValidator;
+import org.fuin.objects4j.common.IsFile;
+import org.fuin.objects4j.common.IsFileValidator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.xml.bind.JAXBException;
+
+/**
+ * Cache for configurations loaded from a file. The cache lives as long as the class is loaded, for example in a Maven daemon (mvnd) that
+ * runs the plugin multiple times. A cached configuration is only reused as long as the hash of the file's content is unchanged, otherwise
+ * the file is parsed again. The configurations are never modified after loading, so the same instance can be shared by multiple builds.
+ * Compiled snapshots of a configuration are cached per base directory. Both caches are limited to the most recently used entries, so a
+ * long living daemon that builds many projects does not keep all of them in memory.
+ */
+public final class ConfigCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ConfigCache.class);
+
+    /** Maximum number of configuration files and of base directories per configuration that are cached. */
+    static final int MAX_ENTRIES = 16;
+
+    private static final Map<String, Entry> CACHE = lruMap();
+
+    private ConfigCache() {
+        super();
+    }
+
+    /**
+     * Returns the configuration from a file. The XML is only parsed if the file was not loaded before or if the content has changed.
+     * 
+     * @param file
+     *            File to load configuration from.
+     * 
+     * @return Configuration.
+     */
+    public static Config load(@NotNull @FileExists @IsFile final File file) {
+        return entry(file).config;
+    }
+
+    /**
+     * Returns the compiled configuration from a file for a base directory. Neither is the XML parsed nor the configuration compiled again
+     * as long as the content of the file is unchanged.
+     * 
+     * @param file
+     *            File to load configuration from.
+     * @param baseDir
+     *            Base directory used to resolve relative directories and files.
+     * 
+     * @return Compiled configuration.
+     */
+    public static CompiledConfig load(@NotNull @FileExists @IsFile final File file, @NotNull final File baseDir) {
+        Contract.requireArgNotNull("baseDir", baseDir);
+        final Entry entry = entry(file);
+        return entry.compiled.computeIfAbsent(baseDir, dir -> new CompiledConfig(entry.config, dir));
+    }
+
+    private static Entry entry(final File file) {
+        Contract.requireArgNotNull("file", file);
+        FileExistsValidator.requireArgValid("file", file);
+        IsFileValidator.requireArgValid("file", file);
+
+        try {
+            final File canonicalFile = file.getCanonicalFile();
+            final byte[] content = Files.readAllBytes(canonicalFile.toPath());
+            final String hash = DigestCache.digest(content);
+            final String key = canonicalFile.getPath();
+            final Entry cached = CACHE.get(key);
+            if (cached != null && cached.hash.equals(hash)) {
+                LOG.debug("Using cached config: {}", file);
+                return cached;
+            }
+            // Same charset as 'ConfigImpl.load(File)' that uses a 'FileReader'
+            try (final Reader reader = new InputStreamReader(new ByteArrayInputStream(content), Charset.defaultCharset())) {
+                final Entry entry = new Entry(hash, ConfigImpl.load(reader));
+                CACHE.put(key, entry);
+                return entry;
+            }
+        } catch (final IOException | JAXBException ex) {
+            throw new RuntimeException("Error loading XML config: " + file, ex);
+        }
+    }
+
+    /**
+     * Removes all cached configurations.
+     */
+    public static void clear() {
+        CACHE.clear();
+    }
+
+    /**
+     * Returns the number of cached configuration files.
+     * 
+     * @return Number of entries.
+     */
+    static int size() {
+        return CACHE.size();
+    }
+
+    /**
+     * Creates a thread-safe map that drops the least recently used entry if more than {@link #MAX_ENTRIES} are added.
+     * 
+     * @param <K>
+     *            Type of the key.
+     * @param <V>
+     *            Type of the value.
+     * 
+     * @return New map.
+     */
+    private static <K, V> Map<K, V> lruMap() {
+        return Collections.synchronizedMap(new LinkedHashMap<K, V>(MAX_ENTRIES, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+                return size() > MAX_ENTRIES;
+            }
+        });
+    }
+
+    /**
+     * Cached configuration.
+     */
+    private static final class Entry {
+
+        private final String hash;
+
+        private final Config config;
+
+        private final Map<File, CompiledConfig> compiled;
+
+        Entry(final String hash, final Config config) {
+            this.hash = hash;
+            this.config = config;
+            this.compiled = lruMap();
+        }
+
+    }
+
+}
@@ -24,7 +24,9 @@ import java.io.IOException;
 import java.io.Reader;
 import java.util.Collections;
 import java.util.List;
+import java.util.regex.Pattern;
 
+import org.fuin.objects4j.common.ConstraintViolationException;
 import org.fuin.objects4j.common.Contract;
 import org.fuin.objects4j.common.FileExists;
 import org.fuin.objects4j.common.FileExistsValidator;
@@ -41,6 +43,7 @@ import jakarta.xml.bind.annotation.XmlAttribute;
 import jakarta.xml.bind.annotation.XmlElement;
 import jakarta.xml.bind.annotation.XmlElementWrapper;
 import jakarta.xml.bind.annotation.XmlRootElement;
+import jakarta.xml.bind.annotation.XmlTransient;
 
 /**
  * Application configuration.
@@ -50,6 +53,9 @@ public final class ConfigImpl implements Config {
 
     private static final Logger LOG = LoggerFactory.getLogger(ConfigImpl.class);
 
+    /** Regular expression for text files used if no 'text-files' attribute is configured. */
+    public static final String DEFAULT_TEXT_FILES = ".*\\.(properties|md|java|xml|yaml|yml|json|txt)";
+
     @XmlAttribute(name = "src-dir")
     private String srcDir;
 
@@ -71,6 +77,21 @@ public final class ConfigImpl implements Config {
     @XmlAttribute(name = "mask-dot-file")
     private Boolean maskDotFile;
 
+    @XmlAttribute(name = "parallelism")
+    private Integer parallelism;
+
+    @XmlAttribute(name = "replacement-engine")
+    private String replacementEngine;
+
+    @XmlAttribute(name = "binary-copy")
+    private String binaryCopy;
+
+    @XmlAttribute(name = "sync-mode")
+    private String syncMode;
+
+    @XmlAttribute(name = "metrics-file")
+    private String metricsFile;
+
     @XmlElement(name = "archetype")
     private Archetype archetype;
 
@@ -94,11 +115,21 @@ public final class ConfigImpl implements Config {
     @XmlElement(name = "filter")
     private List<FileFilter> fileExcludes;
 
+    @XmlTransient
+    private Pattern binaryPattern;
+
+    @XmlTransient
+    private Pattern textPattern;
+
+    @XmlTransient
+    private GenerationOptions generationOptions;
+
     /**
      * Default constructor.
      */
     public ConfigImpl() {
         super();
+        compile();
     }
 
     /**
@@ -113,6 +144,7 @@ public final class ConfigImpl implements Config {
         super();
         this.srcDir = srcDir.toString();
         this.destDir = destDir.toString();
+        compile();
     }
 
     @Override
@@ -220,6 +252,11 @@ public final class ConfigImpl implements Config {
         return textFiles;
     }
 
+    @Override
+    public final GenerationOptions getGenerationOptions() {
+        return generationOptions;
+    }
+
     @Override
     public final boolean includes(final File file) {
         if (fileIncludes == null) {
@@ -250,18 +287,57 @@ public final class ConfigImpl implements Config {
 
     @Override
     public final boolean isBinary(final File srcFile) {
-        if (binaryFiles == null) {
+        if (binaryPattern == null) {
             return !isText(srcFile);
         }
-        return srcFile.getName().matches(binaryFiles);
+        return binaryPattern.matcher(srcFile.getName()).matches();
     }
 
     @Override
     public final boolean isText(final File srcFile) {
+        return textPattern.matcher(srcFile.getName()).matches();
+    }
+
+    void afterUnmarshal(final Unmarshaller unmarshaller, final Object parent) {
+        compile();
+    }
+
+    private void compile() {
+        if (binaryFiles == null) {
+            binaryPattern = null;
+        } else {
+            binaryPattern = Pattern.compile(binaryFiles);
+        }
         if (textFiles == null) {
-            textFiles = ".*\\.(properties|md|java|xml|yaml|yml|json|txt)";
+            textPattern = Pattern.compile(DEFAULT_TEXT_FILES);
+        } else {
+            textPattern = Pattern.compile(textFiles);
+        }
+        final GenerationOptions.Builder options = new GenerationOptions.Builder();
+        if (parallelism != null) {
+            if (parallelism < 1) {
+                throw new ConstraintViolationException("The attribute 'parallelism' must be greater than zero, but was: " + parallelism);
+            }
+            options.parallelism(parallelism);
+        }
+        options.replacementEngine(valueOf(ReplacementEngine.class, "replacement-engine", replacementEngine));
+        options.binaryCopy(valueOf(BinaryCopyStrategy.class, "binary-copy", binaryCopy));
+        options.syncMode(valueOf(SyncMode.class, "sync-mode", syncMode));
+        if (metricsFile != null) {
+            options.metricsFile(new File(metricsFile));
+        }
+        generationOptions = options.build();
+    }
+
+    private static <T extends Enum<T>> T valueOf(final Class<T> type, final String attribute, final String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, value);
+        } catch (final IllegalArgumentException ex) {
+            throw new ConstraintViolationException("The value '" + value + "' of attribute '" + attribute + "' does not exist");
         }
-        return srcFile.getName().matches(textFiles);
     }
 
     private File canonical(File file) {
@@ -287,6 +363,22 @@ public final class ConfigImpl implements Config {
         return load(new File(parameters.get(0)));
     }
 
+    /**
+     * Creates a new configuration instance by reading it from a reader.
+     * 
+     * @param reader
+     *            Reader with the XML configuration.
+     * 
+     * @return New configuration instance.
+     * 
+     * @throws JAXBException
+     *             Error parsing the XML.
+     */
+    static ConfigImpl load(final Reader reader) throws JAXBException {
+        final Unmarshaller unmarshaller = JaxbContextHolder.CONTEXT.createUnmarshaller();
+        return (ConfigImpl) unmarshaller.unmarshal(reader);
+    }
+
     /**
      * Creates a new configuration instance by loading it from a file.
      * 
@@ -301,13 +393,28 @@ public final class ConfigImpl implements Config {
         IsFileValidator.requireArgValid("file", file);
 
         try (final Reader reader = new BufferedReader(new FileReader(file))) {
-            final JAXBContext ctx = JAXBContext.newInstance(ConfigImpl.class);
-            final Unmarshaller unmarshaller = ctx.createUnmarshaller();
-            return (ConfigImpl) unmarshaller.unmarshal(reader);
+            return load(reader);
         } catch (final IOException | JAXBException ex) {
             throw new RuntimeException("Error loading XML config: " + file, ex);
         }
 
     }
 
+    /**
+     * Creates the JAXB context only once per JVM (on first use). Creating a context is expensive, but the context itself is thread-safe.
+     */
+    private static final class JaxbContextHolder {
+
+        private static final JAXBContext CONTEXT = create();
+
+        private static JAXBContext create() {
+            try {
+                return JAXBContext.newInstance(ConfigImpl.class);
+            } catch (final JAXBException ex) {
+                throw new RuntimeException("Error creating JAXB context for: " + ConfigImpl.class, ex);
+            }
+        }
+
+    }
+
 }
@@ -0,0 +1,248 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.fuin.objects4j.common.Contract;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Persistent cache of file digests. An entry is keyed by the path of the file and only valid as long as size and last modification time of
+ * the file are unchanged. The cache is intended to live in the build directory, for example 'target/marchetyper-digests.txt'. It is safe
+ * to use from multiple threads.
+ */
+public final class DigestCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DigestCache.class);
+
+    private static final String ALGORITHM = "SHA-256";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final File file;
+
+    private final Map<String, Entry> loaded;
+
+    private final Map<String, Entry> used;
+
+    private int hits;
+
+    /**
+     * Constructor with the cache file. Existing entries are read from the file if it exists.
+     *
+     * @param file
+     *            File to read the cache from and to save it to.
+     */
+    public DigestCache(@NotNull final File file) {
+        super();
+        Contract.requireArgNotNull("file", file);
+        this.file = file;
+        this.loaded = new ConcurrentHashMap<>();
+        this.used = new ConcurrentHashMap<>();
+        load();
+    }
+
+    /**
+     * Returns the digest of a file. The file is only read if it's unknown or if size or last modification time changed.
+     *
+     * @param path
+     *            File to return a digest for.
+     * @param size
+     *            Size of the file.
+     * @param lastModified
+     *            Last modification time of the file in milliseconds.
+     *
+     * @return Hex encoded digest.
+     *
+     * @throws IOException
+     *             Error reading the file.
+     */
+    public String digest(@NotNull final Path path, final long size, final long lastModified) throws IOException {
+        Contract.requireArgNotNull("path", path);
+        final String key = path.toString();
+        final Entry cached = loaded.get(key);
+        final Entry entry;
+        if (cached != null && cached.size == size && cached.lastModified == lastModified) {
+            entry = cached;
+            synchronized (this) {
+                hits++;
+            }
+        } else {
+            entry = new Entry(size, lastModified, digest(path));
+            loaded.put(key, entry);
+        }
+        used.put(key, entry);
+        return entry.digest;
+    }
+
+    /**
+     * Returns the number of digests that were taken from the cache instead of reading the file.
+     *
+     * @return Number of cache hits.
+     */
+    public synchronized int getHits() {
+        return hits;
+    }
+
+    /**
+     * Writes all entries that were used since the cache was loaded to the file. Entries of files that were not requested are dropped, so
+     * the cache does not grow with files that no longer exist.
+     */
+    public void save() {
+        final Map<String, Entry> sorted = new TreeMap<>(used);
+        try {
+            final Path path = file.toPath().toAbsolutePath();
+            Files.createDirectories(path.getParent());
+            final Path tmp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+            try (final BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                for (final Map.Entry<String, Entry> mapEntry : sorted.entrySet()) {
+                    final Entry entry = mapEntry.getValue();
+                    writer.write(entry.size + "\t" + entry.lastModified + "\t" + entry.digest + "\t" + mapEntry.getKey());
+                    writer.newLine();
+                }
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final IOException ex) {
+            throw new RuntimeException("Error writing digest cache: " + file, ex);
+        }
+    }
+
+    private void load() {
+        if (!file.exists()) {
+            return;
+        }
+        try (final BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                final String[] parts = line.split("\t", 4);
+                if (parts.length == 4) {
+                    loaded.put(parts[3], new Entry(Long.parseLong(parts[0]), Long.parseLong(parts[1]), parts[2]));
+                }
+            }
+        } catch (final IOException | NumberFormatException ex) {
+            // The cache is only an optimization: Start with an empty one
+            LOG.warn("Ignoring unreadable digest cache: {}", file, ex);
+            loaded.clear();
+        }
+    }
+
+    /**
+     * Calculates the digest of a file.
+     *
+     * @param path
+     *            File to read.
+     *
+     * @return Hex encoded digest.
+     *
+     * @throws IOException
+     *             Error reading the file.
+     */
+    public static String digest(@NotNull final Path path) throws IOException {
+        Contract.requireArgNotNull("path", path);
+        final MessageDigest md = messageDigest();
+        try (final InputStream in = Files.newInputStream(path)) {
+            final byte[] buf = new byte[BUFFER_SIZE];
+            int count;
+            while ((count = in.read(buf)) != -1) {
+                md.update(buf, 0, count);
+            }
+        }
+        return hex(md.digest());
+    }
+
+    /**
+     * Calculates the digest of a byte array.
+     *
+     * @param bytes
+     *            Data to digest.
+     *
+     * @return Hex encoded digest.
+     */
+    static String digest(final byte[] bytes) {
+        return hex(messageDigest().digest(bytes));
+    }
+
+    /**
+     * Creates a new message digest for the algorithm used by the cache.
+     *
+     * @return New digest instance.
+     */
+    static MessageDigest messageDigest() {
+        try {
+            return MessageDigest.getInstance(ALGORITHM);
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Digest algorithm not available: " + ALGORITHM, ex);
+        }
+    }
+
+    /**
+     * Converts bytes into a lower case hex string.
+     *
+     * @param bytes
+     *            Bytes to convert.
+     *
+     * @return Hex encoded bytes.
+     */
+    static String hex(final byte[] bytes) {
+        final char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0x0F];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0x0F];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Cached digest of a file.
+     */
+    private static final class Entry {
+
+        private final long size;
+
+        private final long lastModified;
+
+        private final String digest;
+
+        Entry(final long size, final long lastModified, final String digest) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.digest = digest;
+        }
+
+    }
+
+}
@@ -17,26 +17,63 @@
  */
 package org.fuin.marchetyper.core;
 
-import org.apache.commons.io.FileUtils;
 import org.fuin.objects4j.common.ConstraintViolationException;
 import org.fuin.objects4j.common.Contract;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Compares two directories.
  */
 public final class DirectoryCompare {
 
-    private final Config config;
+    /** Maximum number of differences included in the message of a failed verification. */
+    public static final int MAX_REPORTED_FINDINGS = 100;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private Config config;
+
+    private int parallelism;
+
+    private boolean bidirectional;
+
+    private DigestCache digestCache;
+
+    private int maxFindings;
+
+    private LineDiff lineDiff;
+
+    private DirectoryCompare() {
+        super();
+        this.parallelism = 1;
+    }
 
     /**
      * Constructor with mandatory data.
@@ -45,7 +82,7 @@ public final class DirectoryCompare {
      *            Configuration.
      */
     public DirectoryCompare(final Config config) {
-        super();
+        this();
         this.config = config;
     }
 
@@ -60,19 +97,36 @@ public final class DirectoryCompare {
      *            Result log.
      */
     public final void compare(final Path[] srcPaths, final Path[] destPaths, final StringBuilder log) {
+        Contract.requireArgNotNull("log", log);
+        compare(srcPaths, destPaths, logListener(log));
+    }
+
+    /**
+     * Compares multiple directory pairs and reports the differences to a listener. The configured maximum number of findings applies to
+     * all pairs together.
+     * 
+     * @param srcPaths
+     *            Source path to compare.
+     * @param destPaths
+     *            Destination path to compare.
+     * @param listener
+     *            Listener to inform about differences.
+     */
+    public final void compare(final Path[] srcPaths, final Path[] destPaths, final CompareListener listener) {
 
         Contract.requireArgNotNull("srcPaths", srcPaths);
         Contract.requireArgNotNull("destPaths", destPaths);
-        Contract.requireArgNotNull("log", log);
+        Contract.requireArgNotNull("listener", listener);
         if (srcPaths.length != destPaths.length) {
             throw new ConstraintViolationException(
                     "The number of 'srcPaths' (" + srcPaths.length + ") does not match the 'destPaths' count (" + destPaths.length + ")");
         }
 
-        for (int i = 0; i < srcPaths.length; i++) {
+        final Findings findings = new Findings(listener, maxFindings);
+        for (int i = 0; i < srcPaths.length && !findings.isCutoff(); i++) {
             final Path srcDir = srcPaths[i];
             final Path destDir = destPaths[i];
-            compare(srcDir, destDir, log);
+            compare(srcDir, destDir, findings);
         }
     }
 
@@ -87,16 +141,44 @@ public final class DirectoryCompare {
      *            Result log.
      */
     public final void compare(final Path srcPathRelative, final Path destPathRelative, final StringBuilder log) {
+        Contract.requireArgNotNull("log", log);
+        compare(srcPathRelative, destPathRelative, logListener(log));
+    }
+
+    /**
+     * Compares a single directory pair and reports the differences to a listener.
+     * 
+     * @param srcPathRelative
+     *            Source directory.
+     * @param destPathRelative
+     *            Destination directory.
+     * @param listener
+     *            Listener to inform about differences.
+     */
+    public final void compare(final Path srcPathRelative, final Path destPathRelative, final CompareListener listener) {
+        Contract.requireArgNotNull("listener", listener);
+        compare(srcPathRelative, destPathRelative, new Findings(listener, maxFindings));
+    }
+
+    private void compare(final Path srcPathRelative, final Path destPathRelative, final Findings findings) {
 
         Contract.requireArgNotNull("srcPathRelative", srcPathRelative);
         Contract.requireArgNotNull("destPathRelative", destPathRelative);
-        Contract.requireArgNotNull("log", log);
 
         try {
 
             final Path srcPath = srcPathRelative.toFile().getCanonicalFile().toPath();
             final Path destPath = destPathRelative.toFile().getCanonicalFile().toPath();
 
+            if (bidirectional) {
+                compareMerged(srcPath, destPath, findings);
+                return;
+            }
+            if (parallelism > 1) {
+                compareParallel(srcPath, destPath, findings);
+                return;
+            }
+
             Files.walkFileTree(srcPath, new SimpleFileVisitor<Path>() {
 
                 @Override
@@ -116,35 +198,315 @@ public final class DirectoryCompare {
 
                         final Path relativePath = srcPath.relativize(srcFile);
                         final Path destFile = destPath.resolve(relativePath);
-                        if (Files.exists(destFile)) {
-                            if (Files.size(srcFile) == Files.size(destFile)) {
-                                if (!FileUtils.contentEquals(srcFile.toFile(), destFile.toFile())) {
-                                    log.append("CONTENT DIFF: Source File=" + srcFile + ", Dest File=" + destFile + System.lineSeparator());
-                                }
-                            } else {
-                                log.append("SIZE DIFF: Source=" + Files.size(srcFile) + ", Dest=" + Files.size(destFile) + " [Source File="
-                                        + srcFile + ", Dest File=" + destFile + "]" + System.lineSeparator());
-                            }
-                        } else {
-                            log.append("DEST FILE NOT FOUND: Source File=" + srcFile + ", Dest File=" + destFile + System.lineSeparator());
-                        }
-                        return FileVisitResult.CONTINUE;
+                        findings.report(compareFile(
+                                new FileEntry(srcFile, relativePath, attrs.size(), attrs.lastModifiedTime().toMillis()), destFile));
                     } catch (final RuntimeException ex) {
-                        log.append("ERROR PROCESSING SRC FILE: " + srcFile + System.lineSeparator());
-                        return FileVisitResult.CONTINUE;
+                        findings.report(new CompareFinding(CompareFinding.Type.ERROR, srcFile, null));
+                    }
+                    if (findings.isCutoff()) {
+                        return FileVisitResult.TERMINATE;
                     }
+                    return FileVisitResult.CONTINUE;
                 }
             });
 
         } catch (final IOException ex) {
             throw new RuntimeException("Error comparing directories", ex);
+        } finally {
+            if (digestCache != null) {
+                digestCache.save();
+            }
+        }
+
+    }
+
+    private void compareParallel(final Path srcPath, final Path destPath, final Findings findings) throws IOException {
+
+        final List<FileEntry> srcFiles = listFiles(srcPath);
+        final List<Callable<CompareFinding>> tasks = new ArrayList<>(srcFiles.size());
+        for (final FileEntry srcFile : srcFiles) {
+            final Path destFile = destPath.resolve(srcFile.relativePath);
+            tasks.add(() -> compareFile(srcFile, destFile));
+        }
+        execute(tasks, findings);
+
+    }
+
+    private void compareMerged(final Path srcPath, final Path destPath, final Findings findings) throws IOException {
+
+        final List<FileEntry> srcFiles = listFiles(srcPath);
+        final List<FileEntry> destFiles = listFiles(destPath);
+
+        // Both lists are sorted by relative path, so a single pass finds all missing, extra and common files
+        final List<Callable<CompareFinding>> tasks = new ArrayList<>();
+        int srcIdx = 0;
+        int destIdx = 0;
+        while (srcIdx < srcFiles.size() || destIdx < destFiles.size()) {
+            final FileEntry srcFile = srcIdx < srcFiles.size() ? srcFiles.get(srcIdx) : null;
+            final FileEntry destFile = destIdx < destFiles.size() ? destFiles.get(destIdx) : null;
+            final int cmp;
+            if (srcFile == null) {
+                cmp = 1;
+            } else if (destFile == null) {
+                cmp = -1;
+            } else {
+                cmp = srcFile.relativePath.compareTo(destFile.relativePath);
+            }
+            if (cmp < 0) {
+                final CompareFinding result = new CompareFinding(CompareFinding.Type.DEST_FILE_NOT_FOUND, srcFile.path,
+                        destPath.resolve(srcFile.relativePath), srcFile.size, CompareFinding.UNKNOWN_SIZE);
+                tasks.add(() -> result);
+                srcIdx++;
+            } else if (cmp > 0) {
+                final CompareFinding result = new CompareFinding(CompareFinding.Type.SRC_FILE_NOT_FOUND,
+                        srcPath.resolve(destFile.relativePath), destFile.path, CompareFinding.UNKNOWN_SIZE, destFile.size);
+                tasks.add(() -> result);
+                destIdx++;
+            } else {
+                tasks.add(() -> compareFiles(srcFile, destFile.path, destFile.size, destFile.lastModified));
+                srcIdx++;
+                destIdx++;
+            }
         }
+        execute(tasks, findings);
+
+    }
+
+    /**
+     * Executes the tasks and reports the results in the order of the list. In case of a parallelism greater than one, the tasks are
+     * executed by a pool of workers. Every task returns it's own result, so there is no shared state between the workers. Remaining tasks
+     * are cancelled as soon as the maximum number of findings is reached.
+     * 
+     * @param tasks
+     *            Tasks that return a finding or {@literal null}.
+     * @param findings
+     *            Findings to report the results to.
+     * 
+     * @throws IOException
+     *             Error reading a file.
+     */
+    private void execute(final List<Callable<CompareFinding>> tasks, final Findings findings) throws IOException {
+
+        if (parallelism == 1) {
+            for (int i = 0; i < tasks.size() && !findings.isCutoff(); i++) {
+                findings.report(call(tasks.get(i)));
+            }
+            return;
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            final List<Future<CompareFinding>> futures = new ArrayList<>(tasks.size());
+            for (final Callable<CompareFinding> task : tasks) {
+                futures.add(executor.submit(() -> call(task)));
+            }
+            for (int i = 0; i < futures.size() && !findings.isCutoff(); i++) {
+                findings.report(futures.get(i).get());
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while comparing directories", ex);
+        } catch (final ExecutionException ex) {
+            if (ex.getCause() instanceof IOException) {
+                throw (IOException) ex.getCause();
+            }
+            throw new RuntimeException("Error comparing directories", ex.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+    }
+
+    private static CompareFinding call(final Callable<CompareFinding> task) throws IOException {
+        try {
+            return task.call();
+        } catch (final IOException | RuntimeException ex) {
+            throw ex;
+        } catch (final Exception ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    private static CompareListener logListener(final StringBuilder log) {
+        return finding -> finding.appendTo(log);
+    }
+
+    private List<FileEntry> listFiles(final Path rootPath) throws IOException {
+
+        final List<FileEntry> files = new ArrayList<>();
+        Files.walkFileTree(rootPath, new SimpleFileVisitor<Path>() {
+
+            @Override
+            public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attrs) throws IOException {
+                if (Files.isHidden(dir) || !Files.isReadable(dir) || dir.getFileName() == null) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException {
+                if (attrs.isRegularFile() && !Files.isHidden(file) && Files.isReadable(file) && include(file)) {
+                    files.add(new FileEntry(file, rootPath.relativize(file), attrs.size(), attrs.lastModifiedTime().toMillis()));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+        });
+        files.sort(Comparator.comparing(file -> file.relativePath));
+        return files;
 
     }
 
+    /**
+     * Compares a single file with it's counterpart. The attributes of the destination file are only read once and the content is only
+     * compared in case both files have the same size.
+     * 
+     * @param srcFile
+     *            Source file.
+     * @param destFile
+     *            Destination file.
+     * 
+     * @return Difference or {@literal null} if both files are equal.
+     * 
+     * @throws IOException
+     *             Error reading one of the files.
+     */
+    private CompareFinding compareFile(final FileEntry srcFile, final Path destFile) throws IOException {
+        final BasicFileAttributes destAttrs;
+        try {
+            destAttrs = Files.readAttributes(destFile, BasicFileAttributes.class);
+        } catch (final NoSuchFileException ex) {
+            return new CompareFinding(CompareFinding.Type.DEST_FILE_NOT_FOUND, srcFile.path, destFile, srcFile.size,
+                    CompareFinding.UNKNOWN_SIZE);
+        }
+        if (!destAttrs.isRegularFile()) {
+            return new CompareFinding(CompareFinding.Type.DEST_FILE_NOT_FOUND, srcFile.path, destFile, srcFile.size,
+                    CompareFinding.UNKNOWN_SIZE);
+        }
+        return compareFiles(srcFile, destFile, destAttrs.size(), destAttrs.lastModifiedTime().toMillis());
+    }
+
+    /**
+     * Compares two existing files. The content is only compared in case both files have the same size. If a digest cache is configured,
+     * the digests of unchanged files are taken from the cache and a file is only read if it's new or modified.
+     * 
+     * @param srcFile
+     *            Source file.
+     * @param destFile
+     *            Destination file.
+     * @param destSize
+     *            Size of the destination file.
+     * @param destLastModified
+     *            Last modification time of the destination file in milliseconds.
+     * 
+     * @return Difference or {@literal null} if both files are equal.
+     * 
+     * @throws IOException
+     *             Error reading one of the files.
+     */
+    private CompareFinding compareFiles(final FileEntry srcFile, final Path destFile, final long destSize, final long destLastModified)
+            throws IOException {
+        try {
+            if (srcFile.size != destSize) {
+                return new CompareFinding(CompareFinding.Type.SIZE_DIFF, srcFile.path, destFile, srcFile.size, destSize,
+                        lineDiff(srcFile.path, destFile));
+            }
+            final boolean equal;
+            if (digestCache == null) {
+                equal = contentEquals(srcFile.path, destFile);
+            } else {
+                equal = digestCache.digest(srcFile.path, srcFile.size, srcFile.lastModified)
+                        .equals(digestCache.digest(destFile, destSize, destLastModified));
+            }
+            if (!equal) {
+                return new CompareFinding(CompareFinding.Type.CONTENT_DIFF, srcFile.path, destFile, srcFile.size, destSize,
+                        lineDiff(srcFile.path, destFile));
+            }
+            return null;
+        } catch (final RuntimeException ex) {
+            return new CompareFinding(CompareFinding.Type.ERROR, srcFile.path, null);
+        }
+    }
+
+    private List<String> lineDiff(final Path srcFile, final Path destFile) throws IOException {
+        if (lineDiff == null || !config.isText(srcFile.toFile())) {
+            return null;
+        }
+        final List<String> diff = lineDiff.diff(srcFile, destFile);
+        if (diff.isEmpty()) {
+            // A BOM shows up as a changed line, but invalid UTF-8 sequences are decoded as replacement characters and may look equal
+            if (endsWithLineTerminator(srcFile) != endsWithLineTerminator(destFile)) {
+                return Collections.singletonList("(All lines are equal - Only one of the files ends with a line terminator)");
+            }
+            if (!isValidUtf8(srcFile) || !isValidUtf8(destFile)) {
+                return Collections
+                        .singletonList("(All lines are equal - Files differ in line terminators or in bytes that are not valid UTF-8)");
+            }
+            return Collections.singletonList("(All lines are equal - Files differ in line terminators like CRLF and LF)");
+        }
+        return diff;
+    }
+
+    private static boolean isValidUtf8(final Path file) throws IOException {
+        try (final Reader reader = new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8.newDecoder())) {
+            final char[] buf = new char[BUFFER_SIZE];
+            while (reader.read(buf) != -1) {
+                // Only decode
+            }
+            return true;
+        } catch (final CharacterCodingException ex) {
+            return false;
+        }
+    }
+
+    private static boolean endsWithLineTerminator(final Path file) throws IOException {
+        try (final SeekableByteChannel channel = Files.newByteChannel(file)) {
+            if (channel.size() == 0) {
+                return false;
+            }
+            final ByteBuffer last = ByteBuffer.allocate(1);
+            channel.position(channel.size() - 1).read(last);
+            return last.get(0) == '\n' || last.get(0) == '\r';
+        }
+    }
+
+    /**
+     * Compares the content of two files chunk by chunk and stops at the first difference.
+     * 
+     * @param file1
+     *            First file.
+     * @param file2
+     *            Second file.
+     * 
+     * @return {@literal true} if both files have the same content.
+     * 
+     * @throws IOException
+     *             Error reading one of the files.
+     */
+    static boolean contentEquals(final Path file1, final Path file2) throws IOException {
+        try (final InputStream in1 = Files.newInputStream(file1); final InputStream in2 = Files.newInputStream(file2)) {
+            final byte[] buf1 = new byte[BUFFER_SIZE];
+            final byte[] buf2 = new byte[BUFFER_SIZE];
+            while (true) {
+                final int count1 = in1.readNBytes(buf1, 0, BUFFER_SIZE);
+                final int count2 = in2.readNBytes(buf2, 0, BUFFER_SIZE);
+                if (count1 != count2) {
+                    return false;
+                }
+                if (count1 == 0) {
+                    return true;
+                }
+                if (Arrays.mismatch(buf1, 0, count1, buf2, 0, count2) >= 0) {
+                    return false;
+                }
+            }
+        }
+    }
+
     /**
      * Compares the source directory with the generated artifact directory and fails if they are not equal with an
-     * {@link IllegalStateException}.
+     * {@link IllegalStateException}. Only the first {@link #MAX_REPORTED_FINDINGS} differences are included in the exception message.
      * 
      * @param srcDir
      *            Directory with the source example application.
@@ -152,12 +514,32 @@ public final class DirectoryCompare {
      *            Temporary directory that contains another directory with the name of the generated archetype's artifact test value.
      */
     public void verify(final File srcDir, final File tmpDir) {
-        final StringBuilder log = new StringBuilder();
+        verify(srcDir, tmpDir, null);
+    }
+
+    /**
+     * Compares the source directory with the generated artifact directory and fails if they are not equal with an
+     * {@link IllegalStateException}. All differences are also reported to the given listener, for example to write a complete report to
+     * disk. Only the first {@link #MAX_REPORTED_FINDINGS} differences are included in the exception message.
+     * 
+     * @param srcDir
+     *            Directory with the source example application.
+     * @param tmpDir
+     *            Temporary directory that contains another directory with the name of the generated archetype's artifact test value.
+     * @param listener
+     *            Additional listener or {@literal null}.
+     */
+    public void verify(final File srcDir, final File tmpDir, final CompareListener listener) {
+        final CompareSummary summary = new CompareSummary(MAX_REPORTED_FINDINGS);
         final Property artifactProperty = config.getArchetype().findProperty("artifactId");
         final File targetDir = new File(tmpDir, artifactProperty.getTestValue());
-        compare(srcDir.toPath(), targetDir.toPath(), log);
-        if (log.length() != 0) {
-            throw new IllegalStateException("Differences found:" + System.lineSeparator() + log);
+        if (listener == null) {
+            compare(srcDir.toPath(), targetDir.toPath(), summary);
+        } else {
+            compare(srcDir.toPath(), targetDir.toPath(), CompareListener.all(summary, listener));
+        }
+        if (!summary.isEmpty()) {
+            throw new IllegalStateException("Differences found:" + System.lineSeparator() + summary);
         }
     }
 
@@ -169,6 +551,187 @@ public final class DirectoryCompare {
         return !config.excludes(file);
     }
 
+    /**
+     * Counts the findings reported to a listener and detects when the maximum is reached.
+     */
+    private static final class Findings {
+
+        private final CompareListener listener;
+
+        private final int max;
+
+        private int count;
+
+        Findings(final CompareListener listener, final int max) {
+            this.listener = listener;
+            this.max = max;
+        }
+
+        void report(final CompareFinding finding) {
+            if (finding == null || isCutoff()) {
+                return;
+            }
+            listener.onFinding(finding);
+            count++;
+            if (isCutoff()) {
+                listener.onCutoff(max);
+            }
+        }
+
+        boolean isCutoff() {
+            return max > 0 && count >= max;
+        }
+
+    }
+
+    /**
+     * File to compare.
+     */
+    private static final class FileEntry {
+
+        private final Path path;
+
+        private final Path relativePath;
+
+        private final long size;
+
+        private final long lastModified;
+
+        FileEntry(final Path path, final Path relativePath, final long size, final long lastModified) {
+            this.path = path;
+            this.relativePath = relativePath;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+    }
+
+    /**
+     * Builds an instance of the outer class.
+     */
+    public static final class Builder {
+
+        private DirectoryCompare delegate;
+
+        /**
+         * Default constructor.
+         */
+        public Builder() {
+            delegate = new DirectoryCompare();
+        }
+
+        /**
+         * Sets the configuration.
+         * 
+         * @param config
+         *            Configuration.
+         * 
+         * @return The builder.
+         */
+        public Builder config(final Config config) {
+            delegate.config = config;
+            return this;
+        }
+
+        /**
+         * Sets the number of threads used to compare files. A value of '1' (default) compares all files sequentially in the calling
+         * thread. With more threads, the source tree is listed first and the file comparisons are distributed to a pool of workers. The
+         * results are reported in the order of the sorted relative source paths.
+         * 
+         * @param parallelism
+         *            Number of threads.
+         * 
+         * @return The builder.
+         */
+        public Builder parallelism(final int parallelism) {
+            delegate.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Determines if both directories are listed and merged in sorted order. This also reports files that only exist in the destination
+         * directory ("SRC FILE NOT FOUND") and requires no existence check per file. Default is {@literal false}: Only the source
+         * directory is walked and the destination files are looked up.
+         * 
+         * @param bidirectional
+         *            {@literal true} to compare both directions.
+         * 
+         * @return The builder.
+         */
+        public Builder bidirectional(final boolean bidirectional) {
+            delegate.bidirectional = bidirectional;
+            return this;
+        }
+
+        /**
+         * Sets a file to cache the digests of the compared files in. If the file is set, files of equal size are compared by digest
+         * instead of content. As long as size and last modification time of a source or destination file are unchanged, it's digest is
+         * taken from the cache and the file is not read at all. The file should be located in the build directory, for example
+         * 'target/marchetyper-digests.txt'. Default is {@literal null} (no cache).
+         * 
+         * @param digestCacheFile
+         *            Cache file or {@literal null}.
+         * 
+         * @return The builder.
+         */
+        public Builder digestCache(final File digestCacheFile) {
+            if (digestCacheFile == null) {
+                delegate.digestCache = null;
+            } else {
+                delegate.digestCache = new DigestCache(digestCacheFile);
+            }
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of differences to report. The comparison stops as soon as the maximum is reached, so a badly broken
+         * mapping does not require walking the complete tree. Default is '0' (unlimited).
+         * 
+         * @param maxFindings
+         *            Maximum number of findings or '0' for no limit.
+         * 
+         * @return The builder.
+         */
+        public Builder maxFindings(final int maxFindings) {
+            delegate.maxFindings = maxFindings;
+            return this;
+        }
+
+        /**
+         * Sets the line diff to attach to size and content differences of text files. Default is {@literal null} (no line diff).
+         * 
+         * @param lineDiff
+         *            Line diff or {@literal null}.
+         * 
+         * @return The builder.
+         */
+        public Builder lineDiff(final LineDiff lineDiff) {
+            delegate.lineDiff = lineDiff;
+            return this;
+        }
+
+        /**
+         * Builds a new instance of the outer class.
+         * 
+         * @return The new instance.
+         */
+        public DirectoryCompare build() {
+            if (delegate.config == null) {
+                throw new IllegalStateException("It's mandatory to set a value for 'config'");
+            }
+            if (delegate.parallelism < 1) {
+                throw new IllegalStateException("The value for 'parallelism' must be greater than zero, but was: " + delegate.parallelism);
+            }
+            if (delegate.maxFindings < 0) {
+                throw new IllegalStateException("The value for 'maxFindings' must not be negative, but was: " + delegate.maxFindings);
+            }
+            final DirectoryCompare tmp = delegate;
+            delegate = new DirectoryCompare();
+            return tmp;
+        }
+
+    }
+
     /**
      * Test method.
      * 
@@ -0,0 +1,331 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.Maven;
+import org.apache.maven.cli.logging.Slf4jLoggerManager;
+import org.apache.maven.cli.transfer.Slf4jMavenTransferListener;
+import org.apache.maven.execution.BuildFailure;
+import org.apache.maven.execution.BuildSuccess;
+import org.apache.maven.execution.AbstractExecutionListener;
+import org.apache.maven.execution.BuildSummary;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.ExecutionEvent;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenExecutionRequestPopulationException;
+import org.apache.maven.execution.MavenExecutionRequestPopulator;
+import org.apache.maven.execution.MavenExecutionResult;
+import org.apache.maven.extension.internal.CoreExports;
+import org.apache.maven.extension.internal.CoreExtensionEntry;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.settings.Settings;
+import org.apache.maven.settings.building.DefaultSettingsBuildingRequest;
+import org.apache.maven.settings.building.SettingsBuilder;
+import org.apache.maven.settings.building.SettingsBuildingException;
+import org.codehaus.plexus.ContainerConfiguration;
+import org.codehaus.plexus.DefaultContainerConfiguration;
+import org.codehaus.plexus.DefaultPlexusContainer;
+import org.codehaus.plexus.PlexusConstants;
+import org.codehaus.plexus.PlexusContainerException;
+import org.codehaus.plexus.classworlds.ClassWorld;
+import org.codehaus.plexus.classworlds.realm.ClassRealm;
+import org.codehaus.plexus.component.repository.exception.ComponentLookupException;
+import org.fuin.marchetyper.core.MavenBuildResult.ModuleTiming;
+import org.fuin.marchetyper.core.MavenBuildResult.MojoTiming;
+import org.fuin.objects4j.common.Contract;
+import org.fuin.objects4j.common.Nullable;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.inject.AbstractModule;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Executes Maven builds inside the current JVM instead of forking a new Maven process like the {@link MavenExecutor}. The Plexus container
+ * with the Maven components is created once and kept for the lifetime of the instance, so the core classes stay warm (loaded and JIT
+ * compiled) and the class realms of the plugins are reused by all further builds. <br>
+ * <br>
+ * Every build is a separate execution request of the public Maven API. No system property, standard stream or other global state is
+ * changed: The user properties are only passed with the request and Maven logs to the SLF4J binding of the application. Builds of the same
+ * instance may run concurrently as long as they don't share a working directory or a writable local repository. The instance must be
+ * closed to dispose the container. This class requires the optional dependencies 'org.apache.maven:maven-embedder' and the resolver
+ * connector/transports on the classpath.
+ */
+public final class EmbeddedMavenExecutor implements MavenRunner, AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EmbeddedMavenExecutor.class);
+
+    private final boolean offline;
+
+    private final File localRepositoryTail;
+
+    private final DefaultPlexusContainer container;
+
+    private final Maven maven;
+
+    private final MavenExecutionRequestPopulator populator;
+
+    private final Settings settings;
+
+    /**
+     * Constructor for online builds without a shared local repository.
+     */
+    public EmbeddedMavenExecutor() {
+        this(false, null);
+    }
+
+    /**
+     * Constructor with all data. Creates the container and reads the global and the user settings.
+     * 
+     * @param offline
+     *            {@literal true} to never access remote repositories.
+     * @param localRepositoryTail
+     *            Read-only local repository that is shared by all builds or {@literal null}.
+     */
+    public EmbeddedMavenExecutor(final boolean offline, @Nullable final File localRepositoryTail) {
+        super();
+        this.offline = offline;
+        this.localRepositoryTail = localRepositoryTail;
+        this.container = container();
+        try {
+            this.maven = container.lookup(Maven.class);
+            this.populator = container.lookup(MavenExecutionRequestPopulator.class);
+            this.settings = settings(container.lookup(SettingsBuilder.class));
+        } catch (final ComponentLookupException | SettingsBuildingException | RuntimeException ex) {
+            container.dispose();
+            throw new IllegalStateException("Failed to initialize embedded Maven", ex);
+        }
+    }
+
+    @Override
+    public MavenBuildResult run(@NotNull final File baseDir, @NotNull final File localRepository, @Nullable final Properties properties,
+            @NotNull final String... goals) {
+        Contract.requireArgNotNull("baseDir", baseDir);
+        Contract.requireArgNotNull("localRepository", localRepository);
+        Contract.requireArgNotNull("goals", goals);
+
+        final File workingDir = baseDir.getAbsoluteFile();
+        final TimingListener listener = new TimingListener();
+        LOG.info("Running embedded Maven {} in {}", String.join(" ", goals), workingDir);
+
+        final long start = System.nanoTime();
+        final MavenExecutionResult executionResult;
+        final Thread thread = Thread.currentThread();
+        final ClassLoader contextClassLoader = thread.getContextClassLoader();
+        thread.setContextClassLoader(container.getContainerRealm());
+        try {
+            executionResult = maven.execute(request(workingDir, localRepository.getAbsoluteFile(), properties, goals, listener));
+        } finally {
+            thread.setContextClassLoader(contextClassLoader);
+        }
+        final long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        final List<String> failures = new ArrayList<>();
+        for (final Throwable ex : executionResult.getExceptions()) {
+            failures.add(String.valueOf(ex.getMessage()));
+        }
+        final MavenBuildResult result = new MavenBuildResult(workingDir, failures.isEmpty() ? 0 : 1, durationMillis, durationMillis,
+                moduleTimings(executionResult), listener.getMojoTimings(), failures);
+        LOG.debug("{}", result);
+        if (!result.isSuccess()) {
+            LOG.error("Embedded Maven build failed after {} ms: {}", durationMillis, workingDir);
+            throw new IllegalStateException("Build failed with exit code " + result.getExitCode() + ": " + workingDir
+                    + System.lineSeparator() + String.join(System.lineSeparator(), failures));
+        }
+        LOG.info("Embedded Maven build succeeded after {} ms: {}", durationMillis, workingDir);
+        return result;
+    }
+
+    /**
+     * Disposes the container and all class realms of the plugins.
+     */
+    @Override
+    public void close() {
+        container.dispose();
+    }
+
+    private MavenExecutionRequest request(final File workingDir, final File localRepository, final Properties properties,
+            final String[] goals, final TimingListener listener) {
+
+        final Properties userProperties = new Properties();
+        if (properties != null) {
+            userProperties.putAll(properties);
+        }
+        if (localRepositoryTail != null) {
+            userProperties.setProperty("maven.repo.local.tail", localRepositoryTail.getAbsolutePath());
+        }
+
+        final MavenExecutionRequest request = new DefaultMavenExecutionRequest();
+        try {
+            // Settings first, as they overwrite values like the offline mode
+            populator.populateFromSettings(request, settings);
+        } catch (final MavenExecutionRequestPopulationException ex) {
+            throw new IllegalStateException("Failed to apply Maven settings: " + workingDir, ex);
+        }
+        request.setStartTime(new Date());
+        request.setBaseDirectory(workingDir);
+        request.setMultiModuleProjectDirectory(workingDir);
+        final File pom = new File(workingDir, "pom.xml");
+        if (pom.isFile()) {
+            request.setPom(pom);
+        } else {
+            request.setProjectPresent(false);
+        }
+        request.setGoals(Arrays.asList(goals));
+        request.setSystemProperties(systemProperties());
+        request.setUserProperties(userProperties);
+        request.setLocalRepositoryPath(localRepository);
+        request.setOffline(offline || settings.isOffline());
+        request.setInteractiveMode(false);
+        request.setShowErrors(true);
+        request.setExecutionListener(listener);
+        request.setTransferListener(new Slf4jMavenTransferListener());
+        try {
+            return populator.populateDefaults(request);
+        } catch (final MavenExecutionRequestPopulationException ex) {
+            throw new IllegalStateException("Failed to create Maven request: " + workingDir, ex);
+        }
+    }
+
+    private static List<ModuleTiming> moduleTimings(final MavenExecutionResult executionResult) {
+        final List<ModuleTiming> timings = new ArrayList<>();
+        for (final MavenProject project : executionResult.getTopologicallySortedProjects()) {
+            final BuildSummary summary = executionResult.getBuildSummary(project);
+            if (summary instanceof BuildSuccess) {
+                timings.add(new ModuleTiming(project.getName(), "SUCCESS", summary.getTime()));
+            } else if (summary instanceof BuildFailure) {
+                timings.add(new ModuleTiming(project.getName(), "FAILURE", summary.getTime()));
+            } else {
+                timings.add(new ModuleTiming(project.getName(), "SKIPPED", MavenBuildResult.UNKNOWN_TIME));
+            }
+        }
+        return timings;
+    }
+
+    /**
+     * Creates the container like 'MavenCli' does, but with the class loader of this class as core realm.
+     */
+    private static DefaultPlexusContainer container() {
+        final ClassWorld classWorld = new ClassWorld("plexus.core", EmbeddedMavenExecutor.class.getClassLoader());
+        final ClassRealm coreRealm = classWorld.getClassRealm("plexus.core");
+        final ContainerConfiguration config = new DefaultContainerConfiguration().setClassWorld(classWorld).setRealm(coreRealm)
+                .setClassPathScanning(PlexusConstants.SCANNING_INDEX).setAutoWiring(true).setJSR250Lifecycle(true).setName("maven");
+        final CoreExports exports = new CoreExports(CoreExtensionEntry.discoverFrom(coreRealm));
+        try {
+            final DefaultPlexusContainer container = new DefaultPlexusContainer(config, new AbstractModule() {
+                @Override
+                protected void configure() {
+                    bind(ILoggerFactory.class).toInstance(LoggerFactory.getILoggerFactory());
+                    bind(CoreExports.class).toInstance(exports);
+                }
+            });
+            container.setLookupRealm(null);
+            container.setLoggerManager(new Slf4jLoggerManager());
+            return container;
+        } catch (final PlexusContainerException ex) {
+            throw new IllegalStateException("Failed to create Maven container", ex);
+        }
+    }
+
+    private static Settings settings(final SettingsBuilder settingsBuilder) throws SettingsBuildingException {
+        final DefaultSettingsBuildingRequest request = new DefaultSettingsBuildingRequest();
+        final String mavenHome = System.getProperty("maven.home");
+        if (mavenHome != null) {
+            request.setGlobalSettingsFile(new File(mavenHome, "conf/settings.xml"));
+        }
+        request.setUserSettingsFile(new File(System.getProperty("user.home"), ".m2/settings.xml"));
+        request.setSystemProperties(systemProperties());
+        return settingsBuilder.build(request).getEffectiveSettings();
+    }
+
+    private static Properties systemProperties() {
+        final Properties properties = new Properties();
+        for (final Map.Entry<String, String> entry : System.getenv().entrySet()) {
+            properties.setProperty("env." + entry.getKey(), entry.getValue());
+        }
+        properties.putAll(System.getProperties());
+        return properties;
+    }
+
+    /**
+     * Logs the start of every project and mojo execution and measures the time of the mojo executions. Maven's own console logger is not
+     * used, as it colors the output depending on global state.
+     */
+    private static final class TimingListener extends AbstractExecutionListener {
+
+        private final Map<MojoExecution, Long> starts = new ConcurrentHashMap<>();
+
+        private final List<MojoTiming> mojoTimings = new ArrayList<>();
+
+        @Override
+        public void projectStarted(final ExecutionEvent event) {
+            LOG.info("Building {}", event.getProject().getId());
+        }
+
+        @Override
+        public void mojoStarted(final ExecutionEvent event) {
+            final MojoExecution execution = event.getMojoExecution();
+            LOG.info("--- {}:{}:{} ({}) @ {} ---", execution.getArtifactId(), execution.getVersion(), execution.getGoal(),
+                    execution.getExecutionId(), event.getProject().getArtifactId());
+            starts.put(event.getMojoExecution(), System.nanoTime());
+        }
+
+        @Override
+        public void mojoSucceeded(final ExecutionEvent event) {
+            mojoEnded(event);
+        }
+
+        @Override
+        public void mojoFailed(final ExecutionEvent event) {
+            mojoEnded(event);
+        }
+
+        private void mojoEnded(final ExecutionEvent event) {
+            final MojoExecution execution = event.getMojoExecution();
+            final Long start = starts.remove(execution);
+            if (start != null) {
+                final long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                synchronized (mojoTimings) {
+                    mojoTimings.add(new MojoTiming(execution.getArtifactId() + ":" + execution.getVersion(), execution.getGoal(),
+                            execution.getExecutionId(), event.getProject().getArtifactId(), millis));
+                }
+            }
+        }
+
+        List<MojoTiming> getMojoTimings() {
+            synchronized (mojoTimings) {
+                return new ArrayList<>(mojoTimings);
+            }
+        }
+
+    }
+
+}
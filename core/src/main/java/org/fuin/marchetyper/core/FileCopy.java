@@ -22,20 +22,45 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
 import java.io.Writer;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
-import org.fuin.utils4j.fileprocessor.FileHandlerResult;
-import org.fuin.utils4j.fileprocessor.FileProcessor;
+import org.fuin.marchetyper.core.GenerationListener.Signal;
+import org.fuin.marchetyper.core.GenerationMetrics.Phase;
+import org.fuin.objects4j.common.Contract;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import jakarta.validation.constraints.NotNull;
+
 /**
  * Copies files from one directory to another and eventually modifies text files during this process.
  */
@@ -43,6 +68,9 @@ public final class FileCopy {
 
     private static final Logger LOG = LoggerFactory.getLogger(FileCopy.class);
 
+    /** Number of files per worker thread that are copied ahead of the consumer of the results. */
+    private static final int IN_FLIGHT_PER_THREAD = 4;
+
     private File srcBaseDir;
 
     private File destBaseDir;
@@ -53,17 +81,35 @@ public final class FileCopy {
 
     private HeaderProvider headerProvider;
 
-    private String defaultRegExFilenameSelector;
+    private Pattern defaultFilenameSelector;
 
     private List<Mapping> mappings;
 
+    private GenerationMetrics.Builder metrics;
+
+    private GenerationListener listener;
+
+    private int parallelism;
+
+    private ReplacementEngine replacementEngine;
+
+    private BinaryCopyStrategy binaryCopy;
+
+    private SyncMode syncMode;
+
     private FileCopy() {
         super();
         mappings = new ArrayList<>();
+        metrics = new GenerationMetrics.Builder();
+        parallelism = 1;
+        replacementEngine = ReplacementEngine.STREAMING;
+        binaryCopy = BinaryCopyStrategy.COPY;
+        syncMode = SyncMode.CLEAN;
     }
 
     /**
-     * Executes the copy.
+     * Executes the copy. In case of a parallelism greater than one, the files are copied by a pool of workers. The results are collected
+     * in the order of the source files, so the result is the same as for a sequential copy.
      * 
      * @return Result.
      */
@@ -71,65 +117,365 @@ public final class FileCopy {
 
         final FileCopyResult.Builder result = new FileCopyResult.Builder();
 
-        allFiles(srcBaseDir).stream().filter((file) -> {
-            if (fileMatcher.includes(file)) {
-                return true;
+        final List<File> srcFiles = selectedFiles();
+        if (listener != null) {
+            long byteCount = 0;
+            for (final File srcFile : srcFiles) {
+                byteCount += srcFile.length();
             }
-            return !fileMatcher.excludes(file);
-        }).forEach((srcFile) -> {
+            checkCancel(listener.onWalk(srcFiles.size(), byteCount));
+        }
+
+        final CopyIterator copies = new CopyIterator(srcFiles.iterator());
+        try {
+            while (copies.hasNext()) {
+                final CopiedFile copied = copies.next();
+                if (copied.type == FileType.BINARY) {
+                    result.addBinaryFile(copied.destFile);
+                } else {
+                    result.addTextFile(copied.destFile);
+                }
+            }
+        } finally {
+            copies.close();
+        }
+
+        return result.build();
+    }
+
+    /**
+     * Copies the files while the source directory is walked and passes the result of every file to a consumer as soon as it was
+     * copied. Other than {@link #copy()}, nothing is collected, so the memory used does not depend on the number of files. The consumer
+     * is called in the calling thread and in the order of the walk. With a parallelism greater than one, the workers continue to copy the
+     * next files while the consumer processes a result. The entries contain the size of the source file, but no mapping count (always
+     * zero) as determining it would evaluate all mapping conditions a second time; use {@link #plan()} for that.
+     * 
+     * @param consumer
+     *            Receives the result for every copied file.
+     */
+    public void copy(@NotNull final Consumer<GenerationPlan.Entry> consumer) {
+        Contract.requireArgNotNull("consumer", consumer);
+        try (final Stream<GenerationPlan.Entry> entries = stream()) {
+            entries.forEach(consumer);
+        }
+    }
+
+    /**
+     * Returns a lazy stream that walks the source directory and copies each selected file when the next element is requested. With a
+     * parallelism greater than one, a few files per thread are copied ahead of the consumer. The elements are in the order of the walk.
+     * The stream must be closed to release the directory handles and the workers. The listener is informed about the {@link Phase#WALK}
+     * and every file, but not about the total number of files as this is unknown up front. The source directory is walked the same way
+     * as for {@link #copy()}. The entries have no mapping count, see {@link #copy(Consumer)}.
+     * 
+     * @return Stream with the result for every copied file.
+     * 
+     * @throws UncheckedIOException
+     *             A directory could not be read while the stream was consumed.
+     */
+    public Stream<GenerationPlan.Entry> stream() {
+        if (listener != null) {
+            checkCancel(listener.onPhase(Phase.WALK));
+        }
+        final Iterator<File> selected = StreamSupport
+                .stream(Spliterators.spliteratorUnknownSize(new SourceWalker(srcBaseDir), Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .filter(this::isSelected).iterator();
+        final CopyIterator copies = new CopyIterator(selected);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(copies, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .map(FileCopy::entry).onClose(copies::close);
+    }
+
+    /**
+     * Creates the entry for a copied file without touching the file again. The mapping count is not known after a copy and always zero.
+     */
+    private static GenerationPlan.Entry entry(final CopiedFile copied) {
+        return new GenerationPlan.Entry(copied.srcFile, copied.destFile, copied.type, 0, copied.bytes);
+    }
+
+    private void start(final File srcFile) {
+        if (listener != null) {
+            checkCancel(listener.onFileStart(srcFile));
+        }
+    }
+
+    private CopiedFile copyMapped(final File srcFile) {
+        // Runs once per file, so the listener is not informed
+        final File destFile = runPhase(Phase.MAP_PATHS, null, metrics, () -> pathMapper.map(srcFile));
+        return copyFile(srcFile, destFile);
+    }
+
+    /**
+     * Copies a single file of the source directory, for example after it was changed.
+     * 
+     * @param srcFile
+     *            File inside the source directory.
+     * 
+     * @return Copied file or {@literal null} if the file is not selected by the include and exclude filters.
+     */
+    public GenerationPlan.Entry copy(@NotNull final File srcFile) {
+        Contract.requireArgNotNull("srcFile", srcFile);
+        if (!isSelected(srcFile)) {
+            return null;
+        }
+        return entry(copyMapped(srcFile));
+    }
+
+    /**
+     * Determines if a file of the source directory is selected by the include and exclude filters.
+     * 
+     * @param srcFile
+     *            File inside the source directory.
+     * 
+     * @return {@literal true} if the file is copied.
+     */
+    public boolean isSelected(@NotNull final File srcFile) {
+        metrics.addMatcherEvaluations(1);
+        if (fileMatcher.includes(srcFile)) {
+            return true;
+        }
+        metrics.addMatcherEvaluations(1);
+        return !fileMatcher.excludes(srcFile);
+    }
+
+    private CopiedFile copyFile(final File srcFile, final File destFile) {
+        final FileCopyEvent event = new FileCopyEvent();
+        event.begin();
+        final long start = System.nanoTime();
+        destFile.getParentFile().mkdirs();
+        metrics.addMatcherEvaluations(1);
+        if (fileMatcher.isBinary(srcFile)) {
+            copyBinaryFile(srcFile, destFile);
+            final long bytes = srcFile.length();
+            metrics.addBinaryFile(bytes);
+            metrics.addPhase(Phase.COPY_BINARY, start);
+            commit(event, srcFile, destFile, FileType.BINARY, bytes, bytes, 0);
+            return new CopiedFile(srcFile, destFile, FileType.BINARY, bytes);
+        }
+        metrics.addMatcherEvaluations(1);
+        if (fileMatcher.isText(srcFile)) {
+            final long replacements = copyTextFile(srcFile, destFile);
+            final long bytesIn = srcFile.length();
+            final long bytesOut = destFile.length();
+            metrics.addTextFile(bytesIn, bytesOut, replacements);
+            metrics.addPhase(Phase.COPY_TEXT, start);
+            commit(event, srcFile, destFile, FileType.TEXT, bytesIn, bytesOut, replacements);
+            return new CopiedFile(srcFile, destFile, FileType.TEXT, bytesIn);
+        }
+        throw new IllegalStateException("File found that is neither binary nor text file: " + srcFile);
+    }
+
+    private static void commit(final FileCopyEvent event, final File srcFile, final File destFile, final FileType type, final long bytesIn,
+            final long bytesOut, final long replacements) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.srcFile = srcFile.getPath();
+            event.destFile = destFile.getPath();
+            event.fileType = type.name();
+            event.bytesIn = bytesIn;
+            event.bytesOut = bytesOut;
+            event.replacements = replacements;
+            event.commit();
+        }
+    }
+
+    /**
+     * Determines what a copy would do without writing anything. The source tree is walked, filters and path mappings are applied and
+     * the files are classified, but no file content is read.
+     * 
+     * @return Plan of the files that would be created.
+     */
+    public GenerationPlan plan() {
+
+        final GenerationPlan.Builder plan = new GenerationPlan.Builder(destBaseDir);
+
+        selectedFiles().forEach((srcFile) -> {
 
             final File destFile = pathMapper.map(srcFile);
-            destFile.getParentFile().mkdirs();
             if (fileMatcher.isBinary(srcFile)) {
-                copyBinaryFile(srcFile, destFile);
-                result.addBinaryFile(destFile);
+                plan.add(new GenerationPlan.Entry(srcFile, destFile, FileType.BINARY, 0, srcFile.length()));
             } else if (fileMatcher.isText(srcFile)) {
-                copyTextFile(srcFile, destFile, defaultRegExFilenameSelector, mappings, headerProvider);
-                result.addTextFile(destFile);
+                plan.add(new GenerationPlan.Entry(srcFile, destFile, FileType.TEXT, countMappings(srcFile), srcFile.length()));
             } else {
                 throw new IllegalStateException("File found that is neither binary nor text file: " + srcFile);
             }
 
         });
 
-        return result.build();
+        return plan.build();
     }
 
-    private static void copyBinaryFile(final File srcFile, final File destFile) {
+    /**
+     * Stops the generation if a listener requested it.
+     * 
+     * @param signal
+     *            Signal returned by a listener.
+     */
+    static void checkCancel(final Signal signal) {
+        if (signal == Signal.CANCEL) {
+            throw new CancellationException("Generation was cancelled by the listener");
+        }
+    }
+
+    /**
+     * Runs a phase of the generation: The listener is informed before the phase starts, the phase is recorded as flight recorder event
+     * and it's duration is added to the metrics.
+     * 
+     * @param phase
+     *            Phase to run.
+     * @param listener
+     *            Listener to inform or {@literal null}.
+     * @param metrics
+     *            Metrics to add the duration to.
+     * @param task
+     *            Work of the phase.
+     * @param <T>
+     *            Type of the result.
+     * 
+     * @return Result of the task.
+     */
+    static <T> T runPhase(final Phase phase, final GenerationListener listener, final GenerationMetrics.Builder metrics,
+            final Supplier<T> task) {
+        if (listener != null) {
+            checkCancel(listener.onPhase(phase));
+        }
+        final PhaseEvent event = PhaseEvent.begin(phase);
+        final long start = System.nanoTime();
+        final T result = task.get();
+        metrics.addPhase(phase, start);
+        PhaseEvent.end(event);
+        return result;
+    }
+
+    /**
+     * Runs a phase of the generation without a result.
+     * 
+     * @param phase
+     *            Phase to run.
+     * @param listener
+     *            Listener to inform or {@literal null}.
+     * @param metrics
+     *            Metrics to add the duration to.
+     * @param task
+     *            Work of the phase.
+     * 
+     * @see #runPhase(Phase, GenerationListener, GenerationMetrics.Builder, Supplier)
+     */
+    static void runPhase(final Phase phase, final GenerationListener listener, final GenerationMetrics.Builder metrics,
+            final Runnable task) {
+        runPhase(phase, listener, metrics, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    private List<File> selectedFiles() {
+        final List<File> files = runPhase(Phase.WALK, listener, metrics, () -> allFiles(srcBaseDir));
+        return runPhase(Phase.FILTER, listener, metrics, () -> files.stream().filter(this::isSelected).collect(Collectors.toList()));
+    }
+
+    private int countMappings(final File srcFile) {
+        int count = 0;
+        for (final Mapping mapping : mappings) {
+            if (mapping.appliesTo(defaultFilenameSelector, srcFile)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void copyBinaryFile(final File srcFile, final File destFile) {
         LOG.info("Copy binary {} to {}", srcFile, destFile);
         try {
+            if (syncMode == SyncMode.SYNC && destFile.exists() && sameContent(srcFile, destFile)) {
+                return;
+            }
+            // Never write through an existing (hard linked) file into the source tree
+            Files.deleteIfExists(destFile.toPath());
+            if (binaryCopy == BinaryCopyStrategy.HARD_LINK && link(srcFile, destFile)) {
+                return;
+            }
             FileUtils.copyFile(srcFile, destFile);
         } catch (final IOException ex) {
             throw new RuntimeException("Error copying binary file from " + srcFile + " to " + destFile, ex);
         }
     }
 
-    private static void copyTextFile(final File srcFile, final File destFile, final String defaultRegExFilenameSelector,
-            final List<Mapping> mappings, final HeaderProvider headerProvider) {
+    private static boolean sameContent(final File srcFile, final File destFile) throws IOException {
+        return Files.isSameFile(srcFile.toPath(), destFile.toPath()) || FileUtils.contentEquals(srcFile, destFile);
+    }
+
+    private static boolean link(final File srcFile, final File destFile) {
+        try {
+            Files.createLink(destFile.toPath(), srcFile.toPath());
+            return true;
+        } catch (final IOException | UnsupportedOperationException ex) {
+            LOG.debug("Cannot link {} to {}, copying it instead: {}", destFile, srcFile, ex.toString());
+            return false;
+        }
+    }
+
+    private long copyTextFile(final File srcFile, final File destFile) {
         LOG.info("Copy text {} to {}", srcFile, destFile);
+        try {
+            if (syncMode == SyncMode.SYNC && destFile.exists()) {
+                // Write to a temporary file first and only replace the existing file if the content changed
+                final File tmpFile = File.createTempFile(destFile.getName(), ".tmp", destFile.getParentFile());
+                try {
+                    final long replacements = writeTextFile(srcFile, tmpFile);
+                    if (!FileUtils.contentEquals(tmpFile, destFile)) {
+                        Files.move(tmpFile.toPath(), destFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                    }
+                    return replacements;
+                } finally {
+                    Files.deleteIfExists(tmpFile.toPath());
+                }
+            }
+            // Never write through an existing (hard linked) file into the source tree
+            Files.deleteIfExists(destFile.toPath());
+            return writeTextFile(srcFile, destFile);
+        } catch (final IOException ex) {
+            throw new RuntimeException("Error copying text file from " + srcFile + " to " + destFile, ex);
+        }
+    }
+
+    private long writeTextFile(final File srcFile, final File destFile) throws IOException {
+
+        // Both engines check the condition of every mapping once to select the ones that apply to the file
+        metrics.addMappingEvaluations(mappings.size());
+        if (replacementEngine == ReplacementEngine.IN_MEMORY) {
+            final TextReplacer replacer = new TextReplacer(srcFile, defaultFilenameSelector, mappings);
+            final String text = replacer.replace(FileUtils.readFileToString(srcFile, StandardCharsets.UTF_8));
+            try (final Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(destFile), StandardCharsets.UTF_8))) {
+                headerProvider.write(writer);
+                writer.write(text);
+            }
+            return replacer.getReplacementCount();
+        }
+
         try (final ReplacingFileReader reader = new ReplacingFileReader.Builder(srcFile)
-                .defaultRegExFilenameSelector(defaultRegExFilenameSelector).mappings(mappings).build()) {
+                .defaultFilenameSelector(defaultFilenameSelector).mappings(mappings).build()) {
 
             try (final Writer writer = new BufferedWriter(
                     new OutputStreamWriter(new FileOutputStream(destFile), Charset.forName("utf-8")))) {
                 headerProvider.write(writer);
                 IOUtils.copy(reader, writer);
             }
+            return reader.getReplacementCount();
 
-        } catch (final IOException ex) {
-            throw new RuntimeException("Error copying text file from " + srcFile + " to " + destFile, ex);
         }
 
     }
 
-    private static List<File> allFiles(final File dir) {
+    /**
+     * Returns all files below a directory in the order of {@link SourceWalker}.
+     * 
+     * @param dir
+     *            Directory to walk.
+     * 
+     * @return Files in walk order.
+     */
+    static List<File> allFiles(final File dir) {
         final List<File> files = new ArrayList<>();
-        new FileProcessor((file) -> {
-            if (file.isFile()) {
-                files.add(file);
-            }
-            return FileHandlerResult.CONTINUE;
-        }).process(dir);
+        new SourceWalker(dir).forEachRemaining(files::add);
         return files;
     }
 
@@ -224,7 +570,24 @@ public final class FileCopy {
          * @return The Builder.
          */
         public Builder defaultRegExFilenameSelector(final String defaultRegExFilenameSelector) {
-            delegate.defaultRegExFilenameSelector = defaultRegExFilenameSelector;
+            if (defaultRegExFilenameSelector == null) {
+                delegate.defaultFilenameSelector = null;
+            } else {
+                delegate.defaultFilenameSelector = Pattern.compile(defaultRegExFilenameSelector);
+            }
+            return this;
+        }
+
+        /**
+         * Sets the compiled default file pattern to use in case a mapping has not defined it's own.
+         * 
+         * @param defaultFilenameSelector
+         *            Compiled version of the expression described in {@link #defaultRegExFilenameSelector(String)} or {@literal null}.
+         * 
+         * @return The Builder.
+         */
+        public Builder defaultFilenameSelector(final Pattern defaultFilenameSelector) {
+            delegate.defaultFilenameSelector = defaultFilenameSelector;
             return this;
         }
 
@@ -262,6 +625,99 @@ public final class FileCopy {
             return this;
         }
 
+        /**
+         * Sets the metrics to record the timings and counters of the copy in.
+         * 
+         * @param metrics
+         *            Metrics builder shared with other parts of the generation.
+         * 
+         * @return The builder.
+         */
+        public Builder metrics(final GenerationMetrics.Builder metrics) {
+            delegate.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * Sets the listener that is informed about the progress and may cancel the copy.
+         * 
+         * @param listener
+         *            Listener or {@literal null}.
+         * 
+         * @return The builder.
+         */
+        public Builder listener(final GenerationListener listener) {
+            delegate.listener = listener;
+            return this;
+        }
+
+        /**
+         * Sets the number of threads used to copy the files. A value of '1' (default) copies all files sequentially in the calling thread.
+         * With more threads, the source tree is walked first and the files are distributed to a pool of workers.
+         * 
+         * @param parallelism
+         *            Number of threads.
+         * 
+         * @return The builder.
+         */
+        public Builder parallelism(final int parallelism) {
+            delegate.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Sets the implementation that applies the mappings to text files.
+         * 
+         * @param replacementEngine
+         *            Replacement engine or {@literal null} for {@link ReplacementEngine#STREAMING}.
+         * 
+         * @return The builder.
+         */
+        public Builder replacementEngine(final ReplacementEngine replacementEngine) {
+            delegate.replacementEngine = replacementEngine;
+            return this;
+        }
+
+        /**
+         * Sets how binary files are transferred.
+         * 
+         * @param binaryCopy
+         *            Copy strategy or {@literal null} for {@link BinaryCopyStrategy#COPY}.
+         * 
+         * @return The builder.
+         */
+        public Builder binaryCopy(final BinaryCopyStrategy binaryCopy) {
+            delegate.binaryCopy = binaryCopy;
+            return this;
+        }
+
+        /**
+         * Sets how existing files in the target directory are treated.
+         * 
+         * @param syncMode
+         *            Sync mode or {@literal null} for {@link SyncMode#CLEAN}.
+         * 
+         * @return The builder.
+         */
+        public Builder syncMode(final SyncMode syncMode) {
+            delegate.syncMode = syncMode;
+            return this;
+        }
+
+        /**
+         * Sets the parallelism, replacement engine, binary copy strategy and sync mode at once.
+         * 
+         * @param options
+         *            Options to use.
+         * 
+         * @return The builder.
+         */
+        public Builder options(@NotNull final GenerationOptions options) {
+            Contract.requireArgNotNull("options", options);
+            return parallelism(options.getParallelism()).replacementEngine(options.getReplacementEngine())
+                    .binaryCopy(options.getBinaryCopy()).syncMode(options.getSyncMode());
+        }
+
         /**
          * Builds a new instance of the outer class.
          * 
@@ -284,6 +740,21 @@ public final class FileCopy {
                 delegate.headerProvider = (writer) -> {
                 };
             }
+            if (delegate.metrics == null) {
+                delegate.metrics = new GenerationMetrics.Builder();
+            }
+            if (delegate.parallelism < 1) {
+                throw new IllegalStateException("The value for 'parallelism' must be greater than zero, but was: " + delegate.parallelism);
+            }
+            if (delegate.replacementEngine == null) {
+                delegate.replacementEngine = ReplacementEngine.STREAMING;
+            }
+            if (delegate.binaryCopy == null) {
+                delegate.binaryCopy = BinaryCopyStrategy.COPY;
+            }
+            if (delegate.syncMode == null) {
+                delegate.syncMode = SyncMode.CLEAN;
+            }
 
             final FileCopy tmp = delegate;
             delegate = new FileCopy();
@@ -292,6 +763,206 @@ public final class FileCopy {
 
     }
 
+    /**
+     * File copied by a worker.
+     */
+    private static final class CopiedFile {
+
+        private final File srcFile;
+
+        private final File destFile;
+
+        private final FileType type;
+
+        private final long bytes;
+
+        CopiedFile(final File srcFile, final File destFile, final FileType type, final long bytes) {
+            this.srcFile = srcFile;
+            this.destFile = destFile;
+            this.type = type;
+            this.bytes = bytes;
+        }
+
+    }
+
+    /**
+     * Lazily walks a directory tree depth first and returns the files of each directory in name order, so {@link #copy()},
+     * {@link #plan()} and {@link #stream()} see the same files in the same order. Symbolic links are followed. A link to a directory
+     * that is already part of the current path would be walked forever, so it is skipped with a warning. Directories are listed
+     * completely when they are entered, so no directory handles stay open.
+     */
+    private static final class SourceWalker implements Iterator<File> {
+
+        private final Deque<Level> levels;
+
+        private File next;
+
+        SourceWalker(final File dir) {
+            this.levels = new ArrayDeque<>();
+            enter(dir);
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && !levels.isEmpty()) {
+                final Level level = levels.peek();
+                if (level.index == level.children.length) {
+                    levels.pop();
+                } else {
+                    final File child = level.children[level.index++];
+                    if (child.isDirectory()) {
+                        enter(child);
+                    } else if (child.isFile()) {
+                        next = child;
+                    }
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public File next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final File file = next;
+            next = null;
+            return file;
+        }
+
+        private void enter(final File dir) {
+            final Path realPath;
+            try {
+                realPath = dir.toPath().toRealPath();
+            } catch (final IOException ex) {
+                throw new UncheckedIOException("Error resolving directory " + dir, ex);
+            }
+            for (final Level level : levels) {
+                if (level.realPath.equals(realPath)) {
+                    LOG.warn("Skipped directory {} as it links to its parent directory {}", dir, realPath);
+                    return;
+                }
+            }
+            final File[] children = dir.listFiles();
+            if (children == null) {
+                throw new UncheckedIOException(new IOException("Error listing directory " + dir));
+            }
+            Arrays.sort(children, (a, b) -> a.getName().compareTo(b.getName()));
+            levels.push(new Level(realPath, children));
+        }
+
+        /**
+         * Directory on the current path with the index of the next child to return.
+         */
+        private static final class Level {
+
+            private final Path realPath;
+
+            private final File[] children;
+
+            private int index;
+
+            Level(final Path realPath, final File[] children) {
+                this.realPath = realPath;
+                this.children = children;
+            }
+
+        }
+
+    }
+
+    /**
+     * Copies the files of a source iterator. Files are copied in the calling thread or, with a parallelism greater than one, by a pool of
+     * workers with a limited number of files in flight. Results are returned in the order of the source files.
+     */
+    private final class CopyIterator implements Iterator<CopiedFile> {
+
+        private final Iterator<File> srcFiles;
+
+        private final ExecutorService executor;
+
+        private final Deque<Future<CopiedFile>> pending;
+
+        private final int maxPending;
+
+        private int fileCount;
+
+        private long byteCount;
+
+        CopyIterator(final Iterator<File> srcFiles) {
+            this.srcFiles = srcFiles;
+            this.pending = new ArrayDeque<>();
+            this.maxPending = parallelism * IN_FLIGHT_PER_THREAD;
+            if (parallelism == 1) {
+                this.executor = null;
+            } else {
+                this.executor = Executors.newFixedThreadPool(parallelism);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (executor == null) {
+                return srcFiles.hasNext();
+            }
+            while (pending.size() < maxPending && srcFiles.hasNext()) {
+                final File srcFile = srcFiles.next();
+                start(srcFile);
+                pending.add(executor.submit(() -> copyMapped(srcFile)));
+            }
+            if (pending.isEmpty()) {
+                close();
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public CopiedFile next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final CopiedFile copied;
+            if (executor == null) {
+                final File srcFile = srcFiles.next();
+                start(srcFile);
+                copied = copyMapped(srcFile);
+            } else {
+                copied = get(pending.poll());
+            }
+            if (listener != null) {
+                fileCount++;
+                byteCount += copied.srcFile.length();
+                checkCancel(listener.onFileFinish(copied.srcFile, copied.destFile, copied.type, fileCount, byteCount));
+            }
+            return copied;
+        }
+
+        private CopiedFile get(final Future<CopiedFile> future) {
+            try {
+                return future.get();
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while copying files from " + srcBaseDir, ex);
+            } catch (final ExecutionException ex) {
+                if (ex.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) ex.getCause();
+                }
+                throw new RuntimeException("Error copying files from " + srcBaseDir, ex.getCause());
+            }
+        }
+
+        /**
+         * Stops the workers. Files that are copied at the moment may still be written.
+         */
+        void close() {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+
+    }
+
     /**
      * Adds an additional header.
      */
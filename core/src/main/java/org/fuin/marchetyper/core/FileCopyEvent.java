@@ -0,0 +1,57 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for a single file copied by {@link FileCopy}. The fields are only set if the event is recorded.
+ */
+@Name("org.fuin.marchetyper.FileCopy")
+@Label("File Copy")
+@Category("Marchetyper")
+@Description("Copy of a single file from the example into the archetype")
+@StackTrace(false)
+final class FileCopyEvent extends jdk.jfr.Event {
+
+    @Label("Source File")
+    String srcFile;
+
+    @Label("Destination File")
+    String destFile;
+
+    @Label("File Type")
+    String fileType;
+
+    @Label("Bytes In")
+    @DataAmount
+    long bytesIn;
+
+    @Label("Bytes Out")
+    @DataAmount
+    long bytesOut;
+
+    @Label("Replacements")
+    long replacements;
+
+}
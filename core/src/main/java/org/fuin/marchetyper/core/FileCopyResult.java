@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved. 
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
  * http://www.fuin.org/
  *
  * This library is free software; you can redistribute it and/or modify it under
@@ -19,24 +19,55 @@ package org.fuin.marchetyper.core;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.function.BiConsumer;
 
+import org.fuin.objects4j.common.Contract;
 import org.fuin.utils4j.Utils4J;
 
+import jakarta.validation.constraints.NotNull;
+
 /**
- * Result of copying files.
+ * Result of copying files. The paths are stored in a compact trie, so directories shared by many files are only held once. Files are
+ * sorted by path: Entries of a directory are ordered by name and a directory comes before it's content.
  */
 public final class FileCopyResult {
 
-    private final List<File> binaryFiles;
+    private final PathTrie paths;
+
+    private int[] binaryFiles;
+
+    private int binaryCount;
 
-    private final List<File> textFiles;
+    private int[] textFiles;
+
+    private int textCount;
 
     private FileCopyResult() {
-        binaryFiles = new ArrayList<>();
-        textFiles = new ArrayList<>();
+        paths = new PathTrie();
+        binaryFiles = new int[16];
+        textFiles = new int[16];
+    }
+
+    /**
+     * Returns the number of copied files of a type.
+     * 
+     * @param type
+     *            Type of the files.
+     * 
+     * @return Number of files.
+     */
+    public int getFileCount(@NotNull final FileType type) {
+        Contract.requireArgNotNull("type", type);
+        if (type == FileType.BINARY) {
+            return binaryCount;
+        }
+        return textCount;
     }
 
     /**
@@ -45,7 +76,7 @@ public final class FileCopyResult {
      * @return List of 1:1 copied files.
      */
     public List<File> getBinaryFiles() {
-        return Collections.unmodifiableList(binaryFiles);
+        return files(binaryFiles, binaryCount);
     }
 
     /**
@@ -57,7 +88,7 @@ public final class FileCopyResult {
      * @return List of 1:1 copied files.
      */
     public List<File> getRelativizedBinaryFiles(final File baseDir) {
-        return getBinaryFiles().stream().map(file -> new File(Utils4J.getRelativePath(baseDir, file))).collect(Collectors.toList());
+        return relativizedFiles(baseDir, binaryFiles, binaryCount);
     }
 
     /**
@@ -66,7 +97,7 @@ public final class FileCopyResult {
      * @return List of copied text files that also may have been modified.
      */
     public List<File> getTextFiles() {
-        return Collections.unmodifiableList(textFiles);
+        return files(textFiles, textCount);
     }
 
     /**
@@ -78,7 +109,109 @@ public final class FileCopyResult {
      * @return List of copied text files that also may have been modified.
      */
     public List<File> getRelativizedTextFiles(final File baseDir) {
-        return getTextFiles().stream().map(file -> new File(Utils4J.getRelativePath(baseDir, file))).collect(Collectors.toList());
+        return relativizedFiles(baseDir, textFiles, textCount);
+    }
+
+    /**
+     * Iterates over the copied files of a type relative to a base directory without creating a {@link File} for each of them.
+     * 
+     * @param baseDir
+     *            Directory to use as base directory for creating the relative path.
+     * @param type
+     *            Type of the files.
+     * @param consumer
+     *            Receives the relative directory with '/' as separator ("" for files directly inside the base directory) and the name
+     *            of each file.
+     */
+    public void forEachRelative(@NotNull final File baseDir, @NotNull final FileType type,
+            @NotNull final BiConsumer<String, String> consumer) {
+        Contract.requireArgNotNull("baseDir", baseDir);
+        Contract.requireArgNotNull("type", type);
+        Contract.requireArgNotNull("consumer", consumer);
+        if (type == FileType.BINARY) {
+            forEachRelative(baseDir, binaryFiles, binaryCount, '/', consumer);
+        } else {
+            forEachRelative(baseDir, textFiles, textCount, '/', consumer);
+        }
+    }
+
+    /**
+     * Groups the copied files of a type by their directory relative to a base directory.
+     * 
+     * @param baseDir
+     *            Directory to use as base directory for creating the relative path.
+     * @param type
+     *            Type of the files.
+     * 
+     * @return Relative directories with '/' as separator ("" for the base directory itself) and the names of the files inside each of
+     *         them. Both are sorted like the files.
+     */
+    public Map<String, List<String>> getRelativeFilesByDirectory(@NotNull final File baseDir, @NotNull final FileType type) {
+        final Map<String, List<String>> dirs = new LinkedHashMap<>();
+        forEachRelative(baseDir, type, (dir, name) -> dirs.computeIfAbsent(dir, (d) -> new ArrayList<>()).add(name));
+        return dirs;
+    }
+
+    private List<File> files(final int[] nodes, final int count) {
+        final List<File> files = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            files.add(paths.toFile(nodes[i]));
+        }
+        return Collections.unmodifiableList(files);
+    }
+
+    private List<File> relativizedFiles(final File baseDir, final int[] nodes, final int count) {
+        final List<File> files = new ArrayList<>(count);
+        forEachRelative(baseDir, nodes, count, File.separatorChar, (dir, name) -> {
+            if (dir.isEmpty()) {
+                files.add(new File(name));
+            } else {
+                files.add(new File(dir, name));
+            }
+        });
+        return files;
+    }
+
+    private void forEachRelative(final File baseDir, final int[] nodes, final int count, final char separator,
+            final BiConsumer<String, String> consumer) {
+
+        final int baseNode = baseNode(baseDir);
+        // Many files share the same directory, so the relative directory is only created once
+        final Map<Integer, String> dirs = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            final int node = nodes[i];
+            final int dirNode = paths.getParent(node);
+            String dir = null;
+            if (baseNode >= 0 && dirNode >= 0) {
+                dir = dirs.get(dirNode);
+                if (dir == null) {
+                    dir = paths.relativize(dirNode, baseNode, separator);
+                    if (dir != null) {
+                        dirs.put(dirNode, dir);
+                    }
+                }
+            }
+            if (dir == null) {
+                // Not located below the base directory, for example because of symbolic links
+                final File file = new File(Utils4J.getRelativePath(baseDir, paths.toFile(node)));
+                if (file.getParent() == null) {
+                    consumer.accept("", file.getName());
+                } else {
+                    consumer.accept(file.getParent().replace(File.separatorChar, separator), file.getName());
+                }
+            } else {
+                consumer.accept(dir, paths.getName(node));
+            }
+        }
+
+    }
+
+    private int baseNode(final File baseDir) {
+        final int node = paths.find(baseDir);
+        if (node >= 0) {
+            return node;
+        }
+        return paths.find(new File(Utils4J.getCanonicalPath(baseDir)));
     }
 
     /**
@@ -104,7 +237,10 @@ public final class FileCopyResult {
          * @return Builder instance.
          */
         public Builder addBinaryFile(final File file) {
-            delegate.binaryFiles.add(file);
+            if (delegate.binaryCount == delegate.binaryFiles.length) {
+                delegate.binaryFiles = Arrays.copyOf(delegate.binaryFiles, delegate.binaryCount * 2);
+            }
+            delegate.binaryFiles[delegate.binaryCount++] = delegate.paths.add(file);
             return this;
         }
 
@@ -117,7 +253,10 @@ public final class FileCopyResult {
          * @return Builder instance.
          */
         public Builder addTextFile(final File file) {
-            delegate.textFiles.add(file);
+            if (delegate.textCount == delegate.textFiles.length) {
+                delegate.textFiles = Arrays.copyOf(delegate.textFiles, delegate.textCount * 2);
+            }
+            delegate.textFiles[delegate.textCount++] = delegate.paths.add(file);
             return this;
         }
 
@@ -129,8 +268,11 @@ public final class FileCopyResult {
         public FileCopyResult build() {
             final FileCopyResult tmp = delegate;
             delegate = new FileCopyResult();
-            Collections.sort(delegate.binaryFiles);
-            Collections.sort(delegate.textFiles);
+            tmp.paths.freeze();
+            tmp.binaryFiles = Arrays.copyOf(tmp.binaryFiles, tmp.binaryCount);
+            tmp.textFiles = Arrays.copyOf(tmp.textFiles, tmp.textCount);
+            tmp.paths.sort(tmp.binaryFiles, tmp.binaryCount);
+            tmp.paths.sort(tmp.textFiles, tmp.textCount);
             return tmp;
         }
 
@@ -18,11 +18,14 @@
 package org.fuin.marchetyper.core;
 
 import java.io.File;
+import java.util.regex.Pattern;
 
 import org.fuin.objects4j.common.Nullable;
 
+import jakarta.xml.bind.Unmarshaller;
 import jakarta.xml.bind.annotation.XmlAttribute;
 import jakarta.xml.bind.annotation.XmlRootElement;
+import jakarta.xml.bind.annotation.XmlTransient;
 
 /**
  * Defines a path and/or file filter with expressions.
@@ -36,6 +39,12 @@ public final class FileFilter {
     @XmlAttribute(name = "file")
     private String fileExpr;
 
+    @XmlTransient
+    private Pattern pathPattern;
+
+    @XmlTransient
+    private Pattern filePattern;
+
     /**
      * JAXB constructor.
      */
@@ -55,6 +64,7 @@ public final class FileFilter {
         super();
         this.pathExpr = trim(pathExpr);
         this.fileExpr = trim(fileExpr);
+        compile();
     }
 
     /**
@@ -84,16 +94,17 @@ public final class FileFilter {
      * @return TRUE if the rule matches.
      */
     public final boolean applies(final File file) {
-        if (fileExpr == null) {
-            if (pathExpr == null) {
+        if (filePattern == null) {
+            if (pathPattern == null) {
                 return true;
             }
-            return file.getPath().replace(File.separatorChar, '/').matches(pathExpr);
+            return pathPattern.matcher(file.getPath().replace(File.separatorChar, '/')).matches();
         }
-        if (pathExpr == null) {
-            return file.getName().matches(fileExpr);
+        if (pathPattern == null) {
+            return filePattern.matcher(file.getName()).matches();
         }
-        return file.getPath().replace(File.separatorChar, '/').matches(pathExpr) && file.getName().matches(fileExpr);
+        return pathPattern.matcher(file.getPath().replace(File.separatorChar, '/')).matches()
+                && filePattern.matcher(file.getName()).matches();
 
     }
 
@@ -108,6 +119,22 @@ public final class FileFilter {
         return "FileFilter [pathExpr=" + pathExpr + ", fileExpr=" + fileExpr + "]";
     }
 
+    void afterUnmarshal(final Unmarshaller unmarshaller, final Object parent) {
+        compile();
+    }
+
+    private void compile() {
+        pathPattern = compile(pathExpr);
+        filePattern = compile(fileExpr);
+    }
+
+    private static Pattern compile(final String regEx) {
+        if (regEx == null) {
+            return null;
+        }
+        return Pattern.compile(regEx);
+    }
+
     private static String trim(final String str) {
         if (str == null) {
             return null;
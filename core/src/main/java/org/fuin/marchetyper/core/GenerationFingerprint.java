@@ -0,0 +1,201 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+import org.fuin.objects4j.common.Contract;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Fingerprint of all inputs of a generation: The content of the configuration file, the generation options, the version POM, the custom
+ * POM, the post generate script and the path, size and last modification time of every source file selected by the include and exclude
+ * filters. Two equal fingerprints mean that a generation would create the same archetype again.
+ */
+public final class GenerationFingerprint {
+
+    private static final String VERSION_RESOURCE = "marchetyper-version.properties";
+
+    private GenerationFingerprint() {
+        super();
+    }
+
+    /**
+     * Calculates the fingerprint using the generation options of the configuration. Only the configuration file is read, all other files
+     * are only checked for size and modification time.
+     * 
+     * @param configFile
+     *            Configuration file.
+     * @param config
+     *            Configuration loaded from the file.
+     * @param baseDir
+     *            Base directory used to resolve the directories and files of the configuration.
+     * 
+     * @return Hex encoded fingerprint.
+     */
+    public static String compute(@NotNull final File configFile, @NotNull final Config config, @NotNull final File baseDir) {
+        Contract.requireArgNotNull("config", config);
+        return compute(configFile, config, config.getGenerationOptions(), baseDir);
+    }
+
+    /**
+     * Calculates the fingerprint. Only the configuration file is read, all other files are only checked for size and modification time.
+     * 
+     * @param configFile
+     *            Configuration file.
+     * @param config
+     *            Configuration loaded from the file.
+     * @param options
+     *            Options used for the generation, for example the ones of the configuration with overrides from the command line.
+     * @param baseDir
+     *            Base directory used to resolve the directories and files of the configuration.
+     * 
+     * @return Hex encoded fingerprint.
+     */
+    public static String compute(@NotNull final File configFile, @NotNull final Config config, @NotNull final GenerationOptions options,
+            @NotNull final File baseDir) {
+        Contract.requireArgNotNull("configFile", configFile);
+        Contract.requireArgNotNull("config", config);
+        Contract.requireArgNotNull("options", options);
+        Contract.requireArgNotNull("baseDir", baseDir);
+
+        final CompiledConfig compiledConfig = CompiledConfig.of(config, baseDir);
+        final MessageDigest md = DigestCache.messageDigest();
+        try {
+            update(md, "generator", generatorVersion());
+            update(md, "config", DigestCache.digest(configFile.toPath()));
+            update(md, "options", options.toString());
+            update(md, "destDir", compiledConfig.getDestDir().getPath());
+            update(md, "versionPom", file(config.getArchetype().getVersionPomFile(baseDir)));
+            update(md, "customPom", file(compiledConfig.getCustomPomFile()));
+            update(md, "postGenerate", file(compiledConfig.getPostGenerateFile()));
+            final File srcDir = compiledConfig.getSrcDir();
+            for (final File srcFile : selectedFiles(compiledConfig, srcDir)) {
+                update(md, "src", file(srcFile));
+            }
+        } catch (final IOException ex) {
+            throw new RuntimeException("Error calculating the fingerprint for: " + configFile, ex);
+        }
+        return DigestCache.hex(md.digest());
+    }
+
+    /**
+     * Determines if a fingerprint equals the one saved in a file.
+     * 
+     * @param fingerprintFile
+     *            File with the fingerprint of the last generation. It's OK if it does not exist.
+     * @param fingerprint
+     *            Current fingerprint.
+     * 
+     * @return {@literal true} if the file exists and contains the same fingerprint.
+     */
+    public static boolean matches(@NotNull final File fingerprintFile, @NotNull final String fingerprint) {
+        Contract.requireArgNotNull("fingerprintFile", fingerprintFile);
+        Contract.requireArgNotNull("fingerprint", fingerprint);
+        if (!fingerprintFile.isFile()) {
+            return false;
+        }
+        try {
+            return fingerprint.equals(new String(Files.readAllBytes(fingerprintFile.toPath()), StandardCharsets.UTF_8).trim());
+        } catch (final IOException ex) {
+            throw new RuntimeException("Error reading fingerprint file: " + fingerprintFile, ex);
+        }
+    }
+
+    /**
+     * Saves a fingerprint to a file.
+     * 
+     * @param fingerprintFile
+     *            File to write. Missing parent directories are created.
+     * @param fingerprint
+     *            Fingerprint to save.
+     */
+    public static void save(@NotNull final File fingerprintFile, @NotNull final String fingerprint) {
+        Contract.requireArgNotNull("fingerprintFile", fingerprintFile);
+        Contract.requireArgNotNull("fingerprint", fingerprint);
+        try {
+            final Path path = fingerprintFile.toPath().toAbsolutePath();
+            Files.createDirectories(path.getParent());
+            Files.write(path, fingerprint.getBytes(StandardCharsets.UTF_8));
+        } catch (final IOException ex) {
+            throw new RuntimeException("Error writing fingerprint file: " + fingerprintFile, ex);
+        }
+    }
+
+    /**
+     * Returns the version of the generator. The version is taken from a resource filtered by the build, so it's also available if the
+     * classes are not loaded from a JAR file (for example inside the reactor). The manifest is only used as a fallback.
+     * 
+     * @return Version or "unknown" if it cannot be determined.
+     */
+    static String generatorVersion() {
+        try (final InputStream in = GenerationFingerprint.class.getResourceAsStream(VERSION_RESOURCE)) {
+            if (in != null) {
+                final Properties props = new Properties();
+                props.load(in);
+                final String version = props.getProperty("version");
+                if (version != null && !version.startsWith("${")) {
+                    return version;
+                }
+            }
+        } catch (final IOException ex) {
+            throw new RuntimeException("Error reading resource: " + VERSION_RESOURCE, ex);
+        }
+        final String version = GenerationFingerprint.class.getPackage().getImplementationVersion();
+        if (version == null) {
+            return "unknown";
+        }
+        return version;
+    }
+
+    private static List<File> selectedFiles(final FileMatcher fileMatcher, final File srcDir) {
+        if (!srcDir.isDirectory()) {
+            return Collections.emptyList();
+        }
+        // Same walk as the generation, so files in linked directories are also part of the fingerprint
+        final List<File> files = FileCopy.allFiles(srcDir).stream()
+                .filter(file -> fileMatcher.includes(file) || !fileMatcher.excludes(file))
+                .collect(Collectors.toCollection(ArrayList::new));
+        Collections.sort(files);
+        return files;
+    }
+
+    private static String file(final File file) {
+        if (file == null) {
+            return "-";
+        }
+        return file.getPath() + "\t" + file.length() + "\t" + file.lastModified();
+    }
+
+    private static void update(final MessageDigest md, final String key, final String value) {
+        md.update((key + "\t" + value + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+}
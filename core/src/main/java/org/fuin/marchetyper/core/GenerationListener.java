@@ -0,0 +1,104 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+import java.io.File;
+
+import org.fuin.marchetyper.core.GenerationMetrics.Phase;
+
+/**
+ * Receives the progress of an archetype generation. All methods are called from the generating thread and should return quickly. The
+ * returned signal is checked after each call: {@link Signal#CANCEL} stops the generation with a
+ * {@link java.util.concurrent.CancellationException}. Files that were already written stay in the destination directory.
+ */
+public interface GenerationListener {
+
+    /**
+     * A phase of the generation starts. The copy of the files is reported by {@link #onFileStart(File)} and
+     * {@link #onFileFinish(File, File, FileType, int, long)} instead.
+     *
+     * @param phase
+     *            Phase that starts.
+     *
+     * @return Signal if the generation should continue.
+     */
+    public default Signal onPhase(Phase phase) {
+        return Signal.CONTINUE;
+    }
+
+    /**
+     * The source directory was walked and the files to copy are known.
+     *
+     * @param fileCount
+     *            Number of files that will be copied.
+     * @param byteCount
+     *            Total size of the files that will be copied.
+     *
+     * @return Signal if the generation should continue.
+     */
+    public default Signal onWalk(int fileCount, long byteCount) {
+        return Signal.CONTINUE;
+    }
+
+    /**
+     * The copy of a file starts. If the files are copied by multiple threads, this is called when the file is handed over to a worker,
+     * and the files finish in the same order as they were started.
+     *
+     * @param srcFile
+     *            File inside the source directory.
+     *
+     * @return Signal if the generation should continue.
+     */
+    public default Signal onFileStart(File srcFile) {
+        return Signal.CONTINUE;
+    }
+
+    /**
+     * The copy of a file finished.
+     *
+     * @param srcFile
+     *            File inside the source directory.
+     * @param destFile
+     *            Created file.
+     * @param type
+     *            Type of the file.
+     * @param fileCount
+     *            Number of files copied so far including this one.
+     * @param byteCount
+     *            Size of the source files copied so far including this one.
+     *
+     * @return Signal if the generation should continue.
+     */
+    public default Signal onFileFinish(File srcFile, File destFile, FileType type, int fileCount, long byteCount) {
+        return Signal.CONTINUE;
+    }
+
+    /**
+     * Tells the generation how to proceed.
+     */
+    public enum Signal {
+
+        /** Proceed with the generation. */
+        CONTINUE,
+
+        /** Stop the generation as soon as possible. */
+        CANCEL;
+
+    }
+
+}
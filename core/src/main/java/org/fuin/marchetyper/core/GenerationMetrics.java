@@ -0,0 +1,391 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.fuin.objects4j.common.Contract;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Timings and counters of an archetype generation. Times of phases that process single files (filtering, mapping paths and copying) are
+ * summed over all files.
+ */
+public final class GenerationMetrics {
+
+    private final long wallNanos;
+
+    private final Map<Phase, Long> phaseNanos;
+
+    private final long textFiles;
+
+    private final long binaryFiles;
+
+    private final long bytesIn;
+
+    private final long bytesOut;
+
+    private final long replacements;
+
+    private final long matcherEvaluations;
+
+    private final long mappingEvaluations;
+
+    private GenerationMetrics(final Builder builder, final long wallNanos) {
+        super();
+        this.wallNanos = wallNanos;
+        final Map<Phase, Long> map = new EnumMap<>(Phase.class);
+        for (final Phase phase : Phase.values()) {
+            map.put(phase, builder.phaseNanos.get(phase).sum());
+        }
+        this.phaseNanos = Collections.unmodifiableMap(map);
+        this.textFiles = builder.textFiles.sum();
+        this.binaryFiles = builder.binaryFiles.sum();
+        this.bytesIn = builder.bytesIn.sum();
+        this.bytesOut = builder.bytesOut.sum();
+        this.replacements = builder.replacements.sum();
+        this.matcherEvaluations = builder.matcherEvaluations.sum();
+        this.mappingEvaluations = builder.mappingEvaluations.sum();
+    }
+
+    /**
+     * Returns the wall time of the complete generation.
+     * 
+     * @return Time in milliseconds.
+     */
+    public long getWallMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(wallNanos);
+    }
+
+    /**
+     * Returns the time spent in a phase.
+     * 
+     * @param phase
+     *            Phase to return the time for.
+     * 
+     * @return Time in milliseconds.
+     */
+    public long getPhaseMillis(@NotNull final Phase phase) {
+        Contract.requireArgNotNull("phase", phase);
+        return TimeUnit.NANOSECONDS.toMillis(phaseNanos.get(phase));
+    }
+
+    /**
+     * Returns the number of text files written.
+     * 
+     * @return Number of files.
+     */
+    public long getTextFiles() {
+        return textFiles;
+    }
+
+    /**
+     * Returns the number of binary files written.
+     * 
+     * @return Number of files.
+     */
+    public long getBinaryFiles() {
+        return binaryFiles;
+    }
+
+    /**
+     * Returns the number of bytes read from source files.
+     * 
+     * @return Number of bytes.
+     */
+    public long getBytesIn() {
+        return bytesIn;
+    }
+
+    /**
+     * Returns the number of bytes written to destination files.
+     * 
+     * @return Number of bytes.
+     */
+    public long getBytesOut() {
+        return bytesOut;
+    }
+
+    /**
+     * Returns the number of search terms replaced in text files.
+     * 
+     * @return Number of replacements.
+     */
+    public long getReplacements() {
+        return replacements;
+    }
+
+    /**
+     * Returns the number of file matcher calls (include, exclude, binary and text checks). A single call may check several filters.
+     * 
+     * @return Number of evaluations.
+     */
+    public long getMatcherEvaluations() {
+        return matcherEvaluations;
+    }
+
+    /**
+     * Returns the number of mapping conditions evaluated to select the mappings that apply to a text file. Every mapping is checked once
+     * per copied text file.
+     * 
+     * @return Number of evaluations.
+     */
+    public long getMappingEvaluations() {
+        return mappingEvaluations;
+    }
+
+    /**
+     * Returns a human readable summary.
+     * 
+     * @return Summary with one line per phase.
+     */
+    public String toSummary() {
+        final String nl = System.lineSeparator();
+        final StringBuilder sb = new StringBuilder();
+        sb.append("Generation took ").append(getWallMillis()).append(" ms: ").append(textFiles).append(" text file(s), ")
+                .append(binaryFiles).append(" binary file(s), ").append(bytesIn).append(" bytes in, ").append(bytesOut)
+                .append(" bytes out, ").append(replacements).append(" replacement(s), ").append(matcherEvaluations)
+                .append(" matcher evaluation(s), ").append(mappingEvaluations).append(" mapping evaluation(s)");
+        for (final Phase phase : Phase.values()) {
+            sb.append(nl).append(String.format(Locale.ROOT, "  %-12s %8d ms", phase.name(), getPhaseMillis(phase)));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns the metrics as a JSON object.
+     * 
+     * @return Single line JSON.
+     */
+    public String toJson() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("{\"wallMillis\":").append(getWallMillis());
+        sb.append(",\"phaseMillis\":{");
+        String sep = "";
+        for (final Phase phase : Phase.values()) {
+            sb.append(sep).append('"').append(phase.name()).append("\":").append(getPhaseMillis(phase));
+            sep = ",";
+        }
+        sb.append("}");
+        sb.append(",\"textFiles\":").append(textFiles);
+        sb.append(",\"binaryFiles\":").append(binaryFiles);
+        sb.append(",\"bytesIn\":").append(bytesIn);
+        sb.append(",\"bytesOut\":").append(bytesOut);
+        sb.append(",\"replacements\":").append(replacements);
+        sb.append(",\"matcherEvaluations\":").append(matcherEvaluations);
+        sb.append(",\"mappingEvaluations\":").append(mappingEvaluations);
+        sb.append("}");
+        return sb.toString();
+    }
+
+    /**
+     * Writes the metrics as JSON to a file. An existing file is overwritten.
+     * 
+     * @param file
+     *            File to write.
+     */
+    public void writeJson(@NotNull final File file) {
+        Contract.requireArgNotNull("file", file);
+        try {
+            final File dir = file.getAbsoluteFile().getParentFile();
+            if (dir != null) {
+                Files.createDirectories(dir.toPath());
+            }
+            Files.write(file.toPath(), (toJson() + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+        } catch (final IOException ex) {
+            throw new RuntimeException("Error writing generation metrics: " + file, ex);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return toJson();
+    }
+
+    /**
+     * Phase of the generation.
+     */
+    public enum Phase {
+
+        /** Deleting the destination directory. */
+        DELETE,
+
+        /** Creating the POM and copying the post generate script. */
+        POM,
+
+        /** Listing the files of the source directory. */
+        WALK,
+
+        /** Applying the include and exclude filters. */
+        FILTER,
+
+        /** Mapping source paths to destination paths. */
+        MAP_PATHS,
+
+        /** Copying text files including the replacements. */
+        COPY_TEXT,
+
+        /** Copying binary files. */
+        COPY_BINARY,
+
+        /** Rendering the 'archetype-metadata.xml'. */
+        METADATA;
+
+    }
+
+    /**
+     * Collects the metrics while generating. The builder is safe to use from multiple threads.
+     */
+    public static final class Builder {
+
+        private final long startNanos;
+
+        private final Map<Phase, LongAdder> phaseNanos;
+
+        private final LongAdder textFiles;
+
+        private final LongAdder binaryFiles;
+
+        private final LongAdder bytesIn;
+
+        private final LongAdder bytesOut;
+
+        private final LongAdder replacements;
+
+        private final LongAdder matcherEvaluations;
+
+        private final LongAdder mappingEvaluations;
+
+        /**
+         * Default constructor that starts the wall clock.
+         */
+        public Builder() {
+            super();
+            this.startNanos = System.nanoTime();
+            this.phaseNanos = new EnumMap<>(Phase.class);
+            for (final Phase phase : Phase.values()) {
+                phaseNanos.put(phase, new LongAdder());
+            }
+            this.textFiles = new LongAdder();
+            this.binaryFiles = new LongAdder();
+            this.bytesIn = new LongAdder();
+            this.bytesOut = new LongAdder();
+            this.replacements = new LongAdder();
+            this.matcherEvaluations = new LongAdder();
+            this.mappingEvaluations = new LongAdder();
+        }
+
+        /**
+         * Adds the time elapsed since a start time to a phase.
+         * 
+         * @param phase
+         *            Phase.
+         * @param startNanos
+         *            Start time as returned by {@link System#nanoTime()}.
+         * 
+         * @return The builder.
+         */
+        public Builder addPhase(@NotNull final Phase phase, final long startNanos) {
+            Contract.requireArgNotNull("phase", phase);
+            phaseNanos.get(phase).add(System.nanoTime() - startNanos);
+            return this;
+        }
+
+        /**
+         * Counts a copied text file.
+         * 
+         * @param bytesIn
+         *            Size of the source file.
+         * @param bytesOut
+         *            Size of the destination file.
+         * @param replacements
+         *            Number of replaced search terms.
+         * 
+         * @return The builder.
+         */
+        public Builder addTextFile(final long bytesIn, final long bytesOut, final long replacements) {
+            this.textFiles.increment();
+            this.bytesIn.add(bytesIn);
+            this.bytesOut.add(bytesOut);
+            this.replacements.add(replacements);
+            return this;
+        }
+
+        /**
+         * Counts a copied binary file.
+         * 
+         * @param bytes
+         *            Size of the file.
+         * 
+         * @return The builder.
+         */
+        public Builder addBinaryFile(final long bytes) {
+            this.binaryFiles.increment();
+            this.bytesIn.add(bytes);
+            this.bytesOut.add(bytes);
+            return this;
+        }
+
+        /**
+         * Counts file matcher calls.
+         * 
+         * @param count
+         *            Number of evaluations.
+         * 
+         * @return The builder.
+         */
+        public Builder addMatcherEvaluations(final long count) {
+            this.matcherEvaluations.add(count);
+            return this;
+        }
+
+        /**
+         * Counts evaluated mapping conditions.
+         * 
+         * @param count
+         *            Number of evaluations.
+         * 
+         * @return The builder.
+         */
+        public Builder addMappingEvaluations(final long count) {
+            this.mappingEvaluations.add(count);
+            return this;
+        }
+
+        /**
+         * Creates the metrics with the wall time elapsed since the builder was created.
+         * 
+         * @return New instance.
+         */
+        public GenerationMetrics build() {
+            return new GenerationMetrics(this, System.nanoTime() - startNanos);
+        }
+
+    }
+
+}
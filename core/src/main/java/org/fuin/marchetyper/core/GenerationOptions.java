@@ -0,0 +1,238 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+import java.io.File;
+
+import org.fuin.objects4j.common.Nullable;
+
+/**
+ * Options that tune how an archetype is generated. They do not change the content of the generated archetype, except for the
+ * {@link SyncMode} that determines if outdated files in the destination directory are kept.
+ */
+public final class GenerationOptions {
+
+    /** Options used if nothing is configured: Sequential streaming copy into a cleaned destination directory. */
+    public static final GenerationOptions DEFAULT = new GenerationOptions.Builder().build();
+
+    private int parallelism;
+
+    private ReplacementEngine replacementEngine;
+
+    private BinaryCopyStrategy binaryCopy;
+
+    private SyncMode syncMode;
+
+    private File metricsFile;
+
+    private GenerationOptions() {
+        super();
+        parallelism = 1;
+        replacementEngine = ReplacementEngine.STREAMING;
+        binaryCopy = BinaryCopyStrategy.COPY;
+        syncMode = SyncMode.CLEAN;
+    }
+
+    /**
+     * Returns the number of threads used to copy the files.
+     * 
+     * @return Number of threads (one or more).
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Returns the implementation that applies the mappings to text files.
+     * 
+     * @return Replacement engine.
+     */
+    public ReplacementEngine getReplacementEngine() {
+        return replacementEngine;
+    }
+
+    /**
+     * Returns how binary files are transferred.
+     * 
+     * @return Copy strategy.
+     */
+    public BinaryCopyStrategy getBinaryCopy() {
+        return binaryCopy;
+    }
+
+    /**
+     * Returns how an existing destination directory is treated.
+     * 
+     * @return Sync mode.
+     */
+    public SyncMode getSyncMode() {
+        return syncMode;
+    }
+
+    /**
+     * Returns the file to write the metrics of the generation to as JSON.
+     * 
+     * @return File (may be relative to the base directory) or {@literal null} if no metrics are written.
+     */
+    @Nullable
+    public File getMetricsFile() {
+        return metricsFile;
+    }
+
+    /**
+     * Returns the metrics file resolved against a base directory.
+     * 
+     * @param baseDir
+     *            Base directory.
+     * 
+     * @return File or {@literal null} if no metrics are written.
+     */
+    @Nullable
+    public File getMetricsFile(final File baseDir) {
+        if (metricsFile == null || metricsFile.isAbsolute() || baseDir == null) {
+            return metricsFile;
+        }
+        return new File(baseDir, metricsFile.getPath());
+    }
+
+    @Override
+    public String toString() {
+        return "GenerationOptions [parallelism=" + parallelism + ", replacementEngine=" + replacementEngine + ", binaryCopy=" + binaryCopy
+                + ", syncMode=" + syncMode + ", metricsFile=" + metricsFile + "]";
+    }
+
+    /**
+     * Builds a new instance of the outer class.
+     */
+    public static final class Builder {
+
+        private GenerationOptions delegate;
+
+        /**
+         * Default constructor.
+         */
+        public Builder() {
+            delegate = new GenerationOptions();
+        }
+
+        /**
+         * Constructor with options to start from.
+         * 
+         * @param options
+         *            Options to copy the values from.
+         */
+        public Builder(final GenerationOptions options) {
+            this();
+            delegate.parallelism = options.parallelism;
+            delegate.replacementEngine = options.replacementEngine;
+            delegate.binaryCopy = options.binaryCopy;
+            delegate.syncMode = options.syncMode;
+            delegate.metricsFile = options.metricsFile;
+        }
+
+        /**
+         * Sets the number of threads used to copy the files. A value of '1' (default) copies all files sequentially in the calling thread.
+         * 
+         * @param parallelism
+         *            Number of threads.
+         * 
+         * @return The builder.
+         */
+        public Builder parallelism(final int parallelism) {
+            delegate.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Sets the implementation that applies the mappings to text files.
+         * 
+         * @param replacementEngine
+         *            Replacement engine or {@literal null} for {@link ReplacementEngine#STREAMING}.
+         * 
+         * @return The builder.
+         */
+        public Builder replacementEngine(final ReplacementEngine replacementEngine) {
+            delegate.replacementEngine = replacementEngine;
+            return this;
+        }
+
+        /**
+         * Sets how binary files are transferred.
+         * 
+         * @param binaryCopy
+         *            Copy strategy or {@literal null} for {@link BinaryCopyStrategy#COPY}.
+         * 
+         * @return The builder.
+         */
+        public Builder binaryCopy(final BinaryCopyStrategy binaryCopy) {
+            delegate.binaryCopy = binaryCopy;
+            return this;
+        }
+
+        /**
+         * Sets how an existing destination directory is treated.
+         * 
+         * @param syncMode
+         *            Sync mode or {@literal null} for {@link SyncMode#CLEAN}.
+         * 
+         * @return The builder.
+         */
+        public Builder syncMode(final SyncMode syncMode) {
+            delegate.syncMode = syncMode;
+            return this;
+        }
+
+        /**
+         * Sets the file to write the metrics of the generation to as JSON.
+         * 
+         * @param metricsFile
+         *            File (relative to the base directory or absolute) or {@literal null} if no metrics are written.
+         * 
+         * @return The builder.
+         */
+        public Builder metricsFile(final File metricsFile) {
+            delegate.metricsFile = metricsFile;
+            return this;
+        }
+
+        /**
+         * Builds a new instance of the outer class.
+         * 
+         * @return The new instance.
+         */
+        public GenerationOptions build() {
+            if (delegate.parallelism < 1) {
+                throw new IllegalStateException("The value for 'parallelism' must be greater than zero, but was: " + delegate.parallelism);
+            }
+            if (delegate.replacementEngine == null) {
+                delegate.replacementEngine = ReplacementEngine.STREAMING;
+            }
+            if (delegate.binaryCopy == null) {
+                delegate.binaryCopy = BinaryCopyStrategy.COPY;
+            }
+            if (delegate.syncMode == null) {
+                delegate.syncMode = SyncMode.CLEAN;
+            }
+            final GenerationOptions tmp = delegate;
+            delegate = new GenerationOptions();
+            return tmp;
+        }
+
+    }
+
+}
@@ -0,0 +1,272 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.fuin.objects4j.common.Contract;
+import org.fuin.utils4j.Utils4J;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Result of a dry-run: Describes what a generation would write without actually writing anything.
+ */
+public final class GenerationPlan {
+
+    private final File destBaseDir;
+
+    private final List<Entry> entries;
+
+    private GenerationPlan(final File destBaseDir) {
+        super();
+        this.destBaseDir = destBaseDir;
+        this.entries = new ArrayList<>();
+    }
+
+    /**
+     * Returns the base directory all destination files are located in.
+     *
+     * @return Destination base directory.
+     */
+    public File getDestBaseDir() {
+        return destBaseDir;
+    }
+
+    /**
+     * Returns the planned files sorted by destination path.
+     *
+     * @return Immutable list.
+     */
+    public List<Entry> getEntries() {
+        return Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * Returns the number of files with the given type.
+     *
+     * @param type
+     *            Type of files to count.
+     *
+     * @return Number of files.
+     */
+    public int getFileCount(@NotNull final FileType type) {
+        int count = 0;
+        for (final Entry entry : entries) {
+            if (entry.getType() == type) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of bytes of all source files with the given type.
+     *
+     * @param type
+     *            Type of files to sum up.
+     *
+     * @return Number of bytes.
+     */
+    public long getByteCount(@NotNull final FileType type) {
+        long bytes = 0;
+        for (final Entry entry : entries) {
+            if (entry.getType() == type) {
+                bytes = bytes + entry.getBytes();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns the number of bytes of all source files.
+     *
+     * @return Number of bytes.
+     */
+    public long getByteCount() {
+        long bytes = 0;
+        for (final Entry entry : entries) {
+            bytes = bytes + entry.getBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Prints the plan in a human readable form. Every file is printed on one line followed by a summary line.
+     *
+     * @param out
+     *            Stream to write to.
+     */
+    public void print(@NotNull final PrintStream out) {
+        Contract.requireArgNotNull("out", out);
+        for (final Entry entry : entries) {
+            out.println(String.format("%-6s %12d %4s  %s", entry.getType(), entry.getBytes(),
+                    entry.getType() == FileType.TEXT ? String.valueOf(entry.getMappingCount()) : "-",
+                    Utils4J.getRelativePath(destBaseDir, entry.getDestFile()).replace(File.separatorChar, '/')));
+        }
+        out.println("Text files: " + getFileCount(FileType.TEXT) + " (" + getByteCount(FileType.TEXT) + " bytes), binary files: "
+                + getFileCount(FileType.BINARY) + " (" + getByteCount(FileType.BINARY) + " bytes), total: " + entries.size() + " ("
+                + getByteCount() + " bytes)");
+    }
+
+    /**
+     * A single file that would be generated.
+     */
+    public static final class Entry {
+
+        private final File srcFile;
+
+        private final File destFile;
+
+        private final FileType type;
+
+        private final int mappingCount;
+
+        private final long bytes;
+
+        /**
+         * Constructor with all data.
+         *
+         * @param srcFile
+         *            Source file.
+         * @param destFile
+         *            Destination file.
+         * @param type
+         *            Type of file.
+         * @param mappingCount
+         *            Number of text mappings that apply to the file.
+         * @param bytes
+         *            Size of the source file.
+         */
+        public Entry(@NotNull final File srcFile, @NotNull final File destFile, @NotNull final FileType type, final int mappingCount,
+                final long bytes) {
+            super();
+            Contract.requireArgNotNull("srcFile", srcFile);
+            Contract.requireArgNotNull("destFile", destFile);
+            Contract.requireArgNotNull("type", type);
+            this.srcFile = srcFile;
+            this.destFile = destFile;
+            this.type = type;
+            this.mappingCount = mappingCount;
+            this.bytes = bytes;
+        }
+
+        /**
+         * Returns the source file.
+         *
+         * @return File to copy.
+         */
+        public File getSrcFile() {
+            return srcFile;
+        }
+
+        /**
+         * Returns the destination file.
+         *
+         * @return File to create.
+         */
+        public File getDestFile() {
+            return destFile;
+        }
+
+        /**
+         * Returns the type of file.
+         *
+         * @return Text or binary.
+         */
+        public FileType getType() {
+            return type;
+        }
+
+        /**
+         * Returns the number of text mappings that apply to the file.
+         *
+         * @return Mapping count - Always zero for binary files.
+         */
+        public int getMappingCount() {
+            return mappingCount;
+        }
+
+        /**
+         * Returns the size of the source file.
+         *
+         * @return Number of bytes.
+         */
+        public long getBytes() {
+            return bytes;
+        }
+
+        @Override
+        public String toString() {
+            return "Entry [type=" + type + ", destFile=" + destFile + ", mappingCount=" + mappingCount + ", bytes=" + bytes + "]";
+        }
+
+    }
+
+    /**
+     * Builder that creates an instance of the outer class.
+     */
+    public static final class Builder {
+
+        private GenerationPlan delegate;
+
+        /**
+         * Constructor with destination base directory.
+         *
+         * @param destBaseDir
+         *            Base directory all destination files are located in.
+         */
+        public Builder(@NotNull final File destBaseDir) {
+            Contract.requireArgNotNull("destBaseDir", destBaseDir);
+            delegate = new GenerationPlan(destBaseDir);
+        }
+
+        /**
+         * Adds an entry.
+         *
+         * @param entry
+         *            Entry to add.
+         *
+         * @return Builder instance.
+         */
+        public Builder add(@NotNull final Entry entry) {
+            Contract.requireArgNotNull("entry", entry);
+            delegate.entries.add(entry);
+            return this;
+        }
+
+        /**
+         * Creates a new instance of the outer class.
+         *
+         * @return New instance.
+         */
+        public GenerationPlan build() {
+            final GenerationPlan tmp = delegate;
+            delegate = new GenerationPlan(tmp.destBaseDir);
+            tmp.entries.sort(Comparator.comparing(Entry::getDestFile));
+            return tmp;
+        }
+
+    }
+
+}
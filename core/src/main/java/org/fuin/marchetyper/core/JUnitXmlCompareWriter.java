@@ -0,0 +1,140 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.fuin.objects4j.common.Contract;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Streams compare findings to a file in the JUnit XML report format, so CI servers can display them like failed tests. Every finding
+ * becomes a 'testcase' named after the source file with a 'failure' (or 'error' for files that could not be compared) that contains the
+ * line diff if there is one. As the report is written while comparing, the 'testsuite' element carries no totals. The file is only
+ * complete after {@link #close()} was called.
+ */
+public final class JUnitXmlCompareWriter implements CompareListener, Closeable {
+
+    private final File file;
+
+    private final String suiteName;
+
+    private final OutputStream out;
+
+    private final XMLStreamWriter writer;
+
+    /**
+     * Constructor with the file to write. An existing file is overwritten.
+     * 
+     * @param file
+     *            Report file.
+     * @param suiteName
+     *            Name of the test suite and class name of all test cases.
+     */
+    public JUnitXmlCompareWriter(@NotNull final File file, @NotNull final String suiteName) {
+        super();
+        Contract.requireArgNotNull("file", file);
+        Contract.requireArgNotNull("suiteName", suiteName);
+        this.file = file;
+        this.suiteName = suiteName;
+        try {
+            final File dir = file.getAbsoluteFile().getParentFile();
+            if (dir != null) {
+                Files.createDirectories(dir.toPath());
+            }
+            this.out = new BufferedOutputStream(Files.newOutputStream(file.toPath()));
+            this.writer = XMLOutputFactory.newInstance().createXMLStreamWriter(out, "UTF-8");
+            writer.writeStartDocument("UTF-8", "1.0");
+            writer.writeCharacters("\n");
+            writer.writeStartElement("testsuite");
+            writer.writeAttribute("name", suiteName);
+            writer.writeCharacters("\n");
+        } catch (final IOException | XMLStreamException ex) {
+            throw new RuntimeException("Error creating compare report: " + file, ex);
+        }
+    }
+
+    @Override
+    public void onFinding(final CompareFinding finding) {
+        try {
+            writer.writeCharacters("  ");
+            writer.writeStartElement("testcase");
+            writer.writeAttribute("classname", suiteName);
+            writer.writeAttribute("name", finding.getSrcFile().toString());
+            final String element;
+            if (finding.getType() == CompareFinding.Type.ERROR) {
+                element = "error";
+            } else {
+                element = "failure";
+            }
+            if (finding.getDiff().isEmpty()) {
+                writer.writeEmptyElement(element);
+            } else {
+                writer.writeStartElement(element);
+            }
+            writer.writeAttribute("type", finding.getType().name());
+            writer.writeAttribute("message", finding.toString());
+            if (!finding.getDiff().isEmpty()) {
+                writer.writeCharacters(String.join("\n", finding.getDiff()));
+                writer.writeEndElement();
+            }
+            writer.writeEndElement();
+            writer.writeCharacters("\n");
+        } catch (final XMLStreamException ex) {
+            throw new RuntimeException("Error writing compare report: " + file, ex);
+        }
+    }
+
+    @Override
+    public void onCutoff(final int maxFindings) {
+        try {
+            writer.writeCharacters("  ");
+            writer.writeStartElement("system-out");
+            writer.writeCharacters("Compare stopped after " + maxFindings + " findings");
+            writer.writeEndElement();
+            writer.writeCharacters("\n");
+        } catch (final XMLStreamException ex) {
+            throw new RuntimeException("Error writing compare report: " + file, ex);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            writer.writeEndElement();
+            writer.writeCharacters("\n");
+            writer.writeEndDocument();
+            writer.close();
+        } catch (final XMLStreamException ex) {
+            throw new IOException("Error closing compare report: " + file, ex);
+        } finally {
+            out.close();
+        }
+    }
+
+}
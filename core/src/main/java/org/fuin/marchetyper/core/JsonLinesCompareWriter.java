@@ -0,0 +1,150 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.fuin.objects4j.common.Contract;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Streams compare findings to a file with one JSON object per line. Nothing is kept in memory, so the report can be arbitrary large.
+ * Example line: <code>{"type":"SIZE_DIFF","srcFile":"/a/b.txt","destFile":"/c/b.txt","srcSize":3,"destSize":4}</code>. A line diff is
+ * added as array "diff". A cutoff is written as <code>{"type":"CUTOFF","maxFindings":100}</code>.
+ */
+public final class JsonLinesCompareWriter implements CompareListener, Closeable {
+
+    private final File file;
+
+    private final Writer writer;
+
+    /**
+     * Constructor with the file to write. An existing file is overwritten.
+     * 
+     * @param file
+     *            Report file.
+     */
+    public JsonLinesCompareWriter(@NotNull final File file) {
+        super();
+        Contract.requireArgNotNull("file", file);
+        this.file = file;
+        try {
+            final File dir = file.getAbsoluteFile().getParentFile();
+            if (dir != null) {
+                Files.createDirectories(dir.toPath());
+            }
+            this.writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8);
+        } catch (final IOException ex) {
+            throw new RuntimeException("Error creating compare report: " + file, ex);
+        }
+    }
+
+    @Override
+    public void onFinding(final CompareFinding finding) {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("{\"type\":\"").append(finding.getType()).append("\"");
+        sb.append(",\"srcFile\":");
+        quote(sb, finding.getSrcFile());
+        sb.append(",\"destFile\":");
+        quote(sb, finding.getDestFile());
+        if (finding.getSrcSize() != CompareFinding.UNKNOWN_SIZE) {
+            sb.append(",\"srcSize\":").append(finding.getSrcSize());
+        }
+        if (finding.getDestSize() != CompareFinding.UNKNOWN_SIZE) {
+            sb.append(",\"destSize\":").append(finding.getDestSize());
+        }
+        if (!finding.getDiff().isEmpty()) {
+            sb.append(",\"diff\":[");
+            String sep = "";
+            for (final String line : finding.getDiff()) {
+                sb.append(sep);
+                quote(sb, line);
+                sep = ",";
+            }
+            sb.append("]");
+        }
+        sb.append("}");
+        writeLine(sb.toString());
+    }
+
+    @Override
+    public void onCutoff(final int maxFindings) {
+        writeLine("{\"type\":\"CUTOFF\",\"maxFindings\":" + maxFindings + "}");
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void writeLine(final String line) {
+        try {
+            writer.write(line);
+            writer.write('\n');
+        } catch (final IOException ex) {
+            throw new RuntimeException("Error writing compare report: " + file, ex);
+        }
+    }
+
+    private static void quote(final StringBuilder sb, final Path path) {
+        if (path == null) {
+            sb.append("null");
+        } else {
+            quote(sb, path.toString());
+        }
+    }
+
+    private static void quote(final StringBuilder sb, final String str) {
+        sb.append('"');
+        for (int i = 0; i < str.length(); i++) {
+            final char ch = str.charAt(i);
+            switch (ch) {
+            case '"':
+                sb.append("\\\"");
+                break;
+            case '\\':
+                sb.append("\\\\");
+                break;
+            case '\n':
+                sb.append("\\n");
+                break;
+            case '\r':
+                sb.append("\\r");
+                break;
+            case '\t':
+                sb.append("\\t");
+                break;
+            default:
+                if (ch < 0x20) {
+                    sb.append(String.format("\\u%04x", (int) ch));
+                } else {
+                    sb.append(ch);
+                }
+            }
+        }
+        sb.append('"');
+    }
+
+}
@@ -0,0 +1,388 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+import org.fuin.objects4j.common.Contract;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Creates a line based diff of two text files using the Myers algorithm. The files are streamed: Equal lines are skipped while reading
+ * and only a window with a limited number of lines per file is diffed at a time. After each window, the lines up to the last common line
+ * are dropped and the window is refilled. The number of reported hunks is limited and reading stops as soon as the limit is reached. This
+ * keeps the memory bounded also for very large files. Instances are immutable and can be used by multiple threads. <br>
+ * <br>
+ * The result uses a unified diff like format without context lines:
+ * 
+ * <pre>
+ * &#64;&#64; -3,1 +3,2 &#64;&#64;
+ * -old line
+ * +new line
+ * +added line
+ * </pre>
+ */
+public final class LineDiff {
+
+    /** Default maximum number of hunks to report. */
+    public static final int DEFAULT_MAX_HUNKS = 10;
+
+    /** Default number of lines per file that are diffed at once. */
+    public static final int DEFAULT_WINDOW_SIZE = 1000;
+
+    /** Lines longer than this are truncated in the result. */
+    private static final int MAX_LINE_LENGTH = 200;
+
+    private final int maxHunks;
+
+    private final int windowSize;
+
+    /**
+     * Constructor with default values.
+     */
+    public LineDiff() {
+        this(DEFAULT_MAX_HUNKS, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Constructor with all data.
+     * 
+     * @param maxHunks
+     *            Maximum number of hunks to report.
+     * @param windowSize
+     *            Maximum number of lines per file that are diffed at once.
+     */
+    public LineDiff(final int maxHunks, final int windowSize) {
+        super();
+        if (maxHunks < 1) {
+            throw new IllegalArgumentException("The value for 'maxHunks' must be greater than zero, but was: " + maxHunks);
+        }
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("The value for 'windowSize' must be greater than zero, but was: " + windowSize);
+        }
+        this.maxHunks = maxHunks;
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Returns the maximum number of hunks to report.
+     * 
+     * @return Number of hunks.
+     */
+    public int getMaxHunks() {
+        return maxHunks;
+    }
+
+    /**
+     * Returns the maximum number of lines per file that are diffed at once.
+     * 
+     * @return Number of lines.
+     */
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    /**
+     * Creates the diff of two UTF-8 encoded text files. Byte sequences that are not valid UTF-8 (for example in an ISO-8859-1 encoded
+     * file) are replaced with the Unicode replacement character instead of failing.
+     * 
+     * @param file1
+     *            Original file.
+     * @param file2
+     *            Changed file.
+     * 
+     * @return Lines of the diff - Empty if both files have the same lines.
+     * 
+     * @throws IOException
+     *             Error reading one of the files.
+     */
+    public List<String> diff(@NotNull final Path file1, @NotNull final Path file2) throws IOException {
+        Contract.requireArgNotNull("file1", file1);
+        Contract.requireArgNotNull("file2", file2);
+        try (final BufferedReader reader1 = reader(file1); final BufferedReader reader2 = reader(file2)) {
+            return diff(new Window(reader1), new Window(reader2));
+        }
+    }
+
+    private static BufferedReader reader(final Path file) throws IOException {
+        final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder().onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        return new BufferedReader(new InputStreamReader(Files.newInputStream(file), decoder));
+    }
+
+    private List<String> diff(final Window a, final Window b) throws IOException {
+
+        final List<String> result = new ArrayList<>();
+        int hunks = 0;
+        while (true) {
+
+            // Skip common lines
+            while (true) {
+                a.fill(windowSize);
+                b.fill(windowSize);
+                if (a.lines.isEmpty() || b.lines.isEmpty() || !a.lines.peekFirst().equals(b.lines.peekFirst())) {
+                    break;
+                }
+                a.drop(1);
+                b.drop(1);
+            }
+            if (a.lines.isEmpty() && b.lines.isEmpty()) {
+                return result;
+            }
+
+            final List<String> linesA = new ArrayList<>(a.lines);
+            final List<String> linesB = new ArrayList<>(b.lines);
+            List<Op> ops = myers(linesA, linesB, windowSize);
+            if (ops == null) {
+                // Too many differences: Report the complete window as changed
+                ops = replaceAll(linesA.size(), linesB.size());
+            } else if (!a.eof || !b.eof) {
+                // Edits after the last common line may change with the next lines
+                final int lastEqual = lastEqual(ops);
+                if (lastEqual >= 0) {
+                    ops = ops.subList(0, lastEqual + 1);
+                }
+            }
+
+            int idx = 0;
+            int consumedA = 0;
+            int consumedB = 0;
+            while (idx < ops.size()) {
+                if (ops.get(idx).type == Op.EQUAL) {
+                    consumedA++;
+                    consumedB++;
+                    idx++;
+                    continue;
+                }
+                if (hunks == maxHunks) {
+                    result.add("... (more differences not shown)");
+                    return result;
+                }
+                hunks++;
+                final int startA = a.lineNo + consumedA;
+                final int startB = b.lineNo + consumedB;
+                final List<String> hunk = new ArrayList<>();
+                while (idx < ops.size() && ops.get(idx).type != Op.EQUAL) {
+                    final Op op = ops.get(idx);
+                    if (op.type == Op.DELETE) {
+                        hunk.add("-" + truncate(linesA.get(op.index)));
+                        consumedA++;
+                    } else {
+                        hunk.add("+" + truncate(linesB.get(op.index)));
+                        consumedB++;
+                    }
+                    idx++;
+                }
+                result.add("@@ -" + startA + "," + (a.lineNo + consumedA - startA) + " +" + startB + "," + (b.lineNo + consumedB - startB)
+                        + " @@");
+                result.addAll(hunk);
+            }
+            a.drop(consumedA);
+            b.drop(consumedB);
+
+        }
+
+    }
+
+    private static int lastEqual(final List<Op> ops) {
+        for (int i = ops.size() - 1; i >= 0; i--) {
+            if (ops.get(i).type == Op.EQUAL) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static List<Op> replaceAll(final int n, final int m) {
+        final List<Op> ops = new ArrayList<>(n + m);
+        for (int i = 0; i < n; i++) {
+            ops.add(new Op(Op.DELETE, i));
+        }
+        for (int i = 0; i < m; i++) {
+            ops.add(new Op(Op.INSERT, i));
+        }
+        return ops;
+    }
+
+    /**
+     * Calculates the shortest edit script using the Myers algorithm. Only the relevant part of the furthest reaching paths is kept per
+     * step, so the memory is quadratic in the number of edits and not in the number of lines.
+     * 
+     * @param a
+     *            Original lines.
+     * @param b
+     *            Changed lines.
+     * @param maxEdits
+     *            Maximum number of edits before giving up.
+     * 
+     * @return Edit script or {@literal null} if more than the maximum number of edits are required.
+     */
+    static List<Op> myers(final List<String> a, final List<String> b, final int maxEdits) {
+
+        final int n = a.size();
+        final int m = b.size();
+        final int max = Math.min(n + m, maxEdits);
+        final int offset = max + 1;
+        final int[] v = new int[2 * max + 3];
+        final List<int[]> trace = new ArrayList<>();
+
+        for (int d = 0; d <= max; d++) {
+            // Keep the paths of the previous step for k in [-d-1, d+1]
+            final int[] snapshot = new int[2 * d + 3];
+            System.arraycopy(v, offset - d - 1, snapshot, 0, snapshot.length);
+            trace.add(snapshot);
+            for (int k = -d; k <= d; k = k + 2) {
+                int x;
+                if (k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1])) {
+                    x = v[offset + k + 1];
+                } else {
+                    x = v[offset + k - 1] + 1;
+                }
+                int y = x - k;
+                while (x < n && y < m && a.get(x).equals(b.get(y))) {
+                    x++;
+                    y++;
+                }
+                v[offset + k] = x;
+                if (x >= n && y >= m) {
+                    return backtrack(trace, n, m);
+                }
+            }
+        }
+        return null;
+
+    }
+
+    private static List<Op> backtrack(final List<int[]> trace, final int n, final int m) {
+        final List<Op> ops = new ArrayList<>();
+        int x = n;
+        int y = m;
+        for (int d = trace.size() - 1; d >= 0; d--) {
+            final int[] v = trace.get(d);
+            final int k = x - y;
+            final int prevK;
+            if (k == -d || (k != d && v[k - 1 + d + 1] < v[k + 1 + d + 1])) {
+                prevK = k + 1;
+            } else {
+                prevK = k - 1;
+            }
+            final int prevX = v[prevK + d + 1];
+            final int prevY = prevX - prevK;
+            while (x > prevX && y > prevY) {
+                ops.add(new Op(Op.EQUAL, x - 1));
+                x--;
+                y--;
+            }
+            if (d > 0) {
+                if (x == prevX) {
+                    ops.add(new Op(Op.INSERT, y - 1));
+                } else {
+                    ops.add(new Op(Op.DELETE, x - 1));
+                }
+            }
+            x = prevX;
+            y = prevY;
+        }
+        Collections.reverse(ops);
+        return ops;
+    }
+
+    private static String truncate(final String line) {
+        if (line.length() <= MAX_LINE_LENGTH) {
+            return line;
+        }
+        return line.substring(0, MAX_LINE_LENGTH) + "...";
+    }
+
+    /**
+     * Single step of an edit script.
+     */
+    static final class Op {
+
+        static final int EQUAL = 0;
+
+        static final int DELETE = 1;
+
+        static final int INSERT = 2;
+
+        final int type;
+
+        /** Index in the original lines for EQUAL and DELETE or in the changed lines for INSERT. */
+        final int index;
+
+        Op(final int type, final int index) {
+            this.type = type;
+            this.index = index;
+        }
+
+    }
+
+    /**
+     * Lines of a file that are currently diffed.
+     */
+    private static final class Window {
+
+        private final BufferedReader reader;
+
+        private final Deque<String> lines;
+
+        /** Line number of the first line in the window. */
+        private int lineNo;
+
+        private boolean eof;
+
+        Window(final BufferedReader reader) {
+            this.reader = reader;
+            this.lines = new ArrayDeque<>();
+            this.lineNo = 1;
+        }
+
+        void fill(final int size) throws IOException {
+            while (!eof && lines.size() < size) {
+                final String line = reader.readLine();
+                if (line == null) {
+                    eof = true;
+                } else {
+                    lines.addLast(line);
+                }
+            }
+        }
+
+        void drop(final int count) {
+            for (int i = 0; i < count; i++) {
+                lines.removeFirst();
+            }
+            lineNo = lineNo + count;
+        }
+
+    }
+
+}
@@ -18,6 +18,7 @@
 package org.fuin.marchetyper.core;
 
 import java.io.File;
+import java.util.regex.Pattern;
 
 import org.fuin.objects4j.common.Contract;
 import org.fuin.objects4j.common.NotEmpty;
@@ -26,6 +27,7 @@ import org.fuin.objects4j.common.Nullable;
 import jakarta.xml.bind.Unmarshaller;
 import jakarta.xml.bind.annotation.XmlAttribute;
 import jakarta.xml.bind.annotation.XmlRootElement;
+import jakarta.xml.bind.annotation.XmlTransient;
 
 /**
  * Maps a search term to a replace expression.
@@ -45,6 +47,12 @@ public final class Mapping {
     @XmlAttribute(name = "file")
     private String fileExpr;
 
+    @XmlTransient
+    private Pattern pathPattern;
+
+    @XmlTransient
+    private Pattern filePattern;
+
     /**
      * JAXB constructor.
      */
@@ -87,6 +95,7 @@ public final class Mapping {
         this.replace = replace;
         this.pathExpr = pathExpr;
         this.fileExpr = fileExpr;
+        compile();
     }
 
     /**
@@ -153,19 +162,37 @@ public final class Mapping {
      * @return TRUE if the rule matches.
      */
     public final boolean applies(final String defaultRegExFilenameSelector, final File file) {
-        if (fileExpr == null) {
-            if (pathExpr == null) {
-                if (defaultRegExFilenameSelector == null) {
+        if (defaultRegExFilenameSelector == null) {
+            return appliesTo(null, file);
+        }
+        return appliesTo(Pattern.compile(defaultRegExFilenameSelector), file);
+    }
+
+    /**
+     * Verifies if the condition applies for a given file using a precompiled default file name selector.
+     * 
+     * @param defaultFilenameSelector
+     *            Compiled version of the 'defaultRegExFilenameSelector' of {@link #applies(String, File)} or {@literal null}.
+     * @param file
+     *            File name and path to verify the rule against.
+     * 
+     * @return TRUE if the rule matches.
+     */
+    public final boolean appliesTo(final Pattern defaultFilenameSelector, final File file) {
+        if (filePattern == null) {
+            if (pathPattern == null) {
+                if (defaultFilenameSelector == null) {
                     return true;
                 }
-                return file.getName().matches(defaultRegExFilenameSelector);
+                return defaultFilenameSelector.matcher(file.getName()).matches();
             }
-            return file.getPath().replace(File.separatorChar, '/').matches(pathExpr);
+            return pathPattern.matcher(file.getPath().replace(File.separatorChar, '/')).matches();
         }
-        if (pathExpr == null) {
-            return file.getName().matches(fileExpr);
+        if (pathPattern == null) {
+            return filePattern.matcher(file.getName()).matches();
         }
-        return file.getPath().replace(File.separatorChar, '/').matches(pathExpr) && file.getName().matches(fileExpr);
+        return pathPattern.matcher(file.getPath().replace(File.separatorChar, '/')).matches()
+                && filePattern.matcher(file.getName()).matches();
 
     }
 
@@ -181,5 +208,18 @@ public final class Mapping {
         this.replace = replace.replace("\\r", "\r");
         this.replace = replace.replace("\\n", "\n");
         this.replace = replace.replace("\\t", "\t");
+        compile();
+    }
+
+    private void compile() {
+        pathPattern = compile(pathExpr);
+        filePattern = compile(fileExpr);
+    }
+
+    private static Pattern compile(final String regEx) {
+        if (regEx == null) {
+            return null;
+        }
+        return Pattern.compile(regEx);
     }
 }
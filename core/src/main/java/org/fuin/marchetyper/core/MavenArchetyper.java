@@ -17,16 +17,20 @@
  */
 package org.fuin.marchetyper.core;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.Writer;
+import java.io.StringWriter;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.velocity.Template;
@@ -34,10 +38,14 @@ import org.apache.velocity.VelocityContext;
 import org.apache.velocity.app.VelocityEngine;
 import org.apache.velocity.runtime.RuntimeConstants;
 import org.apache.velocity.runtime.resource.loader.ClasspathResourceLoader;
+import org.fuin.marchetyper.core.GenerationMetrics.Phase;
 import org.fuin.objects4j.common.Contract;
+import org.fuin.objects4j.common.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import jakarta.validation.constraints.NotNull;
+
 /**
  * Maven Archtyper console application.
  */
@@ -47,7 +55,9 @@ public final class MavenArchetyper {
 
     private final Config config;
 
-    private final List<Mapping> mappings;
+    private final GenerationOptions options;
+
+    private final GenerationListener listener;
 
     /**
      * Constructor with configuration.
@@ -56,27 +66,100 @@ public final class MavenArchetyper {
      *            Configuration to use.
      */
     public MavenArchetyper(final Config config) {
+        this(config, null);
+    }
+
+    /**
+     * Constructor with configuration and listener.
+     * 
+     * @param config
+     *            Configuration to use.
+     * @param listener
+     *            Listener that is informed about the progress of the generation and may cancel it or {@literal null}.
+     */
+    public MavenArchetyper(@NotNull final Config config, @Nullable final GenerationListener listener) {
+        this(config, config.getGenerationOptions(), listener);
+    }
+
+    /**
+     * Constructor with configuration, options that replace the ones of the configuration and listener.
+     * 
+     * @param config
+     *            Configuration to use.
+     * @param options
+     *            Options that tune the generation.
+     * @param listener
+     *            Listener that is informed about the progress of the generation and may cancel it or {@literal null}.
+     */
+    public MavenArchetyper(@NotNull final Config config, @NotNull final GenerationOptions options,
+            @Nullable final GenerationListener listener) {
         super();
         Contract.requireArgNotNull("config", config);
+        Contract.requireArgNotNull("options", options);
         this.config = config;
-        mappings = new ArrayList<>();
+        this.options = options;
+        this.listener = listener;
+    }
+
+    /**
+     * Creates the list of mappings applied to text files: The default mappings that escape Velocity characters followed by the user
+     * defined ones.
+     * 
+     * @param config
+     *            Configuration with the user defined mappings.
+     * 
+     * @return New list of mappings.
+     */
+    static List<Mapping> mappings(final Config config) {
+        final List<Mapping> mappings = new ArrayList<>();
         // Default mappings
         mappings.add(new Mapping("$", "${symbol_dollar}"));
         mappings.add(new Mapping("\\", "${symbol_escape}"));
         mappings.add(new Mapping("#", "${symbol_pound}"));
         // User defined mappings
         mappings.addAll(config.getFileMappings());
+        return mappings;
     }
 
     /**
-     * Generated the archetype with the given base directory.
+     * Generated the archetype with the given base directory. The destination directory is deleted before, except for the
+     * {@link SyncMode#SYNC} mode.
      *
      * @param baseDir
      *            Base directory.
+     * 
+     * @return Timings and counters of the generation.
      */
-    public void generate(File baseDir) {
+    public GenerationMetrics generate(File baseDir) {
         LOG.info("baseDir: {}", baseDir);
+        final GenerationMetrics.Builder metrics = new GenerationMetrics.Builder();
         final File destDir = config.getDestDir(baseDir);
+        FileCopy.runPhase(Phase.DELETE, listener, metrics, () -> {
+            if (options.getSyncMode() == SyncMode.CLEAN) {
+                deleteDestDir(destDir);
+            }
+        });
+        final File srcDir = config.getSrcDir(baseDir);
+        generate(baseDir, srcDir, destDir, metrics);
+        return build(baseDir, metrics);
+    }
+
+    private GenerationMetrics build(final File baseDir, final GenerationMetrics.Builder metrics) {
+        final GenerationMetrics result = metrics.build();
+        final File metricsFile = options.getMetricsFile(baseDir);
+        if (metricsFile != null) {
+            result.writeJson(metricsFile);
+        }
+        return result;
+    }
+
+    /**
+     * Deletes the destination directory including all content.
+     * 
+     * @param destDir
+     *            Directory to delete.
+     */
+    static void deleteDestDir(final File destDir) {
         try {
             final Path destPath = destDir.toPath();
             if (destPath.getNameCount() < 1) {
@@ -86,8 +169,6 @@ public final class MavenArchetyper {
         } catch (final IOException ex) {
             throw new RuntimeException("Error deleting destination directory " + destDir, ex);
         }
-        final File srcDir = config.getSrcDir(baseDir);
-        generate(baseDir, srcDir, destDir);
     }
 
     /**
@@ -99,17 +180,24 @@ public final class MavenArchetyper {
      *            Source directory.
      * @param destDir
      *            Destination directory.
+     * 
+     * @return Timings and counters of the generation.
      */
-    public void generate(final File baseDir, final File srcDir, final File destDir) {
+    public GenerationMetrics generate(final File baseDir, final File srcDir, final File destDir) {
+        final GenerationMetrics.Builder metrics = new GenerationMetrics.Builder();
+        generate(baseDir, srcDir, destDir, metrics);
+        return build(baseDir, metrics);
+    }
 
-        final File postGenerateFile = config.getPostGenerateFile(baseDir);
+    private void generate(final File baseDir, final File srcDir, final File destDir, final GenerationMetrics.Builder metrics) {
+
+        final CompiledConfig compiledConfig = CompiledConfig.of(config, baseDir);
+        final File postGenerateFile = compiledConfig.getPostGenerateFile();
 
         LOG.info("postGenerateFile: {}", postGenerateFile);
         LOG.info("destDir: {}", destDir);
         LOG.info("srcDir: {}", srcDir);
 
-        copyOrCreatePom(baseDir, destDir);
-
         final File destSrc = new File(destDir, "src");
         final File destSrcMain = new File(destSrc, "main");
         final File destSrcMainResources = new File(destSrcMain, "resources");
@@ -118,37 +206,152 @@ public final class MavenArchetyper {
         final File metaInfMaven = new File(metaInf, "maven");
         final File archetypePostGenerateGroovy = new File(metaInf, "archetype-post-generate.groovy");
 
-        copyPostGenerateFile(postGenerateFile, archetypePostGenerateGroovy);
+        FileCopy.runPhase(Phase.POM, listener, metrics, () -> {
+            copyOrCreatePom(baseDir, destDir);
+            copyPostGenerateFile(postGenerateFile, archetypePostGenerateGroovy);
+        });
+
+        final FileCopy fileCopy = createFileCopy(compiledConfig, srcDir, destDir, archetypeResources, options, metrics, listener);
+        final FileCopyResult result = fileCopy.copy();
+
+        FileCopy.runPhase(Phase.METADATA, listener, metrics,
+                () -> createArchetypeMetadata(destDir, metaInfMaven, config, archetypeResources, result));
+
+        if (options.getSyncMode() == SyncMode.SYNC) {
+            if (postGenerateFile == null) {
+                deleteStaleFiles(destSrc, result, new File(metaInfMaven, "archetype-metadata.xml"));
+            } else {
+                deleteStaleFiles(destSrc, result, new File(metaInfMaven, "archetype-metadata.xml"), archetypePostGenerateGroovy);
+            }
+        }
+
+    }
+
+    /**
+     * Determines what a generation with the given base directory would do without writing anything.
+     *
+     * @param baseDir
+     *            Base directory.
+     * 
+     * @return Plan of the files that would be generated.
+     */
+    public GenerationPlan plan(final File baseDir) {
+        return plan(baseDir, config.getSrcDir(baseDir), config.getDestDir(baseDir));
+    }
+
+    /**
+     * Determines what a generation would do without writing anything. The source directory is walked and filters and path mappings are
+     * applied, but neither the destination directory is touched nor is any file content read.
+     *
+     * @param baseDir
+     *            Base directory.
+     * @param srcDir
+     *            Source directory.
+     * @param destDir
+     *            Destination directory.
+     * 
+     * @return Plan of the files that would be generated.
+     */
+    public GenerationPlan plan(final File baseDir, final File srcDir, final File destDir) {
+
+        LOG.info("destDir: {}", destDir);
+        LOG.info("srcDir: {}", srcDir);
+
+        final File archetypeResources = archetypeResources(destDir);
+        return createFileCopy(CompiledConfig.of(config, baseDir), srcDir, destDir, archetypeResources, options, null, null)
+                .plan();
+
+    }
+
+    /**
+     * Creates the file copy used for the archetype resources.
+     * 
+     * @param baseDir
+     *            Base directory.
+     * @param srcDir
+     *            Source directory.
+     * @param destDir
+     *            Destination directory.
+     * 
+     * @return New file copy instance.
+     */
+    FileCopy createFileCopy(final File baseDir, final File srcDir, final File destDir) {
+        return createFileCopy(CompiledConfig.of(config, baseDir), srcDir, destDir, archetypeResources(destDir), options, null, null);
+    }
+
+    private static FileCopy createFileCopy(final CompiledConfig compiledConfig, final File srcDir, final File destDir,
+            final File archetypeResources, final GenerationOptions options, final GenerationMetrics.Builder metrics,
+            final GenerationListener listener) {
 
-        PathMapper pathMapper = new SimplePathMapper(srcDir, archetypeResources, config.getPathMappings());
-        if (config.isMaskDotFile()) {
+        PathMapper pathMapper = new SimplePathMapper(srcDir, archetypeResources, compiledConfig.getPathMappings());
+        if (compiledConfig.isMaskDotFile()) {
             pathMapper = new DotFileMapper(pathMapper);
         }
 
-        final FileCopy fileCopy = new FileCopy.Builder().srcBaseDir(srcDir).destBaseDir(destDir).pathMapper(pathMapper).fileMatcher(config)
-                .headerProvider(createHeaderProvider(config)).defaultRegExFilenameSelector(config.getTextFiles()).mappings(mappings)
-                .build();
-        final FileCopyResult result = fileCopy.copy();
+        return new FileCopy.Builder().srcBaseDir(srcDir).destBaseDir(destDir).pathMapper(pathMapper).fileMatcher(compiledConfig)
+                .headerProvider(createHeaderProvider(compiledConfig.getHeader()))
+                .defaultFilenameSelector(compiledConfig.getDefaultFilenameSelector()).mappings(compiledConfig.getMappings())
+                .options(options).metrics(metrics).listener(listener).build();
+
+    }
+
+    /**
+     * Deletes all files in a directory that were neither created by a copy nor generated otherwise and all directories that are empty
+     * afterwards.
+     * 
+     * @param dir
+     *            Directory to clean up.
+     * @param result
+     *            Result of the copy with the files to keep.
+     * @param generated
+     *            Other generated files to keep, like the archetype metadata.
+     */
+    static void deleteStaleFiles(final File dir, final FileCopyResult result, final File... generated) {
+        if (!dir.isDirectory()) {
+            return;
+        }
+        final Set<Path> keep = new HashSet<>();
+        for (final File file : generated) {
+            keep.add(file.toPath().toAbsolutePath().normalize());
+        }
+        for (final File file : result.getTextFiles()) {
+            keep.add(file.toPath().toAbsolutePath().normalize());
+        }
+        for (final File file : result.getBinaryFiles()) {
+            keep.add(file.toPath().toAbsolutePath().normalize());
+        }
+        final Path root = dir.toPath().toAbsolutePath().normalize();
+        try (final Stream<Path> paths = Files.walk(root)) {
+            final List<Path> sorted = paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+            for (final Path path : sorted) {
+                if (Files.isDirectory(path)) {
+                    if (!path.equals(root) && isEmpty(path)) {
+                        Files.delete(path);
+                    }
+                } else if (!keep.contains(path)) {
+                    LOG.info("Delete stale file {}", path);
+                    Files.delete(path);
+                }
+            }
+        } catch (final IOException ex) {
+            throw new RuntimeException("Error deleting stale files in " + dir, ex);
+        }
+    }
 
-        createArchetypeMetadata(destDir, metaInfMaven, config, archetypeResources, result);
+    private static boolean isEmpty(final Path dir) throws IOException {
+        try (final Stream<Path> entries = Files.list(dir)) {
+            return !entries.findAny().isPresent();
+        }
+    }
 
+    private static File archetypeResources(final File destDir) {
+        return new File(new File(new File(new File(destDir, "src"), "main"), "resources"), "archetype-resources");
     }
 
-    private static FileCopy.HeaderProvider createHeaderProvider(final Config config) {
+    private static FileCopy.HeaderProvider createHeaderProvider(final String header) {
         return (writer) -> {
             try {
-                writer.write("#set( $symbol_pound = '#' )" + System.lineSeparator());
-                writer.write("#set( $symbol_dollar = '$' )" + System.lineSeparator());
-                writer.write("#set( $symbol_escape = '\\' )" + System.lineSeparator());
-
-                writer.write("#set( $delim = '.,_-/' )" + System.lineSeparator());
-                writer.write("#set( $empty = '' )" + System.lineSeparator());
-                writer.write(
-                        "#set( $StringUtils = $empty.class.forName('org.codehaus.plexus.util.StringUtils') )" + System.lineSeparator());
-                for (Variable v : config.getVariables()) {
-                    writer.write(
-                            "#set( $" + v.getName() + " = " + v.getTransformation().getCode(v.getSource()) + " )" + System.lineSeparator());
-                }
+                writer.write(header);
             } catch (IOException ex) {
                 throw new RuntimeException("Failed to write header", ex);
             }
@@ -156,9 +359,35 @@ public final class MavenArchetyper {
 
     }
 
+    /**
+     * Creates the Velocity header that is inserted at the beginning of every text file.
+     * 
+     * @param config
+     *            Configuration with the variables to define.
+     * 
+     * @return Header text.
+     */
+    static String header(final Config config) {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("#set( $symbol_pound = '#' )" + System.lineSeparator());
+        sb.append("#set( $symbol_dollar = '$' )" + System.lineSeparator());
+        sb.append("#set( $symbol_escape = '\\' )" + System.lineSeparator());
+
+        sb.append("#set( $delim = '.,_-/' )" + System.lineSeparator());
+        sb.append("#set( $empty = '' )" + System.lineSeparator());
+        sb.append("#set( $StringUtils = $empty.class.forName('org.codehaus.plexus.util.StringUtils') )" + System.lineSeparator());
+        for (Variable v : config.getVariables()) {
+            sb.append("#set( $" + v.getName() + " = " + v.getTransformation().getCode(v.getSource()) + " )" + System.lineSeparator());
+        }
+        return sb.toString();
+    }
+
     private void copyPostGenerateFile(File srcFile, File destFile) {
         if (srcFile != null) {
             try {
+                if (options.getSyncMode() == SyncMode.SYNC && destFile.isFile() && FileUtils.contentEquals(srcFile, destFile)) {
+                    return;
+                }
                 FileUtils.copyFile(srcFile, destFile);
             } catch (final IOException ex) {
                 throw new RuntimeException("Failed to copy '" + srcFile + "' to '" + destFile + "'", ex);
@@ -175,7 +404,7 @@ public final class MavenArchetyper {
 
         if (customPomFile == null) {
 
-            final VelocityEngine ve = createVelocityEngine();
+            final VelocityEngine ve = VelocityEngineHolder.ENGINE;
             final VelocityContext context = new VelocityContext();
             context.put("archetype", config.getArchetype());
             context.put("archetypeVersion", version);
@@ -188,7 +417,7 @@ public final class MavenArchetyper {
             try {
                 final String xml = FileUtils.readFileToString(customPomFile, StandardCharsets.UTF_8).replace("((ARCHETYPE_VERSION))",
                         version);
-                FileUtils.write(destPomFile, xml, StandardCharsets.UTF_8);
+                write(destPomFile, xml, StandardCharsets.UTF_8);
             } catch (final IOException ex) {
                 throw new RuntimeException("Error copying custom POM from '" + customPomFile + "' to: " + destPomFile, ex);
             }
@@ -197,43 +426,59 @@ public final class MavenArchetyper {
 
     }
 
+    /**
+     * Creates the 'archetype-metadata.xml' for the given files.
+     * 
+     * @param destDir
+     *            Destination directory.
+     * @param result
+     *            Files in the 'archetype-resources' directory.
+     */
+    void createArchetypeMetadata(final File destDir, final FileCopyResult result) {
+        final File mainResourcesDir = new File(new File(new File(destDir, "src"), "main"), "resources");
+        final File metaInfMaven = new File(new File(mainResourcesDir, "META-INF"), "maven");
+        createArchetypeMetadata(destDir, metaInfMaven, config, archetypeResources(destDir), result);
+    }
+
     private void createArchetypeMetadata(final File destDir, final File metaInfMavenDir, final Config config, final File resourcesDir,
             final FileCopyResult result) {
 
-        final VelocityEngine ve = createVelocityEngine();
+        final VelocityEngine ve = VelocityEngineHolder.ENGINE;
         final VelocityContext context = new VelocityContext();
         context.put("archetype", config.getArchetype());
-        context.put("textFiles", wrap(result.getRelativizedTextFiles(resourcesDir)));
-        context.put("binaryFiles", wrap(result.getRelativizedBinaryFiles(resourcesDir)));
+        context.put("textFiles", wrap(result, resourcesDir, FileType.TEXT));
+        context.put("binaryFiles", wrap(result, resourcesDir, FileType.BINARY));
 
         merge(ve, context, "archetype-metadata.xml", new File(metaInfMavenDir, "archetype-metadata.xml"));
 
     }
 
-    private static void merge(final VelocityEngine ve, final VelocityContext context, final String template, final File file) {
+    private void merge(final VelocityEngine ve, final VelocityContext context, final String template, final File file) {
         try {
-            if (!file.getParentFile().exists()) {
-                file.getParentFile().mkdirs();
-            }
             final Template t = ve.getTemplate(template);
-            try (final Writer writer = new BufferedWriter(new FileWriter(file))) {
-                t.merge(context, writer);
-            }
+            final StringWriter writer = new StringWriter();
+            t.merge(context, writer);
+            write(file, writer.toString(), Charset.defaultCharset());
         } catch (final IOException ex) {
             throw new RuntimeException("Error writing template: " + template, ex);
         }
     }
 
-    private static VelocityEngine createVelocityEngine() {
-        final VelocityEngine ve = new VelocityEngine();
-        ve.setProperty(RuntimeConstants.RESOURCE_LOADER, "classpath");
-        ve.setProperty("classpath.resource.loader.class", ClasspathResourceLoader.class.getName());
-        ve.init();
-        return ve;
+    /**
+     * Writes a generated file. In {@link SyncMode#SYNC} mode an existing file with the same content is left untouched, so it keeps its
+     * timestamp.
+     */
+    private void write(final File file, final String content, final Charset charset) throws IOException {
+        if (options.getSyncMode() == SyncMode.SYNC && file.isFile() && content.equals(FileUtils.readFileToString(file, charset))) {
+            return;
+        }
+        FileUtils.write(file, content, charset);
     }
 
-    private static List<VelocityFileWrapper> wrap(List<File> files) {
-        return files.stream().map(file -> new VelocityFileWrapper(file)).collect(Collectors.toList());
+    private static List<VelocityFileWrapper> wrap(final FileCopyResult result, final File resourcesDir, final FileType type) {
+        final List<VelocityFileWrapper> files = new ArrayList<>(result.getFileCount(type));
+        result.forEachRelative(resourcesDir, type, (dir, name) -> files.add(new VelocityFileWrapper(dir, name)));
+        return files;
     }
 
     /**
@@ -241,7 +486,9 @@ public final class MavenArchetyper {
      */
     public static final class VelocityFileWrapper {
 
-        private final File file;
+        private final String parent;
+
+        private final String name;
 
         /**
          * Constructor with mandatory data.
@@ -250,7 +497,20 @@ public final class MavenArchetyper {
          *            File to wrap.
          */
         public VelocityFileWrapper(File file) {
-            this.file = file;
+            this(file.getParent() == null ? "" : file.getParent().replace(File.separatorChar, '/'), file.getName());
+        }
+
+        /**
+         * Constructor with parent path and filename.
+         * 
+         * @param parent
+         *            Parent path with '/' as separator or an empty string.
+         * @param name
+         *            Filename.
+         */
+        public VelocityFileWrapper(final String parent, final String name) {
+            this.parent = parent;
+            this.name = name;
         }
 
         /**
@@ -259,7 +519,7 @@ public final class MavenArchetyper {
          * @return Filename.
          */
         public String getName() {
-            return file.getName();
+            return name;
         }
 
         /**
@@ -268,10 +528,25 @@ public final class MavenArchetyper {
          * @return Parent path.
          */
         public String getParent() {
-            if (file.getParent() == null) {
-                return "";
-            }
-            return file.getParent().replace(File.separatorChar, '/');
+            return parent;
+        }
+
+    }
+
+    /**
+     * Lazily initialized Velocity engine shared by all instances. An initialized engine is safe for concurrent use and caches the parsed
+     * templates.
+     */
+    private static final class VelocityEngineHolder {
+
+        private static final VelocityEngine ENGINE = create();
+
+        private static VelocityEngine create() {
+            final VelocityEngine ve = new VelocityEngine();
+            ve.setProperty(RuntimeConstants.RESOURCE_LOADER, "classpath");
+            ve.setProperty("classpath.resource.loader.class", ClasspathResourceLoader.class.getName());
+            ve.init();
+            return ve;
         }
 
     }
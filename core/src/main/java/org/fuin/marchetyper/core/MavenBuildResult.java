@@ -0,0 +1,324 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.fuin.objects4j.common.Contract;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Result of a Maven build with the timings parsed from the build output. Timings that Maven did not print are {@link #UNKNOWN_TIME}.
+ */
+public final class MavenBuildResult {
+
+    /** Value of a time that is not known. */
+    public static final long UNKNOWN_TIME = -1;
+
+    private final File baseDir;
+
+    private final int exitCode;
+
+    private final long durationMillis;
+
+    private final long totalTimeMillis;
+
+    private final List<ModuleTiming> moduleTimings;
+
+    private final List<MojoTiming> mojoTimings;
+
+    private final List<String> outputTail;
+
+    /**
+     * Constructor with all data.
+     * 
+     * @param baseDir
+     *            Base directory of the build.
+     * @param exitCode
+     *            Exit code of the Maven process.
+     * @param durationMillis
+     *            Measured duration of the invocation (including the JVM start) in milliseconds.
+     * @param totalTimeMillis
+     *            'Total time' reported by Maven in milliseconds or {@link #UNKNOWN_TIME}.
+     * @param moduleTimings
+     *            Times of the reactor summary.
+     * @param mojoTimings
+     *            Times of the executed mojos.
+     * @param outputTail
+     *            Last lines of the build output.
+     */
+    public MavenBuildResult(@NotNull final File baseDir, final int exitCode, final long durationMillis, final long totalTimeMillis,
+            @NotNull final List<ModuleTiming> moduleTimings, @NotNull final List<MojoTiming> mojoTimings,
+            @NotNull final List<String> outputTail) {
+        super();
+        Contract.requireArgNotNull("baseDir", baseDir);
+        Contract.requireArgNotNull("moduleTimings", moduleTimings);
+        Contract.requireArgNotNull("mojoTimings", mojoTimings);
+        Contract.requireArgNotNull("outputTail", outputTail);
+        this.baseDir = baseDir;
+        this.exitCode = exitCode;
+        this.durationMillis = durationMillis;
+        this.totalTimeMillis = totalTimeMillis;
+        this.moduleTimings = Collections.unmodifiableList(new ArrayList<>(moduleTimings));
+        this.mojoTimings = Collections.unmodifiableList(new ArrayList<>(mojoTimings));
+        this.outputTail = Collections.unmodifiableList(new ArrayList<>(outputTail));
+    }
+
+    /**
+     * Returns the base directory of the build.
+     * 
+     * @return Base directory.
+     */
+    public File getBaseDir() {
+        return baseDir;
+    }
+
+    /**
+     * Returns the exit code of the Maven process.
+     * 
+     * @return Exit code.
+     */
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    /**
+     * Determines if the build succeeded.
+     * 
+     * @return {@literal true} if the exit code is zero.
+     */
+    public boolean isSuccess() {
+        return exitCode == 0;
+    }
+
+    /**
+     * Returns the measured duration of the invocation including the start of the Maven process.
+     * 
+     * @return Duration in milliseconds.
+     */
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * Returns the 'Total time' reported by Maven.
+     * 
+     * @return Time in milliseconds or {@link #UNKNOWN_TIME}.
+     */
+    public long getTotalTimeMillis() {
+        return totalTimeMillis;
+    }
+
+    /**
+     * Returns the times of the reactor summary. Maven only prints a reactor summary for multi module builds.
+     * 
+     * @return Unmodifiable list in reactor order.
+     */
+    public List<ModuleTiming> getModuleTimings() {
+        return moduleTimings;
+    }
+
+    /**
+     * Returns the times of the executed mojos.
+     * 
+     * @return Unmodifiable list in execution order.
+     */
+    public List<MojoTiming> getMojoTimings() {
+        return mojoTimings;
+    }
+
+    /**
+     * Returns the last lines of the build output.
+     * 
+     * @return Unmodifiable list of lines.
+     */
+    public List<String> getOutputTail() {
+        return outputTail;
+    }
+
+    @Override
+    public String toString() {
+        return "MavenBuildResult [baseDir=" + baseDir + ", exitCode=" + exitCode + ", durationMillis=" + durationMillis
+                + ", totalTimeMillis=" + totalTimeMillis + ", modules=" + moduleTimings.size() + ", mojos=" + mojoTimings.size() + "]";
+    }
+
+    /**
+     * Time of a module as reported in the reactor summary.
+     */
+    public static final class ModuleTiming {
+
+        private final String name;
+
+        private final String status;
+
+        private final long millis;
+
+        /**
+         * Constructor with all data.
+         * 
+         * @param name
+         *            Name of the module.
+         * @param status
+         *            Status like 'SUCCESS', 'FAILURE' or 'SKIPPED'.
+         * @param millis
+         *            Time in milliseconds or {@link MavenBuildResult#UNKNOWN_TIME}.
+         */
+        public ModuleTiming(@NotNull final String name, @NotNull final String status, final long millis) {
+            super();
+            Contract.requireArgNotNull("name", name);
+            Contract.requireArgNotNull("status", status);
+            this.name = name;
+            this.status = status;
+            this.millis = millis;
+        }
+
+        /**
+         * Returns the name of the module.
+         * 
+         * @return Name.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the build status of the module.
+         * 
+         * @return Status like 'SUCCESS', 'FAILURE' or 'SKIPPED'.
+         */
+        public String getStatus() {
+            return status;
+        }
+
+        /**
+         * Returns the time of the module.
+         * 
+         * @return Time in milliseconds or {@link MavenBuildResult#UNKNOWN_TIME}.
+         */
+        public long getMillis() {
+            return millis;
+        }
+
+        @Override
+        public String toString() {
+            return name + " " + status + " " + millis + " ms";
+        }
+
+    }
+
+    /**
+     * Time of a mojo execution. Maven does not print mojo times, so this is the time between the start of the mojo and the next mojo,
+     * project or final build message in the output.
+     */
+    public static final class MojoTiming {
+
+        private final String plugin;
+
+        private final String goal;
+
+        private final String executionId;
+
+        private final String module;
+
+        private final long millis;
+
+        /**
+         * Constructor with all data.
+         * 
+         * @param plugin
+         *            Plugin prefix or artifact ID with version.
+         * @param goal
+         *            Goal.
+         * @param executionId
+         *            Execution ID.
+         * @param module
+         *            Artifact ID of the module.
+         * @param millis
+         *            Time in milliseconds.
+         */
+        public MojoTiming(@NotNull final String plugin, @NotNull final String goal, @NotNull final String executionId,
+                @NotNull final String module, final long millis) {
+            super();
+            Contract.requireArgNotNull("plugin", plugin);
+            Contract.requireArgNotNull("goal", goal);
+            Contract.requireArgNotNull("executionId", executionId);
+            Contract.requireArgNotNull("module", module);
+            this.plugin = plugin;
+            this.goal = goal;
+            this.executionId = executionId;
+            this.module = module;
+            this.millis = millis;
+        }
+
+        /**
+         * Returns the plugin.
+         * 
+         * @return Plugin prefix or artifact ID with version, for example 'maven-compiler-plugin:3.11.0'.
+         */
+        public String getPlugin() {
+            return plugin;
+        }
+
+        /**
+         * Returns the goal.
+         * 
+         * @return Goal.
+         */
+        public String getGoal() {
+            return goal;
+        }
+
+        /**
+         * Returns the execution ID.
+         * 
+         * @return Execution ID.
+         */
+        public String getExecutionId() {
+            return executionId;
+        }
+
+        /**
+         * Returns the module the mojo was executed for.
+         * 
+         * @return Artifact ID of the module.
+         */
+        public String getModule() {
+            return module;
+        }
+
+        /**
+         * Returns the time of the mojo execution.
+         * 
+         * @return Time in milliseconds.
+         */
+        public long getMillis() {
+            return millis;
+        }
+
+        @Override
+        public String toString() {
+            return plugin + ":" + goal + " (" + executionId + ") @ " + module + " " + millis + " ms";
+        }
+
+    }
+
+}
@@ -20,6 +20,11 @@ package org.fuin.marchetyper.core;
 import java.io.File;
 import java.util.Arrays;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.apache.maven.shared.invoker.CommandLineConfigurationException;
 import org.apache.maven.shared.invoker.DefaultInvocationRequest;
@@ -34,6 +39,7 @@ import org.fuin.objects4j.common.Contract;
 import org.fuin.objects4j.common.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
 
 import jakarta.validation.constraints.NotNull;
 
@@ -44,11 +50,29 @@ public final class MavenExecutor {
 
     private static final Logger LOG = LoggerFactory.getLogger(MavenExecutor.class);
 
-    private final File baseDir;
+    private static final Pattern VERSION = Pattern.compile("Apache Maven (\\d+)\\.(\\d+)\\S*");
 
-    private final String[] goals;
+    private File baseDir;
 
-    private final Properties properties;
+    private String[] goals;
+
+    private Properties properties;
+
+    private boolean offline;
+
+    private File localRepository;
+
+    private File localRepositoryTail;
+
+    private int outputTailLines;
+
+    private Level outputLevel;
+
+    private MavenExecutor() {
+        super();
+        this.outputTailLines = MavenOutputHandler.DEFAULT_TAIL_LINES;
+        this.outputLevel = Level.INFO;
+    }
 
     /**
      * Constructor with all mandatory data.
@@ -79,34 +103,153 @@ public final class MavenExecutor {
         this.baseDir = baseDir;
         this.goals = goals;
         this.properties = properties;
+        this.outputTailLines = MavenOutputHandler.DEFAULT_TAIL_LINES;
+        this.outputLevel = Level.INFO;
     }
 
     /**
-     * Runs the build.
+     * Runs the build. Start and end of the build are logged with level INFO and the output of Maven with the configured output level. The
+     * last lines of the output are added to the exception message if the build fails.
+     * 
+     * @return Result with the timings of the build.
      */
-    public void execute() {
+    public MavenBuildResult execute() {
 
         try {
 
             final InvocationRequest request = new DefaultInvocationRequest();
             request.setBaseDirectory(baseDir);
             request.setGoals(Arrays.asList(goals));
+            request.setOffline(offline);
+            if (localRepository != null) {
+                request.setLocalRepositoryDirectory(localRepository);
+            }
+            final Properties props = new Properties();
             if (properties != null) {
-                request.setProperties(properties);
+                props.putAll(properties);
+            }
+            if (localRepositoryTail != null) {
+                props.setProperty("maven.repo.local.tail", localRepositoryTail.getAbsolutePath());
+            }
+            if (!props.isEmpty()) {
+                request.setProperties(props);
             }
+            final MavenOutputHandler handler = new MavenOutputHandler(outputTailLines, outputLevel);
+            request.setOutputHandler(handler);
+            request.setErrorHandler(handler);
             log(request);
+            LOG.info("Running Maven {} in {}", String.join(" ", goals), baseDir);
 
+            final MavenInvocationEvent event = new MavenInvocationEvent();
+            event.begin();
+            final long start = System.nanoTime();
             final Invoker invoker = new DefaultInvoker();
-            final InvocationResult result = invoker.execute(request);
-            if (result.getExitCode() != 0) {
-                throw new IllegalStateException("Build failed.");
+            final InvocationResult invocationResult = invoker.execute(request);
+            event.end();
+            if (event.shouldCommit()) {
+                event.baseDir = baseDir.getPath();
+                event.goals = String.join(" ", goals);
+                event.offline = offline;
+                event.exitCode = invocationResult.getExitCode();
+                event.commit();
             }
+            final MavenBuildResult result = handler.toResult(baseDir, invocationResult.getExitCode(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            LOG.debug("{}", result);
+            if (!result.isSuccess()) {
+                LOG.error("Maven build failed with exit code {} after {} ms: {}", result.getExitCode(), result.getDurationMillis(),
+                        baseDir);
+                throw new IllegalStateException("Build failed with exit code " + result.getExitCode() + ": " + baseDir
+                        + System.lineSeparator() + String.join(System.lineSeparator(), result.getOutputTail()));
+            }
+            LOG.info("Maven build succeeded after {} ms: {}", result.getDurationMillis(), baseDir);
+            return result;
 
         } catch (final MavenInvocationException ex) {
             throw new RuntimeException("Failure executing the archetype test", ex);
         }
     }
 
+    /**
+     * Runs the build asynchronously. Every build is a separate Maven process, so multiple builds can run concurrently as long as they
+     * don't share a working directory or a writable local repository.
+     * 
+     * @param executor
+     *            Executor that waits for the Maven process to finish.
+     * 
+     * @return Future that completes with the result if the build succeeded or completes exceptionally if the build failed.
+     */
+    public CompletableFuture<MavenBuildResult> executeAsync(@NotNull final Executor executor) {
+        Contract.requireArgNotNull("executor", executor);
+        return CompletableFuture.supplyAsync(this::execute, executor);
+    }
+
+    /**
+     * Creates a runner that starts a separate Maven process for every build.
+     * 
+     * @param offline
+     *            {@literal true} to never access remote repositories.
+     * @param localRepositoryTail
+     *            Read-only local repository that is shared by all builds or {@literal null}.
+     * 
+     * @return New runner.
+     * 
+     * @throws IllegalStateException
+     *             A local repository tail is set, but the installed Maven is older than 3.9 and would silently ignore it.
+     */
+    public static MavenRunner runner(final boolean offline, @Nullable final File localRepositoryTail) {
+        if (localRepositoryTail != null) {
+            final String version = mavenVersion();
+            if (!isAtLeast(version, 3, 9)) {
+                throw new IllegalStateException(
+                        "A shared local repository ('maven.repo.local.tail') requires Maven 3.9 or later, but found: " + version);
+            }
+        }
+        return (baseDir, localRepository, properties, goals) -> new MavenExecutor.Builder().baseDir(baseDir).properties(properties)
+                .goals(goals).offline(offline).localRepository(localRepository).localRepositoryTail(localRepositoryTail).build()
+                .execute();
+    }
+
+    /**
+     * Returns the version of the Maven installation used by the invoker by running 'mvn --version'.
+     * 
+     * @return Version line, for example 'Apache Maven 3.9.5 (...)' or the last output line if the version is unknown.
+     */
+    static String mavenVersion() {
+        final File dir = new File(System.getProperty("java.io.tmpdir"));
+        final MavenBuildResult result = new MavenExecutor.Builder().baseDir(dir).goals("--version").outputLevel(Level.DEBUG).build()
+                .execute();
+        for (final String line : result.getOutputTail()) {
+            if (VERSION.matcher(line).find()) {
+                return line;
+            }
+        }
+        final int size = result.getOutputTail().size();
+        return size == 0 ? "unknown" : result.getOutputTail().get(size - 1);
+    }
+
+    /**
+     * Determines if a Maven version line has at least the given version.
+     * 
+     * @param version
+     *            Version line as printed by 'mvn --version'.
+     * @param major
+     *            Minimum major version.
+     * @param minor
+     *            Minimum minor version.
+     * 
+     * @return {@literal true} if the version is equal to or greater than the minimum.
+     */
+    static boolean isAtLeast(final String version, final int major, final int minor) {
+        final Matcher matcher = VERSION.matcher(version);
+        if (!matcher.find()) {
+            return false;
+        }
+        final int actualMajor = Integer.parseInt(matcher.group(1));
+        final int actualMinor = Integer.parseInt(matcher.group(2));
+        return actualMajor > major || (actualMajor == major && actualMinor >= minor);
+    }
+
     private void log(final InvocationRequest request) {
         try {
             final MavenCommandLineBuilder builder = new MavenCommandLineBuilder();
@@ -125,4 +268,151 @@ public final class MavenExecutor {
         return replaced;
     }
 
+    /**
+     * Builds an instance of the outer class.
+     */
+    public static final class Builder {
+
+        private MavenExecutor delegate;
+
+        /**
+         * Default constructor.
+         */
+        public Builder() {
+            delegate = new MavenExecutor();
+        }
+
+        /**
+         * Sets the base directory (working directory of the build).
+         * 
+         * @param baseDir
+         *            Base directory.
+         * 
+         * @return The builder.
+         */
+        public Builder baseDir(final File baseDir) {
+            delegate.baseDir = baseDir;
+            return this;
+        }
+
+        /**
+         * Sets the goals to execute.
+         * 
+         * @param goals
+         *            Goals.
+         * 
+         * @return The builder.
+         */
+        public Builder goals(final String... goals) {
+            delegate.goals = goals;
+            return this;
+        }
+
+        /**
+         * Sets the properties passed as '-D' arguments.
+         * 
+         * @param properties
+         *            Arguments or {@literal null}.
+         * 
+         * @return The builder.
+         */
+        public Builder properties(final Properties properties) {
+            delegate.properties = properties;
+            return this;
+        }
+
+        /**
+         * Determines if Maven runs in offline mode. Default is {@literal false}.
+         * 
+         * @param offline
+         *            {@literal true} to never access remote repositories.
+         * 
+         * @return The builder.
+         */
+        public Builder offline(final boolean offline) {
+            delegate.offline = offline;
+            return this;
+        }
+
+        /**
+         * Sets the local repository the build writes to. Default is {@literal null} (the one from the Maven settings).
+         * 
+         * @param localRepository
+         *            Local repository directory or {@literal null}.
+         * 
+         * @return The builder.
+         */
+        public Builder localRepository(final File localRepository) {
+            delegate.localRepository = localRepository;
+            return this;
+        }
+
+        /**
+         * Sets a local repository that is only read if an artifact is not found in the local repository ('maven.repo.local.tail'). This
+         * allows sharing a pre-seeded repository between concurrent builds without any writes to it. Requires Maven 3.9 or later. Default
+         * is {@literal null} (no tail).
+         * 
+         * @param localRepositoryTail
+         *            Read-only local repository directory or {@literal null}.
+         * 
+         * @return The builder.
+         */
+        public Builder localRepositoryTail(final File localRepositoryTail) {
+            delegate.localRepositoryTail = localRepositoryTail;
+            return this;
+        }
+
+        /**
+         * Sets the number of output lines kept for the failure message. Default is {@link MavenOutputHandler#DEFAULT_TAIL_LINES}.
+         * 
+         * @param outputTailLines
+         *            Number of lines.
+         * 
+         * @return The builder.
+         */
+        public Builder outputTailLines(final int outputTailLines) {
+            delegate.outputTailLines = outputTailLines;
+            return this;
+        }
+
+        /**
+         * Sets the level used to log the output of Maven. Default is {@link Level#INFO}, for example {@link Level#DEBUG} keeps successful
+         * builds quiet.
+         * 
+         * @param outputLevel
+         *            Log level.
+         * 
+         * @return The builder.
+         */
+        public Builder outputLevel(final Level outputLevel) {
+            delegate.outputLevel = outputLevel;
+            return this;
+        }
+
+        /**
+         * Builds a new instance of the outer class.
+         * 
+         * @return The new instance.
+         */
+        public MavenExecutor build() {
+            if (delegate.baseDir == null) {
+                throw new IllegalStateException("It's mandatory to set a value for 'baseDir'");
+            }
+            if (delegate.goals == null || delegate.goals.length == 0) {
+                throw new IllegalStateException("It's mandatory to set a value for 'goals'");
+            }
+            if (delegate.outputLevel == null) {
+                throw new IllegalStateException("It's mandatory to set a value for 'outputLevel'");
+            }
+            if (delegate.outputTailLines < 1) {
+                throw new IllegalStateException(
+                        "The value for 'outputTailLines' must be greater than zero, but was: " + delegate.outputTailLines);
+            }
+            final MavenExecutor tmp = delegate;
+            delegate = new MavenExecutor();
+            return tmp;
+        }
+
+    }
+
 }
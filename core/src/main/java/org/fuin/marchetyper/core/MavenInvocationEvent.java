@@ -0,0 +1,48 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for a Maven build executed by {@link MavenExecutor}. The fields are only set if the event is recorded.
+ */
+@Name("org.fuin.marchetyper.MavenInvocation")
+@Label("Maven Invocation")
+@Category("Marchetyper")
+@Description("Maven build executed in a separate process")
+@StackTrace(false)
+final class MavenInvocationEvent extends jdk.jfr.Event {
+
+    @Label("Base Directory")
+    String baseDir;
+
+    @Label("Goals")
+    String goals;
+
+    @Label("Offline")
+    boolean offline;
+
+    @Label("Exit Code")
+    int exitCode;
+
+}
@@ -0,0 +1,258 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.maven.shared.invoker.InvocationOutputHandler;
+import org.fuin.marchetyper.core.MavenBuildResult.ModuleTiming;
+import org.fuin.marchetyper.core.MavenBuildResult.MojoTiming;
+import org.fuin.objects4j.common.Contract;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+
+/**
+ * Receives the output of a Maven invocation line by line. Every line is forwarded to the logger (with level INFO by default), the last
+ * lines are kept in a ring buffer for failure diagnostics and reactor, total and mojo times are parsed from the output. The same instance
+ * may be used as output and as error handler. <br>
+ * <br>
+ * Mojo times are measured as the time between two '---' banner lines. In a parallel build ('-T') the banners of different modules are
+ * interleaved, so no mojo times are reported for such a build. Module and total times are taken from the reactor summary and are
+ * available in both cases. Times may be printed with a locale specific decimal separator like '1,234 s'.
+ */
+public final class MavenOutputHandler implements InvocationOutputHandler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MavenOutputHandler.class);
+
+    /** Default number of lines kept in the ring buffer. */
+    public static final int DEFAULT_TAIL_LINES = 200;
+
+    private static final Pattern ANSI = Pattern.compile("\u001B\\[[;\\d]*m");
+
+    private static final Pattern MOJO = Pattern.compile("--- (\\S+):(\\S+) \\((\\S+)\\) @ (\\S+) ---");
+
+    private static final Pattern PROJECT = Pattern.compile("-+< \\S+ >-+");
+
+    private static final Pattern MODULE = Pattern.compile("^\\[INFO\\] (.+?) \\.+ (SUCCESS|FAILURE|SKIPPED)(?: \\[\\s*(.+?)\\])?$");
+
+    private static final Pattern TOTAL_TIME = Pattern.compile("^\\[INFO\\] Total time:\\s+(.+?)(?: \\(Wall Clock\\))?$");
+
+    private static final Pattern SECONDS = Pattern.compile("(\\d+(?:[.,]\\d+)?) s");
+
+    private static final Pattern MINUTES = Pattern.compile("(\\d+):(\\d+) min");
+
+    private static final Pattern HOURS = Pattern.compile("(\\d+):(\\d+) h");
+
+    private static final String MULTI_THREADED = "Using the MultiThreadedBuilder implementation";
+
+    private final int tailLines;
+
+    private final Level level;
+
+    private final LongSupplier clock;
+
+    private final Deque<String> tail;
+
+    private final List<ModuleTiming> moduleTimings;
+
+    private final List<MojoTiming> mojoTimings;
+
+    private long totalTimeMillis;
+
+    private Matcher runningMojo;
+
+    private long runningMojoStart;
+
+    private boolean parallel;
+
+    /**
+     * Constructor with the default number of lines to keep.
+     */
+    public MavenOutputHandler() {
+        this(DEFAULT_TAIL_LINES);
+    }
+
+    /**
+     * Constructor with the number of lines to keep.
+     * 
+     * @param tailLines
+     *            Maximum number of lines kept in the ring buffer.
+     */
+    public MavenOutputHandler(final int tailLines) {
+        this(tailLines, Level.INFO);
+    }
+
+    /**
+     * Constructor with the number of lines to keep and the level to log the lines with.
+     * 
+     * @param tailLines
+     *            Maximum number of lines kept in the ring buffer.
+     * @param level
+     *            Level used to log the output lines.
+     */
+    public MavenOutputHandler(final int tailLines, final Level level) {
+        this(tailLines, level, System::nanoTime);
+    }
+
+    /**
+     * Constructor with a clock for tests.
+     * 
+     * @param tailLines
+     *            Maximum number of lines kept in the ring buffer.
+     * @param level
+     *            Level used to log the output lines.
+     * @param clock
+     *            Returns the current time in nanoseconds.
+     */
+    MavenOutputHandler(final int tailLines, final Level level, final LongSupplier clock) {
+        super();
+        if (tailLines < 1) {
+            throw new IllegalArgumentException("The argument 'tailLines' must be greater than zero, but was: " + tailLines);
+        }
+        Contract.requireArgNotNull("level", level);
+        this.tailLines = tailLines;
+        this.level = level;
+        this.clock = clock;
+        this.tail = new ArrayDeque<>(tailLines);
+        this.moduleTimings = new ArrayList<>();
+        this.mojoTimings = new ArrayList<>();
+        this.totalTimeMillis = MavenBuildResult.UNKNOWN_TIME;
+    }
+
+    @Override
+    public void consumeLine(final String rawLine) {
+        if (rawLine == null) {
+            return;
+        }
+        final String line = ANSI.matcher(rawLine).replaceAll("");
+        LOG.atLevel(level).log(line);
+        final long now = clock.getAsLong();
+        synchronized (this) {
+            if (tail.size() == tailLines) {
+                tail.removeFirst();
+            }
+            tail.addLast(line);
+            parse(line, now);
+        }
+    }
+
+    private void parse(final String line, final long now) {
+        if (line.contains(MULTI_THREADED)) {
+            // Banners of different modules are interleaved: Mojo times would be wrong
+            parallel = true;
+            runningMojo = null;
+            return;
+        }
+        final Matcher mojo = MOJO.matcher(line);
+        if (mojo.find()) {
+            if (!parallel) {
+                finishMojo(now);
+                runningMojo = mojo;
+                runningMojoStart = now;
+            }
+            return;
+        }
+        if (PROJECT.matcher(line).find() || line.contains("BUILD SUCCESS") || line.contains("BUILD FAILURE")
+                || line.contains("Reactor Summary")) {
+            finishMojo(now);
+            return;
+        }
+        final Matcher module = MODULE.matcher(line);
+        if (module.matches()) {
+            moduleTimings.add(new ModuleTiming(module.group(1), module.group(2), parseTime(module.group(3))));
+            return;
+        }
+        final Matcher totalTime = TOTAL_TIME.matcher(line);
+        if (totalTime.matches()) {
+            totalTimeMillis = parseTime(totalTime.group(1));
+        }
+    }
+
+    private void finishMojo(final long now) {
+        if (runningMojo != null) {
+            mojoTimings.add(new MojoTiming(runningMojo.group(1), runningMojo.group(2), runningMojo.group(3), runningMojo.group(4),
+                    TimeUnit.NANOSECONDS.toMillis(now - runningMojoStart)));
+            runningMojo = null;
+        }
+    }
+
+    /**
+     * Returns the last lines of the output.
+     * 
+     * @return Copy of the ring buffer.
+     */
+    public synchronized List<String> getTail() {
+        return new ArrayList<>(tail);
+    }
+
+    /**
+     * Creates the result of the build. A mojo that is still running is finished with the current time.
+     * 
+     * @param baseDir
+     *            Base directory of the build.
+     * @param exitCode
+     *            Exit code of the Maven process.
+     * @param durationMillis
+     *            Measured duration of the invocation in milliseconds.
+     * 
+     * @return New result.
+     */
+    public synchronized MavenBuildResult toResult(final File baseDir, final int exitCode, final long durationMillis) {
+        finishMojo(clock.getAsLong());
+        return new MavenBuildResult(baseDir, exitCode, durationMillis, totalTimeMillis, moduleTimings, mojoTimings, getTail());
+    }
+
+    /**
+     * Parses a time as printed by Maven, for example '1.234 s' (or '1,234 s' depending on the locale), '01:02 min' or '01:02 h'.
+     * 
+     * @param str
+     *            Text to parse or {@literal null}.
+     * 
+     * @return Time in milliseconds or {@link MavenBuildResult#UNKNOWN_TIME} if the text is not a known time format.
+     */
+    static long parseTime(final String str) {
+        if (str == null) {
+            return MavenBuildResult.UNKNOWN_TIME;
+        }
+        final String time = str.trim();
+        final Matcher seconds = SECONDS.matcher(time);
+        if (seconds.matches()) {
+            return Math.round(Double.parseDouble(seconds.group(1).replace(',', '.')) * 1000);
+        }
+        final Matcher minutes = MINUTES.matcher(time);
+        if (minutes.matches()) {
+            return TimeUnit.MINUTES.toMillis(Long.parseLong(minutes.group(1)))
+                    + TimeUnit.SECONDS.toMillis(Long.parseLong(minutes.group(2)));
+        }
+        final Matcher hours = HOURS.matcher(time);
+        if (hours.matches()) {
+            return TimeUnit.HOURS.toMillis(Long.parseLong(hours.group(1))) + TimeUnit.MINUTES.toMillis(Long.parseLong(hours.group(2)));
+        }
+        return MavenBuildResult.UNKNOWN_TIME;
+    }
+
+}
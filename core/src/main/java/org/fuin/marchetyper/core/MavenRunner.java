@@ -0,0 +1,49 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+import java.io.File;
+import java.util.Properties;
+
+/**
+ * Runs Maven builds for the {@link ArchetypeMatrix}. Implementations decide how Maven is executed, for example as a separate process
+ * ({@link MavenExecutor#runner(boolean, File)}) or inside the current JVM ({@link EmbeddedMavenExecutor}). A runner may be called by
+ * multiple threads at the same time, but never twice for the same working directory or local repository.
+ */
+public interface MavenRunner {
+
+    /**
+     * Runs a build and waits until it is finished.
+     * 
+     * @param baseDir
+     *            Working directory of the build.
+     * @param localRepository
+     *            Local repository the build writes to.
+     * @param properties
+     *            User properties passed as '-D' arguments or {@literal null}.
+     * @param goals
+     *            Goals to execute.
+     * 
+     * @return Result of the successful build.
+     * 
+     * @throws IllegalStateException
+     *             The build failed.
+     */
+    public MavenBuildResult run(File baseDir, File localRepository, Properties properties, String... goals);
+
+}
@@ -0,0 +1,338 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compact storage for a large number of file paths. Every path segment is stored once per directory as a node that only knows it's
+ * parent, and equal segment names share the same string instance. After {@link #freeze()} the children of each node are linked in the
+ * order of their names, the lookup structures used while adding are released and no further paths can be added.
+ */
+final class PathTrie {
+
+    private static final int ROOT = 0;
+
+    private static final int NONE = -1;
+
+    private String[] names;
+
+    private int[] parents;
+
+    private int size;
+
+    private int[] firstChild;
+
+    private int[] nextSibling;
+
+    private int[] ranks;
+
+    private Map<Key, Integer> index;
+
+    private Map<String, String> segments;
+
+    /**
+     * Default constructor.
+     */
+    PathTrie() {
+        super();
+        names = new String[64];
+        parents = new int[64];
+        names[ROOT] = "";
+        parents[ROOT] = NONE;
+        size = 1;
+        index = new HashMap<>();
+        segments = new HashMap<>();
+    }
+
+    /**
+     * Adds a file. The path is made absolute and normalized, but symbolic links are not resolved.
+     * 
+     * @param file
+     *            File to add.
+     * 
+     * @return Node of the file.
+     */
+    int add(final File file) {
+        if (index == null) {
+            throw new IllegalStateException("No paths can be added after the trie was frozen");
+        }
+        final Path path = file.toPath().toAbsolutePath().normalize();
+        int node = child(ROOT, path.getRoot().toString());
+        for (final Path name : path) {
+            node = child(node, name.toString());
+        }
+        return node;
+    }
+
+    private int child(final int parent, final String name) {
+        final Key key = new Key(parent, name);
+        final Integer existing = index.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+            parents = Arrays.copyOf(parents, size * 2);
+        }
+        final int node = size++;
+        names[node] = segments.computeIfAbsent(name, (n) -> n);
+        parents[node] = parent;
+        index.put(new Key(parent, names[node]), node);
+        return node;
+    }
+
+    /**
+     * Links the children of every node sorted by name, determines the rank of each node in a depth first traversal and releases the
+     * structures only required for adding paths.
+     */
+    void freeze() {
+        if (index == null) {
+            return;
+        }
+        index = null;
+        segments = null;
+        names = Arrays.copyOf(names, size);
+        parents = Arrays.copyOf(parents, size);
+
+        final Integer[] sorted = new Integer[size - 1];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = i + 1;
+        }
+        Arrays.sort(sorted, (a, b) -> {
+            final int result = Integer.compare(parents[a], parents[b]);
+            if (result != 0) {
+                return result;
+            }
+            return names[a].compareTo(names[b]);
+        });
+        firstChild = new int[size];
+        nextSibling = new int[size];
+        Arrays.fill(firstChild, NONE);
+        Arrays.fill(nextSibling, NONE);
+        int previous = NONE;
+        for (final int node : sorted) {
+            if (previous != NONE && parents[previous] == parents[node]) {
+                nextSibling[previous] = node;
+            } else {
+                firstChild[parents[node]] = node;
+            }
+            previous = node;
+        }
+
+        ranks = new int[size];
+        final int[] stack = new int[size];
+        int top = 0;
+        int rank = 0;
+        stack[top++] = ROOT;
+        while (top > 0) {
+            final int node = stack[--top];
+            ranks[node] = rank++;
+            // Push the children in reverse order, so the first child is visited next
+            final int start = top;
+            for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+                stack[top++] = child;
+            }
+            for (int i = start, j = top - 1; i < j; i++, j--) {
+                final int tmp = stack[i];
+                stack[i] = stack[j];
+                stack[j] = tmp;
+            }
+        }
+    }
+
+    /**
+     * Sorts nodes by their path. Siblings are ordered by name and a directory comes before it's content.
+     * 
+     * @param nodes
+     *            Nodes to sort.
+     * @param count
+     *            Number of nodes in the array to sort.
+     */
+    void sort(final int[] nodes, final int count) {
+        requireFrozen();
+        final int[] nodeAtRank = new int[size];
+        for (int node = 0; node < size; node++) {
+            nodeAtRank[ranks[node]] = node;
+        }
+        for (int i = 0; i < count; i++) {
+            nodes[i] = ranks[nodes[i]];
+        }
+        Arrays.sort(nodes, 0, count);
+        for (int i = 0; i < count; i++) {
+            nodes[i] = nodeAtRank[nodes[i]];
+        }
+    }
+
+    /**
+     * Finds the node of a directory or file.
+     * 
+     * @param file
+     *            File to find. The path is made absolute and normalized.
+     * 
+     * @return Node or a negative value if the path is unknown.
+     */
+    int find(final File file) {
+        requireFrozen();
+        final Path path = file.toPath().toAbsolutePath().normalize();
+        int node = findChild(ROOT, path.getRoot().toString());
+        for (final Path name : path) {
+            if (node == NONE) {
+                return NONE;
+            }
+            node = findChild(node, name.toString());
+        }
+        return node;
+    }
+
+    private int findChild(final int parent, final String name) {
+        for (int child = firstChild[parent]; child != NONE; child = nextSibling[child]) {
+            if (names[child].equals(name)) {
+                return child;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Returns the name of a node.
+     * 
+     * @param node
+     *            Node.
+     * 
+     * @return Last segment of the path.
+     */
+    String getName(final int node) {
+        return names[node];
+    }
+
+    /**
+     * Returns the parent of a node.
+     * 
+     * @param node
+     *            Node.
+     * 
+     * @return Parent node or a negative value for the root of a file system.
+     */
+    int getParent(final int node) {
+        final int parent = parents[node];
+        if (parent == ROOT) {
+            return NONE;
+        }
+        return parent;
+    }
+
+    /**
+     * Returns the path of a node relative to one of it's parent directories.
+     * 
+     * @param node
+     *            Node.
+     * @param baseNode
+     *            Parent directory.
+     * @param separator
+     *            Separator to use between the segments.
+     * 
+     * @return Relative path or {@literal null} if the base node is not a parent of the node.
+     */
+    String relativize(final int node, final int baseNode, final char separator) {
+        if (node == baseNode) {
+            return "";
+        }
+        final StringBuilder sb = new StringBuilder(names[node]);
+        int current = parents[node];
+        while (current != baseNode) {
+            if (current == ROOT || current == NONE) {
+                return null;
+            }
+            sb.insert(0, separator).insert(0, names[current]);
+            current = parents[current];
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Creates the file for a node.
+     * 
+     * @param node
+     *            Node.
+     * 
+     * @return Absolute file.
+     */
+    File toFile(final int node) {
+        int depth = 0;
+        for (int current = node; current != ROOT; current = parents[current]) {
+            depth++;
+        }
+        final String[] path = new String[depth];
+        for (int current = node, i = depth - 1; current != ROOT; current = parents[current], i--) {
+            path[i] = names[current];
+        }
+        final StringBuilder sb = new StringBuilder(path[0]);
+        for (int i = 1; i < path.length; i++) {
+            if (i > 1) {
+                sb.append(File.separatorChar);
+            }
+            sb.append(path[i]);
+        }
+        return new File(sb.toString());
+    }
+
+    private void requireFrozen() {
+        if (index != null) {
+            throw new IllegalStateException("The trie must be frozen before it can be queried");
+        }
+    }
+
+    /**
+     * Key to lookup a child of a node while adding paths.
+     */
+    private static final class Key {
+
+        private final int parent;
+
+        private final String name;
+
+        Key(final int parent, final String name) {
+            this.parent = parent;
+            this.name = name;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * parent + name.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return parent == other.parent && name.equals(other.name);
+        }
+
+    }
+
+}
@@ -0,0 +1,69 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for a phase of the archetype generation. Creating the event is cheap and nothing is recorded as long as the
+ * event is not enabled in a running recording.
+ */
+@Name("org.fuin.marchetyper.Phase")
+@Label("Generation Phase")
+@Category("Marchetyper")
+@Description("Phase of the archetype generation")
+@StackTrace(false)
+final class PhaseEvent extends jdk.jfr.Event {
+
+    @Label("Phase")
+    String phase;
+
+    /**
+     * Creates and begins an event.
+     * 
+     * @param phase
+     *            Phase that starts.
+     * 
+     * @return Started event - Call {@link #end(PhaseEvent)} when the phase is finished.
+     */
+    static PhaseEvent begin(final GenerationMetrics.Phase phase) {
+        final PhaseEvent event = new PhaseEvent();
+        if (event.isEnabled()) {
+            event.phase = phase.name();
+            event.begin();
+        }
+        return event;
+    }
+
+    /**
+     * Ends and records an event if the recording requires it.
+     * 
+     * @param event
+     *            Event returned by {@link #begin(GenerationMetrics.Phase)}.
+     */
+    static void end(final PhaseEvent event) {
+        if (event.shouldCommit()) {
+            event.commit();
+        }
+    }
+
+}
@@ -0,0 +1,164 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.fuin.objects4j.common.Contract;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Reads the version of a Maven POM. The POM is streamed and only read until the project version is found, so the rest of the model is
+ * never built. Results are cached per JVM by the canonical path of the file and only reused as long as size and last modification time of
+ * the file are unchanged.
+ */
+public final class PomVersionResolver {
+
+    private static final XMLInputFactory FACTORY = createFactory();
+
+    private static final Map<String, Entry> CACHE = new ConcurrentHashMap<>();
+
+    private PomVersionResolver() {
+        super();
+    }
+
+    /**
+     * Returns the version of the project or the version of the parent if the project has no version.
+     * 
+     * @param pomFile
+     *            POM file to read.
+     * 
+     * @return Version.
+     */
+    public static String resolve(@NotNull final File pomFile) {
+        Contract.requireArgNotNull("pomFile", pomFile);
+        final File file = canonical(pomFile);
+        final long lastModified = file.lastModified();
+        final long size = file.length();
+        final String key = file.getPath();
+        final Entry cached = CACHE.get(key);
+        if (cached != null && cached.lastModified == lastModified && cached.size == size) {
+            return cached.version;
+        }
+        final String version = readVersion(file);
+        CACHE.put(key, new Entry(lastModified, size, version));
+        return version;
+    }
+
+    /**
+     * Removes all cached versions.
+     */
+    public static void clearCache() {
+        CACHE.clear();
+    }
+
+    private static String readVersion(final File pomFile) {
+        final String version = parse(pomFile);
+        if (version == null) {
+            throw new IllegalStateException("Version not available: " + pomFile);
+        }
+        if (version.contains("${")) {
+            throw new IllegalStateException("Version with variable is not supported: '" + version + "' (" + pomFile + ")");
+        }
+        return version;
+    }
+
+    private static String parse(final File pomFile) {
+        try (final InputStream in = Files.newInputStream(pomFile.toPath())) {
+            final XMLStreamReader reader = FACTORY.createXMLStreamReader(in);
+            try {
+                String parentVersion = null;
+                boolean inParent = false;
+                int depth = 0;
+                while (reader.hasNext()) {
+                    final int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        depth++;
+                        final String name = reader.getLocalName();
+                        if (depth == 2 && name.equals("parent")) {
+                            inParent = true;
+                        } else if (depth == 2 && name.equals("version")) {
+                            // The project version always wins: No need to read further
+                            return reader.getElementText().trim();
+                        } else if (depth == 3 && inParent && name.equals("version")) {
+                            parentVersion = reader.getElementText().trim();
+                            // 'getElementText' consumed the end element
+                            depth--;
+                        }
+                    } else if (event == XMLStreamConstants.END_ELEMENT) {
+                        if (depth == 2) {
+                            inParent = false;
+                        }
+                        depth--;
+                    }
+                }
+                return parentVersion;
+            } finally {
+                reader.close();
+            }
+        } catch (final IOException | XMLStreamException ex) {
+            throw new IllegalStateException("Failed to read version from POM: " + pomFile, ex);
+        }
+    }
+
+    private static File canonical(final File file) {
+        try {
+            return file.getCanonicalFile();
+        } catch (final IOException ex) {
+            throw new RuntimeException("Error creating canonical file: " + file, ex);
+        }
+    }
+
+    private static XMLInputFactory createFactory() {
+        final XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    /**
+     * Cached version of a POM.
+     */
+    private static final class Entry {
+
+        private final long lastModified;
+
+        private final long size;
+
+        private final String version;
+
+        Entry(final long lastModified, final long size, final String version) {
+            this.lastModified = lastModified;
+            this.size = size;
+            this.version = version;
+        }
+
+    }
+
+}
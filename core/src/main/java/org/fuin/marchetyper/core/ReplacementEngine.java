@@ -0,0 +1,31 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+/**
+ * Implementation used to apply the search/replace mappings to text files.
+ */
+public enum ReplacementEngine {
+
+    /** Text is streamed through a {@link ReplacingFileReader}. Memory usage does not depend on the file size. */
+    STREAMING,
+
+    /** Text is read completely into memory and replaced by a {@link TextReplacer}. Faster for the usual small source files. */
+    IN_MEMORY;
+
+}
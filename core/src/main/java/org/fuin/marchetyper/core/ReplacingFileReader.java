@@ -30,6 +30,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.regex.Pattern;
 
 import org.fuin.objects4j.common.ConstraintViolationException;
 import org.fuin.objects4j.common.Contract;
@@ -51,49 +52,32 @@ public final class ReplacingFileReader extends Reader {
 
     private int replaceIdx;
 
+    private long replacementCount;
+
     /**
      * Constructor with all data.
      * 
      * @param file
-     *            File to read.
+     *            File to read or to select the mappings for if a reader is given.
+     * @param reader
+     *            Reader with the content or {@literal null} to read the file.
      * @param bufferSize
      *            Size of the read buffer.
-     * @param defaultRegExFilenameSelector
-     *            Regular expression that works on filenames. It will be used to determine if the replacement should be applied at all for
-     *            the given type of file. May be <code>null</code> if all file types are OK. It's something like
+     * @param defaultFilenameSelector
+     *            Compiled regular expression that works on filenames. It will be used to determine if the replacement should be applied
+     *            at all for the given type of file. May be <code>null</code> if all file types are OK. It's something like
      *            "(.*\.(properties|md|java|yml|yaml|xml))|Dockerfile" to identify if it's a text file. It will ONLY be used in case a
      *            mapping has neither a {@link #fileExpr} nor a {@link #pathExpr} defined (both are {@literal null}).
      * @param mappings
      *            Key/Value pairs to replace.
      */
-    private ReplacingFileReader(final File file, final int bufferSize, final String defaultRegExFilenameSelector,
+    private ReplacingFileReader(final File file, final Reader reader, final int bufferSize, final Pattern defaultFilenameSelector,
             final List<Mapping> mappings) {
         super();
         Contract.requireArgNotNull("file", file);
         Contract.requireArgNotNull("mappings", mappings);
 
-        // Find valid mappings
-        final List<Mapping> validMappings = new ArrayList<>();
-        for (final Mapping mapping : mappings) {
-            if (mapping == null) {
-                throw new ConstraintViolationException("The argument 'replacements' contains null elements: " + mappings.toArray());
-            }
-            if (mapping.getSearch() == null) {
-                throw new ConstraintViolationException("The argument 'search' contains null value: " + mapping);
-            }
-            if (mapping.getSearch().trim().length() == 0) {
-                throw new ConstraintViolationException("The argument 'search' contains empty string: " + mapping);
-            }
-            if (mapping.getReplace() == null) {
-                throw new ConstraintViolationException("The argument 'replace' contains null value: " + mapping);
-            }
-            if (mapping.getReplace().trim().length() == 0) {
-                throw new ConstraintViolationException("The argument 'replace' contains empty string: " + mapping);
-            }
-            if (mapping.applies(defaultRegExFilenameSelector, file)) {
-                validMappings.add(mapping);
-            }
-        }
+        final List<Mapping> validMappings = validMappings(file, defaultFilenameSelector, mappings);
 
         // Create search/replace array
         this.maxTokenLen = 0;
@@ -107,6 +91,10 @@ public final class ReplacingFileReader extends Reader {
                 maxTokenLen = searchList[i].length();
             }
         }
+        if (reader != null) {
+            this.delegate = new PushbackReader(new BufferedReader(reader, bufferSize), maxTokenLen + 1);
+            return;
+        }
         try {
             this.delegate = new PushbackReader(
                     new BufferedReader(new InputStreamReader(new FileInputStream(file), Charset.forName("utf-8")), bufferSize),
@@ -118,6 +106,43 @@ public final class ReplacingFileReader extends Reader {
 
     }
 
+    /**
+     * Verifies the mappings and selects the ones that apply to a file.
+     * 
+     * @param file
+     *            File to select the mappings for.
+     * @param defaultFilenameSelector
+     *            Compiled regular expression used for mappings that have neither a file nor a path expression or {@literal null}.
+     * @param mappings
+     *            Mappings to verify.
+     * 
+     * @return Mappings that apply to the file in the original order.
+     */
+    static List<Mapping> validMappings(final File file, final Pattern defaultFilenameSelector, final List<Mapping> mappings) {
+        final List<Mapping> validMappings = new ArrayList<>();
+        for (final Mapping mapping : mappings) {
+            if (mapping == null) {
+                throw new ConstraintViolationException("The argument 'replacements' contains null elements: " + mappings.toArray());
+            }
+            if (mapping.getSearch() == null) {
+                throw new ConstraintViolationException("The argument 'search' contains null value: " + mapping);
+            }
+            if (mapping.getSearch().trim().length() == 0) {
+                throw new ConstraintViolationException("The argument 'search' contains empty string: " + mapping);
+            }
+            if (mapping.getReplace() == null) {
+                throw new ConstraintViolationException("The argument 'replace' contains null value: " + mapping);
+            }
+            if (mapping.getReplace().trim().length() == 0) {
+                throw new ConstraintViolationException("The argument 'replace' contains empty string: " + mapping);
+            }
+            if (mapping.appliesTo(defaultFilenameSelector, file)) {
+                validMappings.add(mapping);
+            }
+        }
+        return validMappings;
+    }
+
     @Override
     public final int read() throws IOException {
 
@@ -155,6 +180,7 @@ public final class ReplacingFileReader extends Reader {
                 }
                 replaceStr = replacementList[i];
                 replaceIdx = 0;
+                replacementCount++;
                 return replaceStr.charAt(replaceIdx++);
             }
         }
@@ -183,6 +209,15 @@ public final class ReplacingFileReader extends Reader {
         return charsRead;
     }
 
+    /**
+     * Returns the number of search terms replaced so far.
+     * 
+     * @return Number of replacements.
+     */
+    public final long getReplacementCount() {
+        return replacementCount;
+    }
+
     @Override
     public final boolean ready() throws IOException {
         return delegate.ready();
@@ -200,9 +235,11 @@ public final class ReplacingFileReader extends Reader {
 
         private File file;
 
+        private Reader reader;
+
         private int bufferSize;
 
-        private String defaultRegExFilenameSelector;
+        private Pattern defaultFilenameSelector;
 
         private List<Mapping> mappings;
 
@@ -224,6 +261,24 @@ public final class ReplacingFileReader extends Reader {
             this.mappings = new ArrayList<>();
         }
 
+        /**
+         * Constructor with a reader that provides the content. The file is only used to select the mappings that apply and does not need
+         * to exist.
+         * 
+         * @param file
+         *            File name and path used to determine the mappings to apply.
+         * @param reader
+         *            Reader with the content to replace the tokens in. Closing the new instance also closes this reader.
+         */
+        public Builder(final File file, final Reader reader) {
+            Contract.requireArgNotNull("file", file);
+            Contract.requireArgNotNull("reader", reader);
+            this.file = file;
+            this.reader = reader;
+            this.bufferSize = 1024;
+            this.mappings = new ArrayList<>();
+        }
+
         /**
          * Sets the size of the buffer for the underlying input stream.
          * 
@@ -249,7 +304,25 @@ public final class ReplacingFileReader extends Reader {
          * @return The Builder.
          */
         public Builder defaultRegExFilenameSelector(final String defaultRegExFilenameSelector) {
-            this.defaultRegExFilenameSelector = defaultRegExFilenameSelector;
+            if (defaultRegExFilenameSelector == null) {
+                this.defaultFilenameSelector = null;
+            } else {
+                this.defaultFilenameSelector = Pattern.compile(defaultRegExFilenameSelector);
+            }
+            return this;
+        }
+
+        /**
+         * Sets the compiled default file pattern to use in case a mapping has not defined it's own. This avoids compiling the expression
+         * again for every file.
+         * 
+         * @param defaultFilenameSelector
+         *            Compiled version of the expression described in {@link #defaultRegExFilenameSelector(String)} or {@literal null}.
+         * 
+         * @return The Builder.
+         */
+        public Builder defaultFilenameSelector(final Pattern defaultFilenameSelector) {
+            this.defaultFilenameSelector = defaultFilenameSelector;
             return this;
         }
 
@@ -293,7 +366,7 @@ public final class ReplacingFileReader extends Reader {
          * @return The new instance.
          */
         public ReplacingFileReader build() {
-            return new ReplacingFileReader(file, bufferSize, defaultRegExFilenameSelector, mappings);
+            return new ReplacingFileReader(file, reader, bufferSize, defaultFilenameSelector, mappings);
         }
 
     }
@@ -0,0 +1,297 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import org.fuin.objects4j.common.Contract;
+import org.fuin.utils4j.Utils4J;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Verifies a generated archetype by reverse-applying the mappings to the archetype resources, without running 'archetype:generate' and
+ * without writing a project. The Velocity header is stripped from text files and every replacement text of a mapping is turned into the
+ * text Maven would render for the test values of the archetype properties. The result is compared as a stream with the source files, so
+ * each tree is read only once and no file is kept in memory. <br>
+ * <br>
+ * Only simple references like '${name}' in the replacement texts are resolved. Use the {@link ArchetypeVerifier} for mappings that contain
+ * other Velocity expressions.
+ */
+public final class ReverseMappingVerifier {
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private final Config config;
+
+    private final Map<String, String> values;
+
+    private final List<Mapping> reverseMappings;
+
+    private final String header;
+
+    /**
+     * Constructor with mandatory data.
+     *
+     * @param config
+     *            Configuration used to generate the archetype.
+     */
+    public ReverseMappingVerifier(@NotNull final Config config) {
+        super();
+        Contract.requireArgNotNull("config", config);
+        this.config = config;
+        this.values = new HashMap<>(ArchetypeVerifier.testValues(config));
+        values.put("symbol_pound", "#");
+        values.put("symbol_dollar", "$");
+        values.put("symbol_escape", "\\");
+        this.reverseMappings = reverseMappings(MavenArchetyper.mappings(config), values);
+        this.header = MavenArchetyper.header(config);
+    }
+
+    /**
+     * Reverse-applies the mappings to the archetype resources and compares the result with the source directory.
+     *
+     * @param srcDir
+     *            Directory with the source example application.
+     * @param archetypeDir
+     *            Directory with the generated archetype project.
+     * @param log
+     *            Result log.
+     */
+    public final void compare(@NotNull final File srcDir, @NotNull final File archetypeDir, @NotNull final StringBuilder log) {
+        Contract.requireArgNotNull("log", log);
+        compare(srcDir, archetypeDir, finding -> finding.appendTo(log));
+    }
+
+    /**
+     * Reverse-applies the mappings to the archetype resources and compares the result with the source directory. The differences are
+     * reported to a listener.
+     *
+     * @param srcDir
+     *            Directory with the source example application.
+     * @param archetypeDir
+     *            Directory with the generated archetype project.
+     * @param listener
+     *            Listener to inform about differences.
+     */
+    public final void compare(@NotNull final File srcDir, @NotNull final File archetypeDir, @NotNull final CompareListener listener) {
+
+        Contract.requireArgNotNull("srcDir", srcDir);
+        Contract.requireArgNotNull("archetypeDir", archetypeDir);
+        Contract.requireArgNotNull("listener", listener);
+
+        final File archetypeResources = new File(new File(new File(new File(archetypeDir, "src"), "main"), "resources"),
+                "archetype-resources");
+
+        final SortedMap<String, File> resources = resourceFiles(archetypeResources);
+        final SortedMap<String, File> sources = ArchetypeVerifier.sourceFiles(config, srcDir);
+
+        for (final Map.Entry<String, File> entry : sources.entrySet()) {
+            final File srcFile = new File(srcDir, entry.getKey());
+            final File resourceFile = resources.remove(entry.getKey());
+            if (resourceFile == null) {
+                listener.onFinding(new CompareFinding(CompareFinding.Type.DEST_FILE_NOT_FOUND, srcFile.toPath(), Path.of(entry.getKey())));
+            } else {
+                final CompareFinding finding = compareFile(srcFile, resourceFile);
+                if (finding != null) {
+                    listener.onFinding(finding);
+                }
+            }
+        }
+        for (final Map.Entry<String, File> entry : resources.entrySet()) {
+            listener.onFinding(new CompareFinding(CompareFinding.Type.SRC_FILE_NOT_FOUND, new File(srcDir, entry.getKey()).toPath(),
+                    entry.getValue().toPath()));
+        }
+
+    }
+
+    /**
+     * Reverse-applies the mappings to the archetype resources and compares the result with the source directory. Fails with an
+     * {@link IllegalStateException} if they are not equal. Only the first {@link DirectoryCompare#MAX_REPORTED_FINDINGS} differences are
+     * included in the exception message.
+     *
+     * @param baseDir
+     *            Base directory used to resolve the configured source and destination directory.
+     */
+    public void verify(@NotNull final File baseDir) {
+        Contract.requireArgNotNull("baseDir", baseDir);
+        final CompareSummary summary = new CompareSummary(DirectoryCompare.MAX_REPORTED_FINDINGS);
+        compare(config.getSrcDir(baseDir), config.getDestDir(baseDir), summary);
+        if (!summary.isEmpty()) {
+            throw new IllegalStateException("Differences found:" + System.lineSeparator() + summary);
+        }
+    }
+
+    private SortedMap<String, File> resourceFiles(final File archetypeResources) {
+        final SortedMap<String, File> files = new TreeMap<>();
+        if (!archetypeResources.isDirectory()) {
+            return files;
+        }
+        try (final Stream<Path> stream = Files.walk(archetypeResources.toPath())) {
+            stream.filter(Files::isRegularFile).map(Path::toFile).forEach(file -> {
+                final String relativePath = Utils4J.getRelativePath(archetypeResources, file).replace(File.separatorChar, '/');
+                files.put(ArchetypeVerifier.projectPath(config, relativePath, values), file);
+            });
+        } catch (final IOException ex) {
+            throw new RuntimeException("Error reading archetype resources: " + archetypeResources, ex);
+        }
+        return files;
+    }
+
+    private CompareFinding compareFile(final File srcFile, final File resourceFile) {
+        try {
+            if (config.isBinary(srcFile)) {
+                if (srcFile.length() != resourceFile.length()) {
+                    return new CompareFinding(CompareFinding.Type.SIZE_DIFF, srcFile.toPath(), resourceFile.toPath(), srcFile.length(),
+                            resourceFile.length());
+                }
+                if (!DirectoryCompare.contentEquals(srcFile.toPath(), resourceFile.toPath())) {
+                    return new CompareFinding(CompareFinding.Type.CONTENT_DIFF, srcFile.toPath(), resourceFile.toPath());
+                }
+                return null;
+            }
+            if (config.isText(srcFile)) {
+                if (!textEquals(srcFile, resourceFile)) {
+                    return new CompareFinding(CompareFinding.Type.CONTENT_DIFF, srcFile.toPath(), resourceFile.toPath());
+                }
+                return null;
+            }
+            return new CompareFinding(CompareFinding.Type.ERROR, srcFile.toPath(), resourceFile.toPath());
+        } catch (final IOException | RuntimeException ex) {
+            return new CompareFinding(CompareFinding.Type.ERROR, srcFile.toPath(), resourceFile.toPath());
+        }
+    }
+
+    private boolean textEquals(final File srcFile, final File resourceFile) throws IOException {
+        final Reader in = new InputStreamReader(Files.newInputStream(resourceFile.toPath()), StandardCharsets.UTF_8);
+        try (final ReplacingFileReader resourceReader = new ReplacingFileReader.Builder(srcFile, in).bufferSize(BUFFER_SIZE)
+                .defaultRegExFilenameSelector(config.getTextFiles()).mappings(reverseMappings).build();
+                final Reader srcReader = new BufferedReader(
+                        new InputStreamReader(Files.newInputStream(srcFile.toPath()), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+
+            // The header is not subject to the mappings
+            final char[] headerChars = new char[header.length()];
+            if (readFully(in, headerChars) != headerChars.length || !header.equals(new String(headerChars))) {
+                return false;
+            }
+            return contentEquals(resourceReader, srcReader);
+
+        }
+    }
+
+    private static boolean contentEquals(final Reader reader1, final Reader reader2) throws IOException {
+        final char[] buf1 = new char[BUFFER_SIZE];
+        final char[] buf2 = new char[BUFFER_SIZE];
+        while (true) {
+            final int count1 = readFully(reader1, buf1);
+            final int count2 = readFully(reader2, buf2);
+            if (count1 != count2) {
+                return false;
+            }
+            if (count1 == 0) {
+                return true;
+            }
+            if (Arrays.mismatch(buf1, 0, count1, buf2, 0, count2) >= 0) {
+                return false;
+            }
+        }
+    }
+
+    private static int readFully(final Reader reader, final char[] buf) throws IOException {
+        int count = 0;
+        while (count < buf.length) {
+            final int n = reader.read(buf, count, buf.length - count);
+            if (n < 0) {
+                break;
+            }
+            count = count + n;
+        }
+        return count;
+    }
+
+    /**
+     * Creates the reverse mappings: The replacement text of each mapping becomes the term to search for, and the text Maven would render
+     * for it becomes the replacement. Path and file expressions are kept, so the same mappings apply to a file as during the generation.
+     * Longer terms are sorted first, so the longest match wins.
+     *
+     * @param mappings
+     *            Mappings used to generate the archetype.
+     * @param values
+     *            Values to substitute references like '${name}' with.
+     *
+     * @return New list of mappings.
+     */
+    static List<Mapping> reverseMappings(final List<Mapping> mappings, final Map<String, String> values) {
+        final List<Mapping> reverse = new ArrayList<>(mappings.size());
+        for (final Mapping mapping : mappings) {
+            final String search = mapping.getReplace().trim();
+            reverse.add(new Mapping(search, render(search, values), mapping.getPathExpr(), mapping.getFileExpr()));
+        }
+        reverse.sort(Comparator.comparing((Mapping mapping) -> mapping.getSearch().length()).reversed());
+        return reverse;
+    }
+
+    /**
+     * Replaces all references like '${name}' with their value. Unknown references are left unchanged like Velocity does.
+     *
+     * @param text
+     *            Text with references.
+     * @param values
+     *            Values to substitute.
+     *
+     * @return Rendered text.
+     */
+    static String render(final String text, final Map<String, String> values) {
+        final StringBuilder sb = new StringBuilder();
+        int idx = 0;
+        while (idx < text.length()) {
+            final int start = text.indexOf("${", idx);
+            final int end = start < 0 ? -1 : text.indexOf('}', start + 2);
+            if (end < 0) {
+                sb.append(text, idx, text.length());
+                break;
+            }
+            final String value = values.get(text.substring(start + 2, end));
+            sb.append(text, idx, start);
+            if (value == null) {
+                sb.append(text, start, end + 1);
+            } else {
+                sb.append(value);
+            }
+            idx = end + 1;
+        }
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,35 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+/**
+ * Determines how an existing destination directory is treated.
+ */
+public enum SyncMode {
+
+    /** The destination directory is deleted and all files are written again. */
+    CLEAN,
+
+    /**
+     * The destination directory is kept. Only files with a changed content are written and all files below its 'src' directory that are
+     * no longer generated are deleted, like a post generate script that was removed from the configuration. Unchanged files keep their
+     * timestamps, so following build steps may skip them.
+     */
+    SYNC;
+
+}
@@ -0,0 +1,164 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.fuin.objects4j.common.Contract;
+import org.fuin.objects4j.common.Nullable;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Replaces tokens in a text that is completely held in memory. The result is the same as reading the text with a
+ * {@link ReplacingFileReader}: At every position the mappings are tested in the configured order and the first matching one is applied.
+ * Only the mappings starting with the character at the current position are tested.
+ */
+public final class TextReplacer {
+
+    private static final int ASCII = 128;
+
+    private static final int[] NONE = new int[0];
+
+    private final String[] searchList;
+
+    private final String[] replacementList;
+
+    private final int[][] asciiCandidates;
+
+    private final Map<Character, int[]> otherCandidates;
+
+    private long replacementCount;
+
+    /**
+     * Constructor with all data.
+     * 
+     * @param file
+     *            File used to select the mappings that apply.
+     * @param defaultFilenameSelector
+     *            Compiled regular expression used for mappings that have neither a file nor a path expression or {@literal null}.
+     * @param mappings
+     *            Key/Value pairs to replace.
+     */
+    public TextReplacer(@NotNull final File file, @Nullable final Pattern defaultFilenameSelector, @NotNull final List<Mapping> mappings) {
+        super();
+        Contract.requireArgNotNull("file", file);
+        Contract.requireArgNotNull("mappings", mappings);
+
+        final List<Mapping> validMappings = ReplacingFileReader.validMappings(file, defaultFilenameSelector, mappings);
+        this.searchList = new String[validMappings.size()];
+        this.replacementList = new String[validMappings.size()];
+        for (int i = 0; i < validMappings.size(); i++) {
+            final Mapping mapping = validMappings.get(i);
+            searchList[i] = mapping.getSearch().trim();
+            replacementList[i] = mapping.getReplace().trim();
+        }
+
+        this.asciiCandidates = new int[ASCII][];
+        this.otherCandidates = new HashMap<>();
+        for (int i = 0; i < searchList.length; i++) {
+            final char first = searchList[i].charAt(0);
+            if (first < ASCII) {
+                asciiCandidates[first] = append(asciiCandidates[first], i);
+            } else {
+                otherCandidates.put(first, append(otherCandidates.get(first), i));
+            }
+        }
+    }
+
+    private static int[] append(final int[] indexes, final int index) {
+        if (indexes == null) {
+            return new int[] { index };
+        }
+        final int[] result = new int[indexes.length + 1];
+        System.arraycopy(indexes, 0, result, 0, indexes.length);
+        result[indexes.length] = index;
+        return result;
+    }
+
+    /**
+     * Replaces all tokens in a text. Like the {@link ReplacingFileReader}, the text ends at the first NUL character if there is at least
+     * one mapping that applies.
+     * 
+     * @param text
+     *            Text to replace the tokens in.
+     * 
+     * @return Text with replaced tokens.
+     */
+    public String replace(@NotNull final String text) {
+        Contract.requireArgNotNull("text", text);
+        if (searchList.length == 0) {
+            return text;
+        }
+        final StringBuilder sb = new StringBuilder(text.length() + text.length() / 8);
+        final int length = text.length();
+        int pos = 0;
+        while (pos < length) {
+            final char ch = text.charAt(pos);
+            if (ch == '\u0000') {
+                break;
+            }
+            final int index = find(text, pos, candidates(ch));
+            if (index < 0) {
+                sb.append(ch);
+                pos++;
+            } else {
+                sb.append(replacementList[index]);
+                pos += searchList[index].length();
+                replacementCount++;
+            }
+        }
+        return sb.toString();
+    }
+
+    private int[] candidates(final char ch) {
+        final int[] candidates;
+        if (ch < ASCII) {
+            candidates = asciiCandidates[ch];
+        } else {
+            candidates = otherCandidates.get(ch);
+        }
+        if (candidates == null) {
+            return NONE;
+        }
+        return candidates;
+    }
+
+    private int find(final String text, final int pos, final int[] candidates) {
+        for (final int index : candidates) {
+            if (text.startsWith(searchList[index], pos)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the number of search terms replaced so far.
+     * 
+     * @return Number of replacements.
+     */
+    public long getReplacementCount() {
+        return replacementCount;
+    }
+
+}
@@ -11,15 +11,21 @@ public enum TransformationType {
     // TO_CAMEL_CASE("$CaseUtils.toCamelCase($~varName~, true, $delim.charAt(0), $delim.charAt(1), $delim.charAt(2), $delim.charAt(3))"),
 
     /** Converts all dots in a string to slashes. */
-    DOT_2_SLASH("$StringUtils.replace($~varName~, \".\", \"/\")"),
+    DOT_2_SLASH("$StringUtils.replace($~varName~, \".\", \"/\")", ".", "/"),
 
     /** Converts all slashes in a string to dots. */
-    SLASH_2_DOT("$StringUtils.replace($~varName~, \"/\", \".\")");
+    SLASH_2_DOT("$StringUtils.replace($~varName~, \"/\", \".\")", "/", ".");
 
     private String code;
 
-    private TransformationType(final String code) {
+    private String search;
+
+    private String replace;
+
+    private TransformationType(final String code, final String search, final String replace) {
         this.code = code;
+        this.search = search;
+        this.replace = replace;
     }
 
     /**
@@ -34,4 +40,17 @@ public enum TransformationType {
         return StringUtils.replace(code, "~varName~", varName);
     }
 
+    /**
+     * Applies the transformation directly to a value. This is the Java equivalent of executing the code returned by
+     * {@link #getCode(String)} in a Velocity template.
+     * 
+     * @param value
+     *            Value to transform.
+     * 
+     * @return Transformed value or {@literal null} if the value was {@literal null}.
+     */
+    public String apply(String value) {
+        return StringUtils.replace(value, search, replace);
+    }
+
 }
@@ -0,0 +1,166 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link ArchetypeMatrix}.
+ */
+class ArchetypeMatrixTest {
+
+    private static final File CONFIG_FILE = new File("src/test/resources/marchetyper-config.xml");
+
+    private static Properties artifactId(final String artifactId) {
+        final Properties properties = new Properties();
+        properties.setProperty("artifactId", artifactId);
+        return properties;
+    }
+
+    @Test
+    void testRunTwoPropertySets() throws IOException {
+
+        // PREPARE
+        final File workDir = new File("target/archetype-matrix");
+        FileUtils.deleteDirectory(workDir);
+        final Properties one = artifactId("app-one");
+        final Properties two = artifactId("app-two");
+        // The archetype is not installed and Maven runs offline with empty local repositories, so both jobs fail
+        final ArchetypeMatrix testee = new ArchetypeMatrix.Builder().config(ConfigImpl.load(CONFIG_FILE)).baseDir(new File("."))
+                .workDir(workDir).addPropertySet(one).addPropertySet(two).concurrency(2).offline(true).build();
+
+        // TEST
+        final List<ArchetypeMatrix.JobResult> results = testee.run();
+
+        // VERIFY
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0).getIndex()).isEqualTo(0);
+        assertThat(results.get(0).getProperties()).isSameAs(one);
+        assertThat(results.get(0).getDir()).isEqualTo(new File(workDir, "job-0/project/app-one"));
+        assertThat(results.get(1).getIndex()).isEqualTo(1);
+        assertThat(results.get(1).getProperties()).isSameAs(two);
+        assertThat(results.get(1).getDir()).isEqualTo(new File(workDir, "job-1/project/app-two"));
+        for (final ArchetypeMatrix.JobResult result : results) {
+            assertThat(result.isSuccess()).isFalse();
+            assertThat(result.getFailure()).isInstanceOf(IllegalStateException.class).hasMessageStartingWith("Build failed");
+            assertThat(result.getDir().getParentFile()).isDirectory();
+            assertThat(new File(result.getDir().getParentFile().getParentFile(), "repository")).isDirectory();
+        }
+
+    }
+
+    @Test
+    void testRunStubRunner() throws IOException {
+
+        // PREPARE
+        final File workDir = new File("target/archetype-matrix-stub");
+        FileUtils.deleteDirectory(workDir);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final List<String> calls = Collections.synchronizedList(new ArrayList<>());
+        final MavenRunner runner = (baseDir, localRepository, properties, goals) -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                calls.add(baseDir.getPath() + " " + String.join(" ", goals));
+                Thread.sleep(20);
+                return new MavenBuildResult(baseDir, 0, 20, 20, Collections.emptyList(), Collections.emptyList(),
+                        Collections.emptyList());
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(ex);
+            } finally {
+                running.decrementAndGet();
+            }
+        };
+        final ArchetypeMatrix.Builder builder = new ArchetypeMatrix.Builder().config(ConfigImpl.load(CONFIG_FILE)).baseDir(new File("."))
+                .workDir(workDir).concurrency(2).goals("clean", "install").runner(runner);
+        for (int i = 0; i < 6; i++) {
+            builder.addPropertySet(artifactId("app-" + i));
+        }
+        final ArchetypeMatrix testee = builder.build();
+
+        // TEST
+        final List<ArchetypeMatrix.JobResult> results = testee.run();
+
+        // VERIFY
+        assertThat(maxRunning.get()).isBetween(1, 2);
+        assertThat(results).hasSize(6);
+        for (int i = 0; i < 6; i++) {
+            final ArchetypeMatrix.JobResult result = results.get(i);
+            assertThat(result.getIndex()).isEqualTo(i);
+            assertThat(result.isSuccess()).isTrue();
+            final File projectDir = new File(workDir, "job-" + i + "/project");
+            assertThat(result.getDir()).isEqualTo(new File(projectDir, "app-" + i));
+            final String generate = projectDir.getPath() + " archetype:generate";
+            final String build = result.getDir().getPath() + " clean install";
+            assertThat(calls).contains(generate, build);
+            assertThat(calls.indexOf(generate)).isLessThan(calls.indexOf(build));
+        }
+        assertThat(calls).hasSize(12);
+
+    }
+
+    @Test
+    void testRunnerWithOffline() {
+
+        // PREPARE
+        final MavenRunner runner = (baseDir, localRepository, properties, goals) -> {
+            throw new IllegalStateException("Not called");
+        };
+        final ArchetypeMatrix.Builder builder = new ArchetypeMatrix.Builder().config(ConfigImpl.load(CONFIG_FILE)).baseDir(new File("."))
+                .workDir(new File("target/archetype-matrix-offline")).runner(runner).offline(true);
+
+        // TEST & VERIFY
+        assertThatThrownBy(builder::build).isInstanceOf(IllegalStateException.class)
+                .hasMessage("The values for 'offline' and 'sharedRepository' are only used by the default runner");
+
+    }
+
+    @Test
+    void testMissingArtifactId() throws IOException {
+
+        // PREPARE
+        final File configFile = new File("target/archetype-matrix-config.xml");
+        final String xml = FileUtils.readFileToString(CONFIG_FILE, StandardCharsets.UTF_8);
+        FileUtils.write(configFile, xml.replaceAll("<property name=\"artifactId\"[^>]*/>", ""), StandardCharsets.UTF_8);
+        final File workDir = new File("target/archetype-matrix-missing");
+        FileUtils.deleteDirectory(workDir);
+        final ArchetypeMatrix testee = new ArchetypeMatrix.Builder().config(ConfigImpl.load(configFile)).baseDir(new File("."))
+                .workDir(workDir).addPropertySet(artifactId("app-one")).addPropertySet(new Properties()).build();
+
+        // TEST & VERIFY
+        assertThatThrownBy(testee::run).isInstanceOf(IllegalStateException.class)
+                .hasMessageStartingWith("No value for property 'artifactId' in property set 1");
+        assertThat(workDir).doesNotExist();
+
+    }
+
+}
@@ -21,6 +21,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.File;
 import java.util.List;
+import java.util.Properties;
 
 import org.fuin.utils4j.JaxbUtils;
 import org.junit.jupiter.api.Test;
@@ -107,6 +108,27 @@ class ArchetypeTest {
 
     }
 
+    @Test
+    void testToArchetypeGenerateProperties() {
+
+        // PREPARE
+        final Archetype testee = new Archetype.Builder().groupId("org.fuin.archetypes").artifactId("example-archetype")
+                .version("0.1.0-SNAPSHOT").addProperty(new Property("groupId", "com.mycompany", "org.fuin.examples"))
+                .addProperty(new Property("artifactId", "myapp", "example-app")).build();
+        final Properties overrides = new Properties();
+        overrides.setProperty("artifactId", "other-app");
+
+        // TEST
+        final Properties result = testee.toArchetypeGenerateProperties(new File("."), overrides);
+
+        // VERIFY
+        assertThat(result).containsEntry("archetypeGroupId", "org.fuin.archetypes")
+                .containsEntry("archetypeArtifactId", "example-archetype").containsEntry("archetypeVersion", "0.1.0-SNAPSHOT")
+                .containsEntry("groupId", "org.fuin.examples").containsEntry("artifactId", "other-app")
+                .containsEntry("interactiveMode", "false").hasSize(6);
+
+    }
+
     @Test
     public void testRetrieveVersion() {
         assertThat(Archetype.retrieveVersion(null, "0.1.0")).isEqualTo("0.1.0");
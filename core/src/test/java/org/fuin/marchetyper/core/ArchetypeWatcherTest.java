@@ -0,0 +1,255 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link ArchetypeWatcher}.
+ */
+class ArchetypeWatcherTest {
+
+    private static final String RESOURCES = "archetype/src/main/resources/archetype-resources";
+
+    private static final String METADATA = "archetype/src/main/resources/META-INF/maven/archetype-metadata.xml";
+
+    private static final String TEST_JAVA = "src/test/java/org/fuin/examples/app/ExampleAppTest.java";
+
+    private static File prepare(final String name) throws IOException {
+        final File baseDir = new File("target/" + name).getCanonicalFile();
+        FileUtils.deleteDirectory(baseDir);
+        FileUtils.copyDirectory(new File("../test/src/test/resources/test-project"), baseDir);
+        FileUtils.deleteDirectory(new File(baseDir, "archetype"));
+        FileUtils.copyFile(new File("src/test/resources/marchetyper-config.xml"), new File(baseDir, "marchetyper-config.xml"));
+        return baseDir;
+    }
+
+    private static ArchetypeWatcher createTestee(final File baseDir) {
+        return new ArchetypeWatcher.Builder().configFile(new File(baseDir, "marchetyper-config.xml")).debounceMillis(50).build();
+    }
+
+    private static Set<Path> changed(final File... files) {
+        final Set<Path> changed = new HashSet<>();
+        for (final File file : files) {
+            changed.add(file.toPath());
+        }
+        return changed;
+    }
+
+    private static String read(final File file) throws IOException {
+        return FileUtils.readFileToString(file, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testStart() throws IOException {
+
+        // PREPARE
+        final File baseDir = prepare("watcher-start");
+
+        try (final ArchetypeWatcher testee = createTestee(baseDir)) {
+
+            // TEST
+            testee.start();
+
+            // VERIFY
+            assertThat(new File(baseDir, RESOURCES + "/README.md")).exists();
+            assertThat(new File(baseDir, RESOURCES + "/src/test/java/__pkgPath__/__appName__Test.java")).exists();
+            assertThat(read(new File(baseDir, METADATA))).contains("__appName__Test.java");
+
+        }
+
+    }
+
+    @Test
+    void testProcessChangedFile() throws IOException {
+
+        // PREPARE
+        final File baseDir = prepare("watcher-change");
+        final File srcFile = new File(baseDir, "example/README.md");
+        final File destFile = new File(baseDir, RESOURCES + "/README.md");
+        final File metadataFile = new File(baseDir, METADATA);
+
+        try (final ArchetypeWatcher testee = createTestee(baseDir)) {
+            testee.start();
+            final String metadata = read(metadataFile);
+            FileUtils.write(srcFile, "Changed example-app", StandardCharsets.UTF_8);
+
+            // TEST
+            testee.process(changed(srcFile), false);
+
+            // VERIFY
+            assertThat(read(destFile)).endsWith("Changed ${artifactId}");
+            assertThat(read(metadataFile)).isEqualTo(metadata);
+
+        }
+
+    }
+
+    @Test
+    void testProcessDeletedFileAndDirectory() throws IOException {
+
+        // PREPARE
+        final File baseDir = prepare("watcher-delete");
+        final File srcFile = new File(baseDir, "example/" + TEST_JAVA);
+        final File srcDir = new File(baseDir, "example/src/main");
+        final File metadataFile = new File(baseDir, METADATA);
+
+        try (final ArchetypeWatcher testee = createTestee(baseDir)) {
+            testee.start();
+            FileUtils.delete(srcFile);
+            FileUtils.deleteDirectory(srcDir);
+
+            // TEST
+            testee.process(changed(srcFile, srcDir), false);
+
+            // VERIFY
+            assertThat(new File(baseDir, RESOURCES + "/src/test/java/__pkgPath__/__appName__Test.java")).doesNotExist();
+            assertThat(new File(baseDir, RESOURCES + "/src/main/java/__pkgPath__/__appName__.java")).doesNotExist();
+            assertThat(new File(baseDir, RESOURCES + "/README.md")).exists();
+            assertThat(read(metadataFile)).doesNotContain("__appName__Test.java", "__appName__.java").contains("README.md");
+
+        }
+
+    }
+
+    @Test
+    void testProcessExcludedFile() throws IOException {
+
+        // PREPARE
+        final File baseDir = prepare("watcher-excluded");
+        final File srcFile = new File(baseDir, "example/debug.log");
+        final File metadataFile = new File(baseDir, METADATA);
+
+        try (final ArchetypeWatcher testee = createTestee(baseDir)) {
+            testee.start();
+            final String metadata = read(metadataFile);
+            FileUtils.write(srcFile, "Log", StandardCharsets.UTF_8);
+
+            // TEST
+            testee.process(changed(srcFile), false);
+
+            // VERIFY
+            assertThat(new File(baseDir, RESOURCES + "/debug.log")).doesNotExist();
+            assertThat(read(metadataFile)).isEqualTo(metadata);
+
+        }
+
+    }
+
+    @Test
+    void testProcessConfigChange() throws IOException {
+
+        // PREPARE
+        final File baseDir = prepare("watcher-config");
+        final File configFile = new File(baseDir, "marchetyper-config.xml");
+
+        try (final ArchetypeWatcher testee = createTestee(baseDir)) {
+            testee.start();
+            FileUtils.write(configFile, read(configFile).replace("<file-excludes>", "<file-excludes><filter file=\"README\\.md\" />"),
+                    StandardCharsets.UTF_8);
+
+            // TEST
+            testee.process(changed(configFile), false);
+
+            // VERIFY
+            assertThat(new File(baseDir, RESOURCES + "/README.md")).doesNotExist();
+            assertThat(read(new File(baseDir, METADATA))).doesNotContain("README.md");
+
+        }
+
+    }
+
+    @Test
+    void testProcessOverflow() throws IOException {
+
+        // PREPARE
+        final File baseDir = prepare("watcher-overflow");
+        final File srcFile = new File(baseDir, "example/README.md");
+
+        try (final ArchetypeWatcher testee = createTestee(baseDir)) {
+            testee.start();
+            FileUtils.write(srcFile, "Changed example-app", StandardCharsets.UTF_8);
+
+            // TEST
+            testee.process(Collections.emptySet(), true);
+
+            // VERIFY
+            assertThat(read(new File(baseDir, RESOURCES + "/README.md"))).endsWith("Changed ${artifactId}");
+
+        }
+
+    }
+
+    @Test
+    void testRun() throws Exception {
+
+        // PREPARE
+        final File baseDir = prepare("watcher-run");
+        final File srcFile = new File(baseDir, "example/src/main/java/org/fuin/examples/app/Other.java");
+        final File destFile = new File(baseDir, RESOURCES + "/src/main/java/__pkgPath__/Other.java");
+        final ArchetypeWatcher testee = createTestee(baseDir);
+        final Thread thread = new Thread(testee::run);
+
+        try {
+
+            // TEST
+            thread.start();
+            await(() -> new File(baseDir, METADATA).exists());
+            FileUtils.write(srcFile, "package org.fuin.examples.app;", StandardCharsets.UTF_8);
+
+            // VERIFY
+            await(() -> destFile.exists() && contains(new File(baseDir, METADATA), "Other.java"));
+            assertThat(read(destFile)).endsWith("package ${pkgName};");
+
+        } finally {
+            testee.close();
+            thread.join(10000);
+        }
+        assertThat(thread.isAlive()).isFalse();
+
+    }
+
+    private static boolean contains(final File file, final String str) {
+        try {
+            return file.exists() && read(file).contains(str);
+        } catch (final IOException ex) {
+            return false;
+        }
+    }
+
+    private static void await(final BooleanSupplier condition) throws InterruptedException {
+        final long end = System.currentTimeMillis() + 10000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("Timeout waiting for condition").isLessThan(end);
+            Thread.sleep(50);
+        }
+    }
+
+}
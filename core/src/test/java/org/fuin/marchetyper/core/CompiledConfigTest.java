@@ -0,0 +1,88 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ * <p>
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ * <p>
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for the {@link CompiledConfig} class.
+ */
+class CompiledConfigTest {
+
+    @Test
+    void testSnapshot() {
+
+        // PREPARE
+        final File baseDir = new File("target/compiled-config");
+        final Config config = ConfigImpl.load(new File("src/test/resources/marchetyper-config.xml"));
+
+        // TEST
+        final CompiledConfig testee = new CompiledConfig(config, baseDir);
+
+        // VERIFY
+        assertThat(testee.getSrcDir()).isEqualTo(config.getSrcDir(baseDir));
+        assertThat(testee.getDestDir(baseDir)).isEqualTo(config.getDestDir(baseDir));
+        assertThat(testee.getDestDir(new File("other"))).isEqualTo(config.getDestDir(new File("other")));
+        assertThat(testee.getCustomPomFile()).isEqualTo(config.getCustomPomFile(baseDir));
+        assertThat(testee.getHeader()).isEqualTo(MavenArchetyper.header(config));
+        assertThat(testee.getMappings()).hasSize(config.getFileMappings().size() + 3);
+        assertThat(testee.getDefaultFilenameSelector().pattern()).isEqualTo(config.getTextFiles());
+        assertThat(testee.isText(new File("Dockerfile"))).isTrue();
+        assertThat(testee.isBinary(new File("lib.jar"))).isTrue();
+        assertThat(testee.isBinary(new File("Dockerfile"))).isFalse();
+
+    }
+
+    @Test
+    void testDefaultTextFiles() {
+
+        // PREPARE
+        final ConfigImpl config = new ConfigImpl(new File("src"), new File("dest"));
+
+        // TEST
+        final CompiledConfig testee = new CompiledConfig(config, new File("."));
+
+        // VERIFY
+        assertThat(testee.isText(new File("a.json"))).isTrue();
+        assertThat(testee.isBinary(new File("a.json"))).isFalse();
+        assertThat(testee.isBinary(new File("a.png"))).isTrue();
+        assertThat(testee.getDefaultFilenameSelector()).isNull();
+        assertThat(config.isText(new File("a.json"))).isTrue();
+        assertThat(config.getTextFiles()).isNull();
+
+    }
+
+    @Test
+    void testOf() {
+
+        // PREPARE
+        final File baseDir = new File("target/compiled-config");
+        final CompiledConfig compiledConfig = new CompiledConfig(ConfigImpl.load(new File("src/test/resources/marchetyper-config.xml")),
+                baseDir);
+
+        // TEST & VERIFY
+        assertThat(CompiledConfig.of(compiledConfig, baseDir)).isSameAs(compiledConfig);
+        assertThat(CompiledConfig.of(compiledConfig, new File("other")).getBaseDir()).isEqualTo(new File("other"));
+
+    }
+
+}
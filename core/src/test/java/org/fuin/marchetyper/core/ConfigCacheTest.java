@@ -0,0 +1,114 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ * <p>
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ * <p>
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for the {@link ConfigCache} class.
+ */
+class ConfigCacheTest {
+
+    @Test
+    void testLoad() throws IOException {
+
+        // PREPARE
+        final File file = new File("target/config-cache/marchetyper-config.xml");
+        FileUtils.copyFile(new File("src/test/resources/marchetyper-config.xml"), file);
+        ConfigCache.clear();
+
+        // TEST
+        final Config first = ConfigCache.load(file);
+        final Config second = ConfigCache.load(file);
+
+        // VERIFY
+        assertThat(second).isSameAs(first);
+        assertThat(second.getArchetype().getArtifactId()).isEqualTo(ConfigImpl.load(file).getArchetype().getArtifactId());
+
+    }
+
+    @Test
+    void testLoadChanged() throws IOException {
+
+        // PREPARE
+        final File file = new File("target/config-cache/changed-config.xml");
+        FileUtils.copyFile(new File("src/test/resources/marchetyper-config.xml"), file);
+        final Config first = ConfigCache.load(file);
+        final String xml = FileUtils.readFileToString(file, StandardCharsets.UTF_8);
+        FileUtils.writeStringToFile(file, xml.replace("src-dir=\"", "src-dir=\"changed-"), StandardCharsets.UTF_8);
+
+        // TEST
+        final Config second = ConfigCache.load(file);
+
+        // VERIFY
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getSrcDir(new File("/")).getName()).startsWith("changed-");
+
+    }
+
+    @Test
+    void testLoadEvictsLeastRecentlyUsedFile() throws IOException {
+
+        // PREPARE
+        ConfigCache.clear();
+        final File first = new File("target/config-cache/lru-0.xml");
+        FileUtils.copyFile(new File("src/test/resources/marchetyper-config.xml"), first);
+        final Config firstConfig = ConfigCache.load(first);
+
+        // TEST
+        for (int i = 1; i <= ConfigCache.MAX_ENTRIES; i++) {
+            final File file = new File("target/config-cache/lru-" + i + ".xml");
+            FileUtils.copyFile(first, file);
+            ConfigCache.load(file);
+        }
+
+        // VERIFY
+        assertThat(ConfigCache.size()).isEqualTo(ConfigCache.MAX_ENTRIES);
+        assertThat(ConfigCache.load(first)).isNotSameAs(firstConfig);
+
+    }
+
+    @Test
+    void testLoadEvictsLeastRecentlyUsedBaseDir() throws IOException {
+
+        // PREPARE
+        final File file = new File("target/config-cache/lru-base-dir.xml");
+        FileUtils.copyFile(new File("src/test/resources/marchetyper-config.xml"), file);
+        final File firstDir = new File("target/config-cache/base-0");
+        final CompiledConfig first = ConfigCache.load(file, firstDir);
+
+        // TEST
+        for (int i = 1; i <= ConfigCache.MAX_ENTRIES; i++) {
+            ConfigCache.load(file, new File("target/config-cache/base-" + i));
+        }
+
+        // VERIFY
+        assertThat(ConfigCache.load(file, new File("target/config-cache/base-1"))).isSameAs(ConfigCache.load(file,
+                new File("target/config-cache/base-1")));
+        assertThat(ConfigCache.load(file, firstDir)).isNotSameAs(first);
+
+    }
+
+}
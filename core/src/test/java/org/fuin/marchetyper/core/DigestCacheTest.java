@@ -0,0 +1,67 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ * <p>
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ * <p>
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link DigestCache}.
+ */
+public class DigestCacheTest {
+
+    @Test
+    public void testDigestFromCache() throws IOException {
+
+        // PREPARE
+        final File dir = new File("target/" + this.getClass().getSimpleName());
+        FileUtils.deleteDirectory(dir);
+        final File file = new File(dir, "file.txt");
+        FileUtils.write(file, "abc", StandardCharsets.UTF_8);
+        final long lastModified = file.lastModified();
+        final Path path = file.getCanonicalFile().toPath();
+        final File cacheFile = new File(dir, "digests.txt");
+        final DigestCache cache = new DigestCache(cacheFile);
+        final String digest = cache.digest(path, 3, lastModified);
+        cache.save();
+
+        // Change the content, but not size and time - Only the cache can know the old digest
+        FileUtils.write(file, "xyz", StandardCharsets.UTF_8);
+        file.setLastModified(lastModified);
+
+        // TEST
+        final DigestCache testee = new DigestCache(cacheFile);
+        final String cached = testee.digest(path, 3, lastModified);
+        final String changed = testee.digest(path, 3, lastModified + 1000);
+
+        // VERIFY
+        assertThat(digest).isEqualTo("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad");
+        assertThat(cached).isEqualTo(digest);
+        assertThat(testee.getHits()).isEqualTo(1);
+        assertThat(changed).isEqualTo(DigestCache.digest(path)).isNotEqualTo(digest);
+
+    }
+
+}
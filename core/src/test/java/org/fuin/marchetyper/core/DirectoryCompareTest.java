@@ -0,0 +1,262 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ * <p>
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ * <p>
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link DirectoryCompare}.
+ */
+public class DirectoryCompareTest {
+
+    private static final File BASE_DIR = new File("target/" + DirectoryCompareTest.class.getSimpleName());
+
+    private static final File SRC_DIR = new File(BASE_DIR, "src");
+
+    private static final File DEST_DIR = new File(BASE_DIR, "dest");
+
+    @BeforeAll
+    public static void beforeAll() throws IOException {
+        FileUtils.deleteDirectory(BASE_DIR);
+        write(SRC_DIR, "equal.txt", "abc");
+        write(DEST_DIR, "equal.txt", "abc");
+        write(SRC_DIR, "a/content.txt", "abc");
+        write(DEST_DIR, "a/content.txt", "abd");
+        write(SRC_DIR, "a/b/size.txt", "abc");
+        write(DEST_DIR, "a/b/size.txt", "abcd");
+        write(SRC_DIR, "b/missing.txt", "abc");
+        write(DEST_DIR, "c/extra.txt", "abc");
+    }
+
+    @Test
+    public void testCompareSequential() {
+
+        // PREPARE
+        final DirectoryCompare testee = new DirectoryCompare(new ConfigImpl(SRC_DIR, DEST_DIR));
+        final StringBuilder log = new StringBuilder();
+
+        // TEST
+        testee.compare(SRC_DIR.toPath(), DEST_DIR.toPath(), log);
+
+        // VERIFY
+        assertThat(log.toString()).contains("CONTENT DIFF:", "content.txt", "SIZE DIFF: Source=3, Dest=4", "DEST FILE NOT FOUND:",
+                "missing.txt");
+        assertThat(log.toString()).doesNotContain("equal.txt");
+
+    }
+
+    @Test
+    public void testCompareParallel() {
+
+        // PREPARE
+        final DirectoryCompare testee = new DirectoryCompare.Builder().config(new ConfigImpl(SRC_DIR, DEST_DIR)).parallelism(4).build();
+        final StringBuilder log = new StringBuilder();
+
+        // TEST
+        testee.compare(SRC_DIR.toPath(), DEST_DIR.toPath(), log);
+
+        // VERIFY
+        final String[] lines = log.toString().split(System.lineSeparator());
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).startsWith("SIZE DIFF: Source=3, Dest=4").contains("size.txt");
+        assertThat(lines[1]).startsWith("CONTENT DIFF:").contains("content.txt");
+        assertThat(lines[2]).startsWith("DEST FILE NOT FOUND:").contains("missing.txt");
+
+    }
+
+    @Test
+    public void testCompareBidirectional() {
+
+        // PREPARE
+        final DirectoryCompare testee = new DirectoryCompare.Builder().config(new ConfigImpl(SRC_DIR, DEST_DIR)).bidirectional(true)
+                .build();
+        final StringBuilder log = new StringBuilder();
+
+        // TEST
+        testee.compare(SRC_DIR.toPath(), DEST_DIR.toPath(), log);
+
+        // VERIFY
+        final String[] lines = log.toString().split(System.lineSeparator());
+        assertThat(lines).hasSize(4);
+        assertThat(lines[0]).startsWith("SIZE DIFF: Source=3, Dest=4").contains("size.txt");
+        assertThat(lines[1]).startsWith("CONTENT DIFF:").contains("content.txt");
+        assertThat(lines[2]).startsWith("DEST FILE NOT FOUND:").contains("missing.txt");
+        assertThat(lines[3]).startsWith("SRC FILE NOT FOUND:").contains("extra.txt");
+
+    }
+
+    @Test
+    public void testCompareMaxFindings() {
+
+        // PREPARE
+        final DirectoryCompare testee = new DirectoryCompare.Builder().config(new ConfigImpl(SRC_DIR, DEST_DIR)).bidirectional(true)
+                .maxFindings(2).build();
+        final CompareSummary summary = new CompareSummary(1);
+
+        // TEST
+        testee.compare(SRC_DIR.toPath(), DEST_DIR.toPath(), summary);
+
+        // VERIFY
+        assertThat(summary.getCount()).isEqualTo(2);
+        assertThat(summary.isCutoff()).isTrue();
+        assertThat(summary.getFindings()).hasSize(1);
+        assertThat(summary.getFindings().get(0).getType()).isEqualTo(CompareFinding.Type.SIZE_DIFF);
+        assertThat(summary.getCount(CompareFinding.Type.CONTENT_DIFF)).isEqualTo(1);
+        assertThat(summary.toString()).contains("... 1 more", "Compare stopped after 2 findings");
+
+    }
+
+    @Test
+    public void testCompareJsonLines() throws IOException {
+
+        // PREPARE
+        final DirectoryCompare testee = new DirectoryCompare.Builder().config(new ConfigImpl(SRC_DIR, DEST_DIR)).bidirectional(true)
+                .build();
+        final File reportFile = new File(BASE_DIR, "report.jsonl");
+
+        // TEST
+        try (final JsonLinesCompareWriter writer = new JsonLinesCompareWriter(reportFile)) {
+            testee.compare(SRC_DIR.toPath(), DEST_DIR.toPath(), writer);
+        }
+
+        // VERIFY
+        final List<String> lines = FileUtils.readLines(reportFile, StandardCharsets.UTF_8);
+        assertThat(lines).hasSize(4);
+        assertThat(lines.get(0)).startsWith("{\"type\":\"SIZE_DIFF\"").endsWith("\"srcSize\":3,\"destSize\":4}");
+        assertThat(lines.get(3)).startsWith("{\"type\":\"SRC_FILE_NOT_FOUND\"").contains("extra.txt");
+
+    }
+
+    @Test
+    public void testCompareLineDiff() {
+
+        // PREPARE
+        final DirectoryCompare testee = new DirectoryCompare.Builder().config(new ConfigImpl(SRC_DIR, DEST_DIR)).lineDiff(new LineDiff())
+                .build();
+        final CompareSummary summary = new CompareSummary(10);
+
+        // TEST
+        testee.compare(SRC_DIR.toPath(), DEST_DIR.toPath(), summary);
+
+        // VERIFY
+        final CompareFinding finding = summary.getFindings().stream().filter(f -> f.getType() == CompareFinding.Type.CONTENT_DIFF)
+                .findFirst().get();
+        assertThat(finding.getDiff()).containsExactly("@@ -1,1 +1,1 @@", "-abc", "+abd");
+
+    }
+
+    @Test
+    public void testCompareDigestCache() throws IOException {
+
+        // PREPARE
+        final File cacheFile = new File(BASE_DIR, "digests.txt");
+        final StringBuilder firstLog = new StringBuilder();
+        new DirectoryCompare.Builder().config(new ConfigImpl(SRC_DIR, DEST_DIR)).digestCache(cacheFile).build().compare(SRC_DIR.toPath(),
+                DEST_DIR.toPath(), firstLog);
+        final StringBuilder secondLog = new StringBuilder();
+
+        // TEST
+        new DirectoryCompare.Builder().config(new ConfigImpl(SRC_DIR, DEST_DIR)).digestCache(cacheFile).build().compare(SRC_DIR.toPath(),
+                DEST_DIR.toPath(), secondLog);
+
+        // VERIFY
+        assertThat(secondLog.toString()).isEqualTo(firstLog.toString()).contains("CONTENT DIFF:", "content.txt")
+                .doesNotContain("equal.txt");
+        final DigestCache cache = new DigestCache(cacheFile);
+        for (final File dir : new File[] { SRC_DIR, DEST_DIR }) {
+            final File file = new File(dir, "equal.txt").getCanonicalFile();
+            cache.digest(file.toPath(), file.length(), file.lastModified());
+        }
+        assertThat(cache.getHits()).isEqualTo(2);
+
+    }
+
+    @Test
+    public void testCompareLineTerminators() throws IOException {
+
+        // PREPARE
+        final File srcDir = new File(BASE_DIR, "terminators-src");
+        final File destDir = new File(BASE_DIR, "terminators-dest");
+        write(srcDir, "crlf.txt", "a\r\nb\r\n");
+        write(destDir, "crlf.txt", "a\nb\n");
+        write(srcDir, "eof.txt", "a\nb\n");
+        write(destDir, "eof.txt", "a\nb");
+        final DirectoryCompare testee = new DirectoryCompare.Builder().config(new ConfigImpl(srcDir, destDir)).lineDiff(new LineDiff())
+                .build();
+        final CompareSummary summary = new CompareSummary(10);
+
+        // TEST
+        testee.compare(srcDir.toPath(), destDir.toPath(), summary);
+
+        // VERIFY
+        assertThat(summary.getFindings()).hasSize(2);
+        for (final CompareFinding finding : summary.getFindings()) {
+            if (finding.getSrcFile().getFileName().toString().equals("crlf.txt")) {
+                assertThat(finding.getDiff()).containsExactly("(All lines are equal - Files differ in line terminators like CRLF and LF)");
+            } else {
+                assertThat(finding.getDiff()).containsExactly("(All lines are equal - Only one of the files ends with a line terminator)");
+            }
+        }
+
+    }
+
+    @Test
+    public void testCompareLatin1() throws IOException {
+
+        // PREPARE
+        final File srcDir = new File(BASE_DIR, "latin1-src");
+        final File destDir = new File(BASE_DIR, "latin1-dest");
+        FileUtils.write(new File(srcDir, "changed.properties"), "a=\u00e4\nb=1\n", StandardCharsets.ISO_8859_1);
+        FileUtils.write(new File(destDir, "changed.properties"), "a=\u00f6\nb=2\n", StandardCharsets.ISO_8859_1);
+        FileUtils.write(new File(srcDir, "umlaut.properties"), "a=\u00e4\n", StandardCharsets.ISO_8859_1);
+        FileUtils.write(new File(destDir, "umlaut.properties"), "a=\u00f6\n", StandardCharsets.ISO_8859_1);
+        final DirectoryCompare testee = new DirectoryCompare.Builder().config(new ConfigImpl(srcDir, destDir)).lineDiff(new LineDiff())
+                .build();
+        final CompareSummary summary = new CompareSummary(10);
+
+        // TEST
+        testee.compare(srcDir.toPath(), destDir.toPath(), summary);
+
+        // VERIFY
+        assertThat(summary.getFindings()).hasSize(2);
+        for (final CompareFinding finding : summary.getFindings()) {
+            assertThat(finding.getType()).isEqualTo(CompareFinding.Type.CONTENT_DIFF);
+            if (finding.getSrcFile().getFileName().toString().equals("changed.properties")) {
+                assertThat(finding.getDiff()).containsExactly("@@ -2,1 +2,1 @@", "-b=1", "+b=2");
+            } else {
+                assertThat(finding.getDiff())
+                        .containsExactly("(All lines are equal - Files differ in line terminators or in bytes that are not valid UTF-8)");
+            }
+        }
+
+    }
+
+    private static void write(final File dir, final String name, final String content) throws IOException {
+        FileUtils.write(new File(dir, name), content, StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link EmbeddedMavenExecutor}.
+ */
+class EmbeddedMavenExecutorTest {
+
+    private static final File WORK_DIR = new File("target/embedded-maven");
+
+    private static final File REPOSITORY_DIR = new File(WORK_DIR, "repository");
+
+    @Test
+    void testRun() throws IOException {
+
+        // PREPARE
+        final File projectDir = new File(WORK_DIR, "project");
+        FileUtils.write(new File(projectDir, "pom.xml"), "<project><modelVersion>4.0.0</modelVersion><groupId>org.fuin.test</groupId>"
+                + "<artifactId>embedded</artifactId><version>1</version><packaging>pom</packaging></project>", StandardCharsets.UTF_8);
+        final Properties properties = new Properties();
+        properties.setProperty("marchetyper.embedded.test", "true");
+
+        try (final EmbeddedMavenExecutor testee = new EmbeddedMavenExecutor(true, null)) {
+
+            // TEST
+            final MavenBuildResult first = testee.run(projectDir, REPOSITORY_DIR, properties, "validate");
+            final MavenBuildResult second = testee.run(projectDir, REPOSITORY_DIR, properties, "validate");
+
+            // VERIFY
+            for (final MavenBuildResult result : new MavenBuildResult[] { first, second }) {
+                assertThat(result.isSuccess()).isTrue();
+                assertThat(result.getBaseDir()).isEqualTo(projectDir.getAbsoluteFile());
+                assertThat(result.getModuleTimings()).hasSize(1);
+                assertThat(result.getModuleTimings().get(0).getName()).isEqualTo("embedded");
+                assertThat(result.getModuleTimings().get(0).getStatus()).isEqualTo("SUCCESS");
+            }
+            assertThat(System.getProperty("marchetyper.embedded.test")).isNull();
+            assertThat(System.getProperty("maven.multiModuleProjectDirectory")).isNull();
+
+        }
+
+    }
+
+    @Test
+    void testRunFailure() {
+
+        // PREPARE
+        final File emptyDir = new File(WORK_DIR, "empty");
+        emptyDir.mkdirs();
+
+        try (final EmbeddedMavenExecutor testee = new EmbeddedMavenExecutor(true, null)) {
+
+            // TEST & VERIFY
+            assertThatThrownBy(() -> testee.run(emptyDir, REPOSITORY_DIR, null, "validate")).isInstanceOf(IllegalStateException.class)
+                    .hasMessageStartingWith("Build failed with exit code 1").hasMessageContaining("there is no POM in this directory");
+
+        }
+
+    }
+
+}
@@ -0,0 +1,107 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link FileCopyResult}.
+ */
+class FileCopyResultTest {
+
+    private static final File BASE_DIR = new File("target/file-copy-result/archetype-resources");
+
+    private static FileCopyResult createTestee() {
+        return new FileCopyResult.Builder().addTextFile(new File(BASE_DIR, "src/main/java/b/B.java"))
+                .addBinaryFile(new File(BASE_DIR, "src/main/resources/logo.png"))
+                .addTextFile(new File(BASE_DIR, "pom.xml"))
+                .addTextFile(new File(BASE_DIR, "src/main/java/a/A.java"))
+                .addTextFile(new File(BASE_DIR, "src/main/java/a/Abc.java"))
+                .addBinaryFile(new File(BASE_DIR, "src/main/resources/favicon.ico")).build();
+    }
+
+    @Test
+    void testGetFiles() {
+
+        // TEST
+        final FileCopyResult testee = createTestee();
+
+        // VERIFY
+        assertThat(testee.getFileCount(FileType.TEXT)).isEqualTo(4);
+        assertThat(testee.getFileCount(FileType.BINARY)).isEqualTo(2);
+        assertThat(testee.getTextFiles()).containsExactly(new File(BASE_DIR, "pom.xml").getAbsoluteFile(),
+                new File(BASE_DIR, "src/main/java/a/A.java").getAbsoluteFile(),
+                new File(BASE_DIR, "src/main/java/a/Abc.java").getAbsoluteFile(),
+                new File(BASE_DIR, "src/main/java/b/B.java").getAbsoluteFile());
+        assertThat(testee.getBinaryFiles()).containsExactly(new File(BASE_DIR, "src/main/resources/favicon.ico").getAbsoluteFile(),
+                new File(BASE_DIR, "src/main/resources/logo.png").getAbsoluteFile());
+
+    }
+
+    @Test
+    void testGetRelativizedFiles() {
+
+        // PREPARE
+        final FileCopyResult testee = createTestee();
+
+        // TEST & VERIFY
+        assertThat(testee.getRelativizedTextFiles(BASE_DIR)).containsExactly(new File("pom.xml"), new File("src/main/java/a/A.java"),
+                new File("src/main/java/a/Abc.java"), new File("src/main/java/b/B.java"));
+        assertThat(testee.getRelativizedBinaryFiles(BASE_DIR.getParentFile())).containsExactly(
+                new File("archetype-resources/src/main/resources/favicon.ico"),
+                new File("archetype-resources/src/main/resources/logo.png"));
+
+    }
+
+    @Test
+    void testForEachRelative() {
+
+        // PREPARE
+        final FileCopyResult testee = createTestee();
+        final List<String> files = new ArrayList<>();
+
+        // TEST
+        testee.forEachRelative(BASE_DIR, FileType.TEXT, (dir, name) -> files.add(dir + "|" + name));
+
+        // VERIFY
+        assertThat(files).containsExactly("|pom.xml", "src/main/java/a|A.java", "src/main/java/a|Abc.java", "src/main/java/b|B.java");
+
+    }
+
+    @Test
+    void testGetRelativeFilesByDirectory() {
+
+        // PREPARE
+        final FileCopyResult testee = createTestee();
+
+        // TEST & VERIFY
+        assertThat(testee.getRelativeFilesByDirectory(BASE_DIR, FileType.TEXT)).containsExactly(entry("", List.of("pom.xml")),
+                entry("src/main/java/a", List.of("A.java", "Abc.java")), entry("src/main/java/b", List.of("B.java")));
+        assertThat(testee.getRelativeFilesByDirectory(BASE_DIR, FileType.BINARY))
+                .containsExactly(entry("src/main/resources", List.of("favicon.ico", "logo.png")));
+
+    }
+
+}
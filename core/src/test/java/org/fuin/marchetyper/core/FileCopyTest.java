@@ -0,0 +1,187 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link FileCopy}.
+ */
+class FileCopyTest {
+
+    private static FileCopy createTestee(final File baseDir, final File destDir, final int parallelism) {
+        final CompiledConfig config = CompiledConfig.of(ConfigImpl.load(new File("src/test/resources/marchetyper-config.xml")), baseDir);
+        return new FileCopy.Builder().srcBaseDir(config.getSrcDir()).destBaseDir(destDir)
+                .pathMapper(new SimplePathMapper(config.getSrcDir(), destDir, config.getPathMappings())).fileMatcher(config)
+                .defaultFilenameSelector(config.getDefaultFilenameSelector()).mappings(config.getMappings()).parallelism(parallelism)
+                .build();
+    }
+
+    private static File prepare(final String name) throws IOException {
+        final File targetTestProject = new File("target/" + name);
+        FileUtils.deleteDirectory(targetTestProject);
+        FileUtils.copyDirectory(new File("../test/src/test/resources/test-project"), targetTestProject);
+        return targetTestProject;
+    }
+
+    @Test
+    void testCopyConsumer() throws IOException {
+
+        // PREPARE
+        final File baseDir = prepare("file-copy-consumer");
+        final File expectedDir = new File(baseDir, "expected");
+        final File destDir = new File(baseDir, "actual");
+        final FileCopyResult expected = createTestee(baseDir, expectedDir, 1).copy();
+        final List<GenerationPlan.Entry> entries = new ArrayList<>();
+
+        // TEST
+        createTestee(baseDir, destDir, 3).copy(entries::add);
+
+        // VERIFY
+        assertThat(entries).hasSize(expected.getFileCount(FileType.TEXT) + expected.getFileCount(FileType.BINARY));
+        assertThat(entries.stream().filter(entry -> entry.getType() == FileType.BINARY).count())
+                .isEqualTo(expected.getFileCount(FileType.BINARY));
+        for (final GenerationPlan.Entry entry : entries) {
+            assertThat(entry.getDestFile()).exists();
+            final File expectedFile = new File(expectedDir, destDir.toPath().relativize(entry.getDestFile().toPath()).toString());
+            assertThat(entry.getDestFile()).hasSameBinaryContentAs(expectedFile);
+        }
+
+    }
+
+    @Test
+    void testStreamIsLazy() throws IOException {
+
+        // PREPARE
+        final File baseDir = prepare("file-copy-stream");
+        final File destDir = new File(baseDir, "actual");
+        final FileCopy testee = createTestee(baseDir, destDir, 1);
+
+        // TEST
+        final List<File> first;
+        try (final Stream<GenerationPlan.Entry> entries = testee.stream()) {
+            first = entries.limit(1).map(GenerationPlan.Entry::getDestFile).collect(Collectors.toList());
+        }
+
+        // VERIFY
+        assertThat(first).hasSize(1);
+        assertThat(FileUtils.listFiles(destDir, null, true)).containsExactlyElementsOf(first);
+
+    }
+
+    @Test
+    void testCopySingleFile() throws IOException {
+
+        // PREPARE
+        final File baseDir = prepare("file-copy-single");
+        final File destDir = new File(baseDir, "actual");
+        final FileCopy testee = createTestee(baseDir, destDir, 1);
+        final File srcFile = new File(baseDir, "example/src/main/java/org/fuin/examples/app/ExampleApp.java");
+
+        // TEST
+        final GenerationPlan.Entry entry = testee.copy(srcFile);
+
+        // VERIFY
+        assertThat(entry).isNotNull();
+        assertThat(entry.getType()).isEqualTo(FileType.TEXT);
+        assertThat(entry.getDestFile()).isEqualTo(new File(destDir, "src/main/java/__pkgPath__/__appName__.java"));
+        assertThat(entry.getDestFile()).content().startsWith("package ${pkgName};");
+        assertThat(FileUtils.listFiles(destDir, null, true)).containsExactly(entry.getDestFile());
+
+    }
+
+    @Test
+    void testCopySingleFileNotSelected() throws IOException {
+
+        // PREPARE
+        final File baseDir = prepare("file-copy-single-excluded");
+        final File destDir = new File(baseDir, "actual");
+        final FileCopy testee = createTestee(baseDir, destDir, 1);
+        final File srcFile = new File(baseDir, "example/debug.log");
+        FileUtils.write(srcFile, "Log", StandardCharsets.UTF_8);
+
+        // TEST
+        final GenerationPlan.Entry entry = testee.copy(srcFile);
+
+        // VERIFY
+        assertThat(entry).isNull();
+        assertThat(destDir).doesNotExist();
+
+    }
+
+    @Test
+    void testIsSelected() throws IOException {
+
+        // PREPARE
+        final File baseDir = prepare("file-copy-selected");
+        final FileCopy testee = createTestee(baseDir, new File(baseDir, "actual"), 1);
+        final File srcDir = new File(baseDir, "example");
+
+        // TEST & VERIFY
+        assertThat(testee.isSelected(new File(srcDir, "README.md"))).isTrue();
+        assertThat(testee.isSelected(new File(srcDir, ".gitignore"))).isTrue();
+        assertThat(testee.isSelected(new File(srcDir, ".project"))).isFalse();
+        assertThat(testee.isSelected(new File(srcDir, "debug.log"))).isFalse();
+
+    }
+
+    @Test
+    void testSymbolicLinkLoop() throws IOException {
+
+        // PREPARE
+        final File baseDir = prepare("file-copy-link-loop");
+        final File srcDir = new File(baseDir, "example");
+        final FileCopyResult expected = createTestee(baseDir, new File(baseDir, "expected"), 1).copy();
+        try {
+            Files.createSymbolicLink(new File(srcDir, "src/loop").toPath(), srcDir.toPath().toAbsolutePath());
+        } catch (final IOException | UnsupportedOperationException ex) {
+            assumeTrue(false, "Symbolic links not supported: " + ex);
+        }
+
+        // TEST
+        final FileCopyResult result = createTestee(baseDir, new File(baseDir, "actual"), 1).copy();
+        final List<GenerationPlan.Entry> entries;
+        try (final Stream<GenerationPlan.Entry> stream = createTestee(baseDir, new File(baseDir, "streamed"), 2).stream()) {
+            entries = stream.collect(Collectors.toList());
+        }
+
+        // VERIFY
+        final int expectedCount = expected.getFileCount(FileType.TEXT) + expected.getFileCount(FileType.BINARY);
+        assertThat(result.getFileCount(FileType.TEXT) + result.getFileCount(FileType.BINARY)).isEqualTo(expectedCount);
+        assertThat(entries).hasSize(expectedCount);
+        for (final GenerationPlan.Entry entry : entries) {
+            assertThat(entry.getBytes()).isEqualTo(entry.getSrcFile().length());
+            assertThat(entry.getMappingCount()).isZero();
+        }
+
+    }
+
+}
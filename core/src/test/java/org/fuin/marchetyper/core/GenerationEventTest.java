@@ -0,0 +1,74 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ * <p>
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ * <p>
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Test for the flight recorder events {@link PhaseEvent} and {@link FileCopyEvent}.
+ */
+class GenerationEventTest {
+
+    @Test
+    void testEventsRecorded() throws IOException {
+
+        // PREPARE
+        final File sourceTestProject = new File("../test/src/test/resources/test-project");
+        final File targetTestProject = new File("target/test-project-jfr");
+        FileUtils.deleteDirectory(targetTestProject);
+        FileUtils.copyDirectory(sourceTestProject, targetTestProject);
+        final Config config = ConfigImpl.load(new File("src/test/resources/marchetyper-config.xml"));
+        final Path jfrFile = new File("target/generation-events.jfr").toPath();
+
+        // TEST
+        try (final Recording recording = new Recording()) {
+            recording.enable("org.fuin.marchetyper.Phase");
+            recording.enable("org.fuin.marchetyper.FileCopy");
+            recording.start();
+            new MavenArchetyper(config).generate(targetTestProject);
+            recording.stop();
+            recording.dump(jfrFile);
+        }
+
+        // VERIFY
+        final List<RecordedEvent> events = RecordingFile.readAllEvents(jfrFile);
+        final List<RecordedEvent> fileEvents = events.stream()
+                .filter(event -> event.getEventType().getName().equals("org.fuin.marchetyper.FileCopy")).collect(Collectors.toList());
+        assertThat(fileEvents).hasSize(5);
+        assertThat(fileEvents).extracting(event -> event.getString("fileType")).containsOnly("TEXT", "BINARY");
+        assertThat(fileEvents).extracting(event -> event.getLong("replacements")).anyMatch(count -> count > 0);
+        assertThat(events.stream().filter(event -> event.getEventType().getName().equals("org.fuin.marchetyper.Phase"))
+                .map(event -> event.getString("phase")).collect(Collectors.toSet())).contains("DELETE", "POM", "WALK", "FILTER",
+                        "MAP_PATHS", "METADATA");
+
+    }
+
+}
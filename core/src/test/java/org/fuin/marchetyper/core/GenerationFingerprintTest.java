@@ -0,0 +1,138 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ * <p>
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ * <p>
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for the {@link GenerationFingerprint} class.
+ */
+class GenerationFingerprintTest {
+
+    @Test
+    void testCompute() throws IOException {
+
+        // PREPARE
+        final File baseDir = new File("target/fingerprint/test-project");
+        FileUtils.deleteDirectory(baseDir);
+        FileUtils.copyDirectory(new File("../test/src/test/resources/test-project"), baseDir);
+        final File configFile = new File(baseDir, "marchetyper-config.xml");
+        FileUtils.copyFile(new File("src/test/resources/marchetyper-config.xml"), configFile);
+        final Config config = ConfigImpl.load(configFile);
+        final String first = GenerationFingerprint.compute(configFile, config, baseDir);
+
+        // TEST & VERIFY
+        assertThat(GenerationFingerprint.compute(configFile, config, baseDir)).isEqualTo(first);
+
+        FileUtils.writeStringToFile(new File(baseDir, "example/build.log"), "Excluded", StandardCharsets.UTF_8);
+        assertThat(GenerationFingerprint.compute(configFile, config, baseDir)).isEqualTo(first);
+
+        final File readme = new File(baseDir, "example/README.md");
+        FileUtils.writeStringToFile(readme, "Changed", StandardCharsets.UTF_8, true);
+        assertThat(GenerationFingerprint.compute(configFile, config, baseDir)).isNotEqualTo(first);
+
+    }
+
+    @Test
+    void testComputeOptions() throws IOException {
+
+        // PREPARE
+        final File baseDir = new File("target/fingerprint/options-project");
+        FileUtils.deleteDirectory(baseDir);
+        FileUtils.copyDirectory(new File("../test/src/test/resources/test-project"), baseDir);
+        final File configFile = new File(baseDir, "marchetyper-config.xml");
+        FileUtils.copyFile(new File("src/test/resources/marchetyper-config.xml"), configFile);
+        final Config config = ConfigImpl.load(configFile);
+        final GenerationOptions configured = config.getGenerationOptions();
+        final String first = GenerationFingerprint.compute(configFile, config, baseDir);
+
+        // TEST & VERIFY
+        assertThat(GenerationFingerprint.compute(configFile, config, configured, baseDir)).isEqualTo(first);
+        assertThat(GenerationFingerprint.compute(configFile, config,
+                new GenerationOptions.Builder(configured).syncMode(SyncMode.SYNC).build(), baseDir)).isNotEqualTo(first);
+        assertThat(GenerationFingerprint.compute(configFile, config,
+                new GenerationOptions.Builder(configured).metricsFile(new File("target/metrics.json")).build(), baseDir))
+                        .isNotEqualTo(first);
+
+    }
+
+    @Test
+    void testComputeFollowsLinks() throws IOException {
+
+        // PREPARE
+        final File baseDir = new File("target/fingerprint/link-project");
+        FileUtils.deleteDirectory(baseDir);
+        FileUtils.copyDirectory(new File("../test/src/test/resources/test-project"), baseDir);
+        final File configFile = new File(baseDir, "marchetyper-config.xml");
+        FileUtils.copyFile(new File("src/test/resources/marchetyper-config.xml"), configFile);
+        final File linkedDir = new File("target/fingerprint/linked");
+        FileUtils.deleteDirectory(linkedDir);
+        final File linkedFile = new File(linkedDir, "Linked.java");
+        FileUtils.writeStringToFile(linkedFile, "class Linked {}", StandardCharsets.UTF_8);
+        try {
+            Files.createSymbolicLink(new File(baseDir, "example/linked").toPath(), linkedDir.toPath().toAbsolutePath());
+        } catch (final IOException | UnsupportedOperationException ex) {
+            assumeTrue(false, "Symbolic links not supported: " + ex);
+        }
+        final Config config = ConfigImpl.load(configFile);
+        final String first = GenerationFingerprint.compute(configFile, config, baseDir);
+
+        // TEST
+        FileUtils.writeStringToFile(linkedFile, "// Changed", StandardCharsets.UTF_8, true);
+
+        // VERIFY
+        assertThat(GenerationFingerprint.compute(configFile, config, baseDir)).isNotEqualTo(first);
+
+    }
+
+    @Test
+    void testGeneratorVersion() {
+
+        // TEST
+        final String version = GenerationFingerprint.generatorVersion();
+
+        // VERIFY
+        assertThat(version).isNotEqualTo("unknown").doesNotContain("${");
+
+    }
+
+    @Test
+    void testSaveAndMatches() {
+
+        // PREPARE
+        final File file = new File("target/fingerprint/marchetyper-fingerprint.txt");
+        file.delete();
+
+        // TEST & VERIFY
+        assertThat(GenerationFingerprint.matches(file, "abc")).isFalse();
+        GenerationFingerprint.save(file, "abc");
+        assertThat(GenerationFingerprint.matches(file, "abc")).isTrue();
+        assertThat(GenerationFingerprint.matches(file, "def")).isFalse();
+
+    }
+
+}
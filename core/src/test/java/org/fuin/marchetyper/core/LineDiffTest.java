@@ -0,0 +1,95 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ * <p>
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ * <p>
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link LineDiff}.
+ */
+public class LineDiffTest {
+
+    private static final File DIR = new File("target/" + LineDiffTest.class.getSimpleName());
+
+    @Test
+    public void testDiffEqual() throws IOException {
+
+        // PREPARE
+        final File file1 = write("equal1.txt", "a\nb\nc\n");
+        final File file2 = write("equal2.txt", "a\nb\nc\n");
+
+        // TEST
+        final List<String> result = new LineDiff().diff(file1.toPath(), file2.toPath());
+
+        // VERIFY
+        assertThat(result).isEmpty();
+
+    }
+
+    @Test
+    public void testDiffChanged() throws IOException {
+
+        // PREPARE
+        final File file1 = write("changed1.txt", "a\nb\nc\nd\ne\n");
+        final File file2 = write("changed2.txt", "a\nx\nc\ne\nf\n");
+
+        // TEST
+        final List<String> result = new LineDiff().diff(file1.toPath(), file2.toPath());
+
+        // VERIFY
+        assertThat(result).containsExactly("@@ -2,1 +2,1 @@", "-b", "+x", "@@ -4,1 +4,0 @@", "-d", "@@ -6,0 +5,1 @@", "+f");
+
+    }
+
+    @Test
+    public void testDiffMaxHunks() throws IOException {
+
+        // PREPARE
+        final StringBuilder sb1 = new StringBuilder();
+        final StringBuilder sb2 = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            sb1.append("line ").append(i).append('\n');
+            sb2.append(i % 100 == 0 ? "changed " : "line ").append(i).append('\n');
+        }
+        final File file1 = write("large1.txt", sb1.toString());
+        final File file2 = write("large2.txt", sb2.toString());
+
+        // TEST
+        final List<String> result = new LineDiff(2, 10).diff(file1.toPath(), file2.toPath());
+
+        // VERIFY
+        assertThat(result).containsExactly("@@ -1,1 +1,1 @@", "-line 0", "+changed 0", "@@ -101,1 +101,1 @@", "-line 100", "+changed 100",
+                "... (more differences not shown)");
+
+    }
+
+    private static File write(final String name, final String content) throws IOException {
+        final File file = new File(DIR, name);
+        FileUtils.write(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+
+}
@@ -18,12 +18,17 @@
 package org.fuin.marchetyper.core;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
 
 import org.apache.commons.io.FileUtils;
+import org.fuin.marchetyper.core.GenerationMetrics.Phase;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -54,4 +59,157 @@ public class MavenArchetyperTest {
 
     }
 
+    @Test
+    public void testPlan() throws IOException {
+
+        // PREPARE
+        final File sourceTestProject = new File("../test/src/test/resources/test-project");
+        final File targetTestProject = new File("target/test-project-plan");
+        FileUtils.deleteDirectory(targetTestProject);
+        FileUtils.copyDirectory(sourceTestProject, targetTestProject);
+        FileUtils.deleteDirectory(new File(targetTestProject, "archetype"));
+        final Config config = ConfigImpl.load(new File("src/test/resources/marchetyper-config.xml"));
+
+        // TEST
+        final GenerationPlan plan = new MavenArchetyper(config).plan(targetTestProject);
+
+        // VERIFY
+        assertThat(new File(targetTestProject, "archetype")).doesNotExist();
+        assertThat(plan.getFileCount(FileType.TEXT)).isEqualTo(4);
+        assertThat(plan.getFileCount(FileType.BINARY)).isEqualTo(1);
+        assertThat(plan.getEntries()).extracting(entry -> entry.getDestFile().getName()).contains("pom.xml", "README.md",
+                "__appName__.java", "__appName__Test.java", ".gitignore");
+        assertThat(plan.getByteCount()).isEqualTo(plan.getByteCount(FileType.TEXT) + plan.getByteCount(FileType.BINARY));
+
+    }
+
+    @Test
+    public void testGenerateMetrics() throws IOException {
+
+        // PREPARE
+        final File sourceTestProject = new File("../test/src/test/resources/test-project");
+        final File targetTestProject = new File("target/test-project-metrics");
+        FileUtils.deleteDirectory(targetTestProject);
+        FileUtils.copyDirectory(sourceTestProject, targetTestProject);
+        final Config config = ConfigImpl.load(new File("src/test/resources/marchetyper-config.xml"));
+
+        // TEST
+        final GenerationMetrics metrics = new MavenArchetyper(config).generate(targetTestProject);
+
+        // VERIFY
+        assertThat(metrics.getTextFiles()).isEqualTo(4);
+        assertThat(metrics.getBinaryFiles()).isEqualTo(1);
+        assertThat(metrics.getReplacements()).isGreaterThan(0);
+        assertThat(metrics.getBytesIn()).isGreaterThan(0);
+        assertThat(metrics.getMatcherEvaluations()).isGreaterThan(0);
+        assertThat(metrics.getMappingEvaluations()).isGreaterThan(0);
+        assertThat(metrics.toJson()).contains("\"phaseMillis\"", "\"textFiles\":4");
+
+    }
+
+    @Test
+    public void testGenerateCancelledByListener() throws IOException {
+
+        // PREPARE
+        final File sourceTestProject = new File("../test/src/test/resources/test-project");
+        final File targetTestProject = new File("target/test-project-cancel");
+        FileUtils.deleteDirectory(targetTestProject);
+        FileUtils.copyDirectory(sourceTestProject, targetTestProject);
+        final Config config = ConfigImpl.load(new File("src/test/resources/marchetyper-config.xml"));
+        final List<Phase> phases = new ArrayList<>();
+        final List<Integer> walked = new ArrayList<>();
+        final List<Integer> finished = new ArrayList<>();
+        final GenerationListener listener = new GenerationListener() {
+
+            @Override
+            public Signal onPhase(final Phase phase) {
+                phases.add(phase);
+                return Signal.CONTINUE;
+            }
+
+            @Override
+            public Signal onWalk(final int fileCount, final long byteCount) {
+                walked.add(fileCount);
+                return Signal.CONTINUE;
+            }
+
+            @Override
+            public Signal onFileFinish(final File srcFile, final File destFile, final FileType type, final int fileCount,
+                    final long byteCount) {
+                finished.add(fileCount);
+                return fileCount == 2 ? Signal.CANCEL : Signal.CONTINUE;
+            }
+
+        };
+
+        // TEST & VERIFY
+        assertThatThrownBy(() -> new MavenArchetyper(config, listener).generate(targetTestProject))
+                .isInstanceOf(CancellationException.class);
+        assertThat(phases).containsExactly(Phase.DELETE, Phase.POM, Phase.WALK, Phase.FILTER);
+        assertThat(walked).containsExactly(5);
+        assertThat(finished).containsExactly(1, 2);
+
+    }
+
+    @Test
+    public void testGenerateWithOptions() throws IOException {
+
+        // PREPARE
+        final File sourceTestProject = new File("../test/src/test/resources/test-project");
+        final File expectedProject = new File("target/test-project-options-expected");
+        final File targetTestProject = new File("target/test-project-options");
+        FileUtils.deleteDirectory(expectedProject);
+        FileUtils.deleteDirectory(targetTestProject);
+        FileUtils.copyDirectory(sourceTestProject, expectedProject);
+        FileUtils.copyDirectory(sourceTestProject, targetTestProject);
+        final Config config = ConfigImpl.load(new File("src/test/resources/marchetyper-config.xml"));
+        new MavenArchetyper(config).generate(expectedProject);
+        final GenerationOptions options = new GenerationOptions.Builder().parallelism(4).replacementEngine(ReplacementEngine.IN_MEMORY)
+                .binaryCopy(BinaryCopyStrategy.HARD_LINK).syncMode(SyncMode.SYNC).metricsFile(new File("metrics.json")).build();
+        final File archetypeDir = new File(targetTestProject, "archetype");
+        final File archetypeResources = new File(archetypeDir, "src/main/resources/archetype-resources");
+        final File metadataFile = new File(archetypeDir, "src/main/resources/META-INF/maven/archetype-metadata.xml");
+        final File staleFile = new File(archetypeResources, "stale/Stale.java");
+        final File stalePostGenerateFile = new File(archetypeDir, "src/main/resources/META-INF/archetype-post-generate.groovy");
+        FileUtils.write(staleFile, "class Stale {}", StandardCharsets.UTF_8);
+        FileUtils.write(stalePostGenerateFile, "println 'Stale'", StandardCharsets.UTF_8);
+
+        // TEST
+        new MavenArchetyper(config, options, null).generate(targetTestProject);
+
+        // VERIFY
+        assertThat(staleFile).doesNotExist();
+        assertThat(staleFile.getParentFile()).doesNotExist();
+        assertThat(stalePostGenerateFile).doesNotExist();
+        assertThat(new File(targetTestProject, "metrics.json")).exists();
+        final File expectedResources = new File(expectedProject, "archetype/src/main/resources/archetype-resources");
+        final List<File> expectedFiles = new ArrayList<>(FileUtils.listFiles(expectedResources, null, true));
+        assertThat(FileUtils.listFiles(archetypeResources, null, true)).hasSameSizeAs(expectedFiles);
+        for (final File expectedFile : expectedFiles) {
+            final File actualFile = new File(archetypeResources, expectedResources.toPath().relativize(expectedFile.toPath()).toString());
+            assertThat(actualFile).hasSameBinaryContentAs(expectedFile);
+        }
+
+        // PREPARE
+        final long lastModified = (System.currentTimeMillis() / 1000 - 3600) * 1000;
+        for (final File file : FileUtils.listFiles(archetypeDir, null, true)) {
+            assertThat(file.setLastModified(lastModified)).isTrue();
+        }
+        FileUtils.delete(new File(targetTestProject, "example/src/test/java/org/fuin/examples/app/ExampleAppTest.java"));
+
+        // TEST
+        new MavenArchetyper(config, options, null).generate(targetTestProject);
+
+        // VERIFY
+        assertThat(new File(archetypeResources, "src/test")).doesNotExist();
+        assertThat(metadataFile).content().doesNotContain("__appName__Test.java");
+        for (final File file : FileUtils.listFiles(archetypeDir, null, true)) {
+            if (!file.equals(metadataFile)) {
+                assertThat(file.lastModified()).as(file.toString()).isEqualTo(lastModified);
+            }
+        }
+        assertThat(FileUtils.listFiles(archetypeResources, null, true)).hasSize(expectedFiles.size() - 1);
+
+    }
+
 }
@@ -0,0 +1,110 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ * <p>
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ * <p>
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.fuin.marchetyper.core.MavenBuildResult.ModuleTiming;
+import org.fuin.marchetyper.core.MavenBuildResult.MojoTiming;
+import org.junit.jupiter.api.Test;
+import org.slf4j.event.Level;
+
+/**
+ * Test for the {@link MavenOutputHandler} class.
+ */
+class MavenOutputHandlerTest {
+
+    @Test
+    void testToResult() {
+
+        // PREPARE
+        final AtomicLong now = new AtomicLong();
+        final MavenOutputHandler testee = new MavenOutputHandler(3, Level.INFO, now::get);
+
+        // TEST
+        testee.consumeLine("[INFO] -------------------< org.fuin.examples:example-app >--------------------");
+        testee.consumeLine("[INFO] --- maven-resources-plugin:3.3.1:resources (default-resources) @ example-app ---");
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(150));
+        testee.consumeLine("[INFO] \u001B[1m--- compiler:3.11.0:compile (default-compile) @ example-app ---\u001B[m");
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1200));
+        testee.consumeLine("[INFO] Reactor Summary for Example 0.1.0-SNAPSHOT:");
+        testee.consumeLine("[INFO] example-parent ..................................... SUCCESS [  0.512 s]");
+        testee.consumeLine("[INFO] example-app ........................................ FAILURE [01:02 min]");
+        testee.consumeLine("[INFO] BUILD FAILURE");
+        testee.consumeLine("[INFO] Total time:  1.861 s (Wall Clock)");
+        final MavenBuildResult result = testee.toResult(new File("."), 1, 2000);
+
+        // VERIFY
+        assertThat(result.isSuccess()).isFalse();
+        assertThat(result.getDurationMillis()).isEqualTo(2000);
+        assertThat(result.getTotalTimeMillis()).isEqualTo(1861);
+        assertThat(result.getMojoTimings()).extracting(MojoTiming::getPlugin, MojoTiming::getGoal, MojoTiming::getMillis)
+                .containsExactly(tuple("maven-resources-plugin:3.3.1", "resources", 150L),
+                        tuple("compiler:3.11.0", "compile", 1200L));
+        assertThat(result.getModuleTimings()).extracting(ModuleTiming::getName, ModuleTiming::getStatus, ModuleTiming::getMillis)
+                .containsExactly(tuple("example-parent", "SUCCESS", 512L),
+                        tuple("example-app", "FAILURE", 62000L));
+        assertThat(result.getOutputTail()).containsExactly(
+                "[INFO] example-app ........................................ FAILURE [01:02 min]", "[INFO] BUILD FAILURE",
+                "[INFO] Total time:  1.861 s (Wall Clock)");
+
+    }
+
+    @Test
+    void testToResultParallel() {
+
+        // PREPARE
+        final AtomicLong now = new AtomicLong();
+        final MavenOutputHandler testee = new MavenOutputHandler(3, Level.DEBUG, now::get);
+
+        // TEST
+        testee.consumeLine("[INFO] Using the MultiThreadedBuilder implementation with a thread count of 4");
+        testee.consumeLine("[INFO] --- resources:3.3.1:resources (default-resources) @ example-a ---");
+        testee.consumeLine("[INFO] --- resources:3.3.1:resources (default-resources) @ example-b ---");
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(150));
+        testee.consumeLine("[INFO] example-a .......................................... SUCCESS [  0,512 s]");
+        testee.consumeLine("[INFO] Total time:  1,861 s (Wall Clock)");
+        final MavenBuildResult result = testee.toResult(new File("."), 0, 2000);
+
+        // VERIFY
+        assertThat(result.getMojoTimings()).isEmpty();
+        assertThat(result.getModuleTimings()).extracting(ModuleTiming::getName, ModuleTiming::getMillis)
+                .containsExactly(tuple("example-a", 512L));
+        assertThat(result.getTotalTimeMillis()).isEqualTo(1861);
+
+    }
+
+    @Test
+    void testParseTime() {
+
+        assertThat(MavenOutputHandler.parseTime("1.234 s")).isEqualTo(1234);
+        assertThat(MavenOutputHandler.parseTime("1,234 s")).isEqualTo(1234);
+        assertThat(MavenOutputHandler.parseTime(" 12 s")).isEqualTo(12000);
+        assertThat(MavenOutputHandler.parseTime("01:02 min")).isEqualTo(62000);
+        assertThat(MavenOutputHandler.parseTime("02:30 h")).isEqualTo(9000000);
+        assertThat(MavenOutputHandler.parseTime("whatever")).isEqualTo(MavenBuildResult.UNKNOWN_TIME);
+        assertThat(MavenOutputHandler.parseTime(null)).isEqualTo(MavenBuildResult.UNKNOWN_TIME);
+
+    }
+
+}
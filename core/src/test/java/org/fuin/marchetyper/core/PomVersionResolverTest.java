@@ -0,0 +1,107 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ * <p>
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ * <p>
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for the {@link PomVersionResolver} class.
+ */
+class PomVersionResolverTest {
+
+    private static final File DIR = new File("target/pom-version-resolver");
+
+    @Test
+    void testResolveProjectVersion() throws IOException {
+
+        // PREPARE
+        final File pomFile = pom("project.xml", "<parent><version>1.0.0</version></parent>" //
+                + "<artifactId>a</artifactId><version>2.0.0</version><properties><version>3.0.0</version></properties>");
+
+        // TEST & VERIFY
+        assertThat(PomVersionResolver.resolve(pomFile)).isEqualTo("2.0.0");
+
+    }
+
+    @Test
+    void testResolveParentVersion() throws IOException {
+
+        // PREPARE
+        final File pomFile = pom("parent.xml", "<parent><groupId>g</groupId><version> 1.0.0 </version></parent><artifactId>a</artifactId>");
+
+        // TEST & VERIFY
+        assertThat(PomVersionResolver.resolve(pomFile)).isEqualTo("1.0.0");
+
+    }
+
+    @Test
+    void testResolveVariable() throws IOException {
+
+        // PREPARE
+        final File pomFile = pom("variable.xml", "<version>${revision}</version>");
+
+        // TEST & VERIFY
+        assertThatThrownBy(() -> PomVersionResolver.resolve(pomFile)).isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Version with variable is not supported: '${revision}'");
+
+    }
+
+    @Test
+    void testResolveMissing() throws IOException {
+
+        // PREPARE
+        final File pomFile = pom("missing.xml", "<artifactId>a</artifactId>");
+
+        // TEST & VERIFY
+        assertThatThrownBy(() -> PomVersionResolver.resolve(pomFile)).isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Version not available");
+
+    }
+
+    @Test
+    void testResolveChangedFile() throws IOException {
+
+        // PREPARE
+        final File pomFile = pom("changed.xml", "<version>1.0.0</version>");
+        assertThat(PomVersionResolver.resolve(pomFile)).isEqualTo("1.0.0");
+
+        // TEST
+        pom("changed.xml", "<version>1.0.10</version>");
+
+        // VERIFY
+        assertThat(PomVersionResolver.resolve(pomFile)).isEqualTo("1.0.10");
+
+    }
+
+    private static File pom(final String name, final String content) throws IOException {
+        final File file = new File(DIR, name);
+        FileUtils.writeStringToFile(file,
+                "<project xmlns=\"http://maven.apache.org/POM/4.0.0\"><modelVersion>4.0.0</modelVersion>" + content + "</project>",
+                StandardCharsets.UTF_8);
+        return file;
+    }
+
+}
@@ -0,0 +1,95 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ * <p>
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ * <p>
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link ReverseMappingVerifier}.
+ */
+public class ReverseMappingVerifierTest {
+
+    @Test
+    public void testCompareEqual() throws IOException {
+
+        // PREPARE
+        final File targetTestProject = prepare("target/" + this.getClass().getSimpleName() + "-equal");
+        final Config config = ConfigImpl.load(new File("src/test/resources/marchetyper-config.xml"));
+        new MavenArchetyper(config).generate(targetTestProject);
+        final StringBuilder log = new StringBuilder();
+
+        // TEST
+        new ReverseMappingVerifier(config).compare(config.getSrcDir(targetTestProject), config.getDestDir(targetTestProject), log);
+
+        // VERIFY
+        assertThat(log.toString()).isEmpty();
+
+    }
+
+    @Test
+    public void testCompareDifferent() throws IOException {
+
+        // PREPARE
+        final File targetTestProject = prepare("target/" + this.getClass().getSimpleName() + "-different");
+        final Config config = ConfigImpl.load(new File("src/test/resources/marchetyper-config.xml"));
+        new MavenArchetyper(config).generate(targetTestProject);
+        final File readme = new File(targetTestProject, "archetype/src/main/resources/archetype-resources/README.md");
+        FileUtils.write(readme, "${appName}", StandardCharsets.UTF_8, true);
+        final StringBuilder log = new StringBuilder();
+
+        // TEST
+        new ReverseMappingVerifier(config).compare(config.getSrcDir(targetTestProject), config.getDestDir(targetTestProject), log);
+
+        // VERIFY
+        assertThat(log.toString()).startsWith("CONTENT DIFF:").contains("README.md");
+
+    }
+
+    @Test
+    public void testRender() {
+
+        // PREPARE
+        final Map<String, String> values = new HashMap<>();
+        values.put("a", "1");
+        values.put("b", "2");
+
+        // TEST & VERIFY
+        assertThat(ReverseMappingVerifier.render("x${a}y${b}z", values)).isEqualTo("x1y2z");
+        assertThat(ReverseMappingVerifier.render("${unknown}${a}", values)).isEqualTo("${unknown}1");
+        assertThat(ReverseMappingVerifier.render("${a", values)).isEqualTo("${a");
+
+    }
+
+    private static File prepare(final String dir) throws IOException {
+        final File sourceTestProject = new File("../test/src/test/resources/test-project");
+        final File targetTestProject = new File(dir);
+        FileUtils.deleteDirectory(targetTestProject);
+        FileUtils.copyDirectory(sourceTestProject, targetTestProject);
+        return targetTestProject;
+    }
+
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link TextReplacer}.
+ */
+class TextReplacerTest {
+
+    private static final File FILE = new File("Example.java");
+
+    private static final List<Mapping> MAPPINGS = Arrays.asList(new Mapping("$", "${symbol_dollar}"), new Mapping("#", "${symbol_pound}"),
+            new Mapping("org.fuin", "${groupId}"), new Mapping("org", "${tld}"), new Mapping("\u00c4", "${umlaut}"),
+            new Mapping("Other", "Foo", null, ".*\\.xml"));
+
+    @Test
+    void testReplace() {
+
+        // PREPARE
+        final TextReplacer testee = new TextReplacer(FILE, null, MAPPINGS);
+
+        // TEST
+        final String result = testee.replace("package org.fuin.example; // $x #y org Other \u00c4");
+
+        // VERIFY
+        assertThat(result).isEqualTo("package ${groupId}.example; // ${symbol_dollar}x ${symbol_pound}y ${tld} Other ${umlaut}");
+        assertThat(testee.getReplacementCount()).isEqualTo(5);
+
+    }
+
+    @Test
+    void testSameAsReplacingFileReader() throws IOException {
+
+        final String[] texts = new String[] { "", "org", "or", "$$##", "a\u0000org", "org.fuin.orgorg.fuin", "\u00c4\u00c4 x \u00c4",
+                "no match at all" };
+        for (final String text : texts) {
+
+            // PREPARE
+            final TextReplacer testee = new TextReplacer(FILE, null, MAPPINGS);
+            final String expected;
+            final long expectedCount;
+            try (final ReplacingFileReader reader = new ReplacingFileReader.Builder(FILE, new StringReader(text)).mappings(MAPPINGS)
+                    .build()) {
+                expected = IOUtils.toString(reader);
+                expectedCount = reader.getReplacementCount();
+            }
+
+            // TEST
+            final String result = testee.replace(text);
+
+            // VERIFY
+            assertThat(result).as(text).isEqualTo(expected);
+            assertThat(testee.getReplacementCount()).as(text).isEqualTo(expectedCount);
+
+        }
+
+    }
+
+    @Test
+    void testNoMappings() {
+
+        // PREPARE
+        final TextReplacer testee = new TextReplacer(FILE, null, MAPPINGS.subList(5, 6));
+
+        // TEST & VERIFY
+        assertThat(testee.replace("Other\u0000Other")).isEqualTo("Other\u0000Other");
+        assertThat(testee.getReplacementCount()).isZero();
+
+    }
+
+}
@@ -21,20 +21,28 @@ import java.io.File;
 
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Component;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
+import org.fuin.marchetyper.core.BinaryCopyStrategy;
 import org.fuin.marchetyper.core.Config;
+import org.fuin.marchetyper.core.ConfigCache;
 import org.fuin.marchetyper.core.ConfigImpl;
+import org.fuin.marchetyper.core.GenerationFingerprint;
+import org.fuin.marchetyper.core.GenerationMetrics;
+import org.fuin.marchetyper.core.GenerationOptions;
 import org.fuin.marchetyper.core.MavenArchetyper;
+import org.fuin.marchetyper.core.ReplacementEngine;
+import org.fuin.marchetyper.core.SyncMode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.slf4j.impl.StaticLoggerBinder;
+import org.sonatype.plexus.build.incremental.BuildContext;
 
 /**
  * A customizable source code generator plugin for maven.
  */
-@Mojo(name = "generate", defaultPhase = LifecyclePhase.VERIFY)
+@Mojo(name = "generate", defaultPhase = LifecyclePhase.VERIFY, threadSafe = true)
 public final class MarchetyperGenerateMojo extends AbstractMojo {
 
     private static final Logger LOG = LoggerFactory.getLogger(MarchetyperGenerateMojo.class);
@@ -51,19 +59,145 @@ public final class MarchetyperGenerateMojo extends AbstractMojo {
     @Parameter(property = "configFile", defaultValue = "${basedir}/marchetyper-config.xml", readonly = true)
     private File configFile;
 
+    /**
+     * Reuse the parsed configuration of a previous execution in the same JVM (for example a Maven daemon) as long as the configuration
+     * file is unchanged.
+     */
+    @Parameter(property = "marchetyper.configCache", defaultValue = "true")
+    private boolean configCache;
+
+    /**
+     * Generate the archetype even if no input changed since the last generation.
+     */
+    @Parameter(property = "marchetyper.force", defaultValue = "false")
+    private boolean force;
+
+    /**
+     * File with the fingerprint of the inputs of the last generation. The generation is skipped if the inputs are unchanged.
+     */
+    @Parameter(property = "marchetyper.fingerprintFile", defaultValue = "${project.build.directory}/marchetyper-fingerprint.txt")
+    private File fingerprintFile;
+
+    /**
+     * Number of threads used to copy the files. Overrides the 'parallelism' attribute of the configuration.
+     */
+    @Parameter(property = "marchetyper.parallelism")
+    private Integer parallelism;
+
+    /**
+     * Implementation that applies the mappings to text files: STREAMING or IN_MEMORY. Overrides the 'replacement-engine' attribute of the
+     * configuration.
+     */
+    @Parameter(property = "marchetyper.replacementEngine")
+    private ReplacementEngine replacementEngine;
+
+    /**
+     * How binary files are transferred: COPY or HARD_LINK. Overrides the 'binary-copy' attribute of the configuration.
+     */
+    @Parameter(property = "marchetyper.binaryCopy")
+    private BinaryCopyStrategy binaryCopy;
+
+    /**
+     * How an existing destination directory is treated: CLEAN or SYNC. Overrides the 'sync-mode' attribute of the configuration.
+     */
+    @Parameter(property = "marchetyper.syncMode")
+    private SyncMode syncMode;
+
+    /**
+     * File to write the metrics of the generation to as JSON. Overrides the 'metrics-file' attribute of the configuration.
+     */
+    @Parameter(property = "marchetyper.metricsFile")
+    private File metricsFile;
+
+    @Component
+    private BuildContext buildContext;
+
     @Override
     public void execute() throws MojoExecutionException {
 
-        StaticLoggerBinder.getSingleton().setMavenLog(getLog());
-
         if (!configFile.exists()) {
             throw new MojoExecutionException(configFile + " does not exist");
         }
         LOG.info("Using config file: {}", configFile);
 
-        final Config config = ConfigImpl.load(configFile);
-        new MavenArchetyper(config).generate(baseDir);
+        final Config config;
+        if (configCache) {
+            config = ConfigCache.load(configFile, baseDir);
+        } else {
+            config = ConfigImpl.load(configFile);
+        }
+        final File destDir = config.getDestDir(baseDir);
+        final GenerationOptions options = options(config.getGenerationOptions());
+        final File resolvedMetricsFile = options.getMetricsFile(baseDir);
+        final boolean skippable = !force && destDir.isDirectory() && (resolvedMetricsFile == null || resolvedMetricsFile.exists());
+        if (skippable && buildContext.isIncremental() && !hasDelta(config)) {
+            LOG.info("No input changed since the last build: {}", destDir);
+            return;
+        }
+        final String fingerprint = GenerationFingerprint.compute(configFile, config, options, baseDir);
+        if (skippable && GenerationFingerprint.matches(fingerprintFile, fingerprint)) {
+            LOG.info("Archetype is up to date: {}", destDir);
+            return;
+        }
+
+        buildContext.removeMessages(configFile);
+        final GenerationMetrics metrics;
+        try {
+            metrics = new MavenArchetyper(config, options, null).generate(baseDir);
+        } catch (final RuntimeException ex) {
+            buildContext.addMessage(configFile, 0, 0, "Error generating the archetype: " + ex.getMessage(), BuildContext.SEVERITY_ERROR,
+                    ex);
+            throw new MojoExecutionException("Error generating the archetype: " + destDir, ex);
+        }
+        LOG.info(metrics.toSummary());
+        GenerationFingerprint.save(fingerprintFile, fingerprint);
+        buildContext.refresh(destDir);
+
+    }
+
+    /**
+     * Determines if the incremental build context reports a change of any input of the generation. The project POM is included as it
+     * contains the plugin configuration. Only called for incremental builds, for example inside an IDE, so the source tree does not have
+     * to be walked if nothing changed.
+     * 
+     * @param config
+     *            Configuration.
+     * 
+     * @return {@literal true} if at least one input changed.
+     */
+    private boolean hasDelta(final Config config) {
+        final File[] inputs = new File[] { configFile, new File(baseDir, "pom.xml"), config.getArchetype().getVersionPomFile(baseDir),
+                config.getCustomPomFile(baseDir), config.getPostGenerateFile(baseDir), config.getSrcDir(baseDir) };
+        for (final File input : inputs) {
+            if (input != null && buildContext.hasDelta(input)) {
+                return true;
+            }
+        }
+        return false;
+    }
 
+    private GenerationOptions options(final GenerationOptions configured) throws MojoExecutionException {
+        final GenerationOptions.Builder builder = new GenerationOptions.Builder(configured);
+        if (parallelism != null) {
+            builder.parallelism(parallelism);
+        }
+        if (replacementEngine != null) {
+            builder.replacementEngine(replacementEngine);
+        }
+        if (binaryCopy != null) {
+            builder.binaryCopy(binaryCopy);
+        }
+        if (syncMode != null) {
+            builder.syncMode(syncMode);
+        }
+        if (metricsFile != null) {
+            builder.metricsFile(metricsFile);
+        }
+        try {
+            return builder.build();
+        } catch (final IllegalStateException ex) {
+            throw new MojoExecutionException("Invalid generation options: " + ex.getMessage(), ex);
+        }
     }
 
 }
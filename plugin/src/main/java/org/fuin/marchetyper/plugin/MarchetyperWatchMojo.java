@@ -0,0 +1,81 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.marchetyper.plugin;
+
+import java.io.File;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.fuin.marchetyper.core.ArchetypeWatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Generates the archetype and regenerates the changed files whenever the example project or the configuration changes. The goal runs
+ * until the build is stopped (for example with Ctrl+C).
+ */
+@Mojo(name = "watch", threadSafe = true)
+public final class MarchetyperWatchMojo extends AbstractMojo {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MarchetyperWatchMojo.class);
+
+    /**
+     * The base directory.
+     */
+    @Parameter(property = "basedir", defaultValue = "${basedir}", readonly = true)
+    private File baseDir;
+
+    /**
+     * The configuration file.
+     */
+    @Parameter(property = "configFile", defaultValue = "${basedir}/marchetyper-config.xml", readonly = true)
+    private File configFile;
+
+    /**
+     * Time in milliseconds without further file system events before the changes are processed.
+     */
+    @Parameter(property = "marchetyper.debounceMillis", defaultValue = "300")
+    private long debounceMillis;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+
+        if (!configFile.exists()) {
+            throw new MojoExecutionException(configFile + " does not exist");
+        }
+        LOG.info("Watching config file: {}", configFile);
+
+        final ArchetypeWatcher watcher = new ArchetypeWatcher.Builder().configFile(configFile).baseDir(baseDir)
+                .debounceMillis(debounceMillis).build();
+        final Thread shutdownHook = new Thread(watcher::close);
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+        try {
+            watcher.run();
+        } finally {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (final IllegalStateException ex) {
+                // Already shutting down
+            }
+        }
+
+    }
+
+}
@@ -122,7 +122,8 @@ public class MarchetyperMojoTest {
 
         // VERIFY
         generateVerifier.verifyErrorFreeLog();
-        new DirectoryCompare(config).verify(srcDir, tmpDir);
+        new DirectoryCompare.Builder().config(config).digestCache(new File("target/marchetyper-digests.txt")).build().verify(srcDir,
+                tmpDir);
 
     }
 
@@ -0,0 +1,98 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.fuin.marchetyper.core.Config;
+import org.fuin.marchetyper.core.ConfigImpl;
+import org.fuin.marchetyper.core.GenerationMetrics;
+import org.fuin.marchetyper.core.GenerationMetrics.Phase;
+import org.fuin.marchetyper.core.MavenArchetyper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Generates synthetic projects of growing size and verifies that the time per file stays roughly the same. The test depends on wall clock
+ * timings and is therefore only executed if the sizes are set with the system property 'marchetyper.scaling.sizes', for example
+ * '-Dmarchetyper.scaling.sizes=500,2000,8000'.
+ */
+@EnabledIfSystemProperty(named = ScalingTest.SIZES_PROPERTY, matches = "\\d+(\\s*,\\s*\\d+)*")
+public class ScalingTest {
+
+    // CHECKSTYLE:OFF Test
+
+    private static final Logger LOG = LoggerFactory.getLogger(ScalingTest.class);
+
+    static final String SIZES_PROPERTY = "marchetyper.scaling.sizes";
+
+    /** Maximum factor the time per file of the largest project may exceed the one of the smallest. */
+    private static final double MAX_FACTOR = 3.0;
+
+    private static final Phase[] PER_FILE_PHASES = { Phase.WALK, Phase.FILTER, Phase.MAP_PATHS, Phase.COPY_TEXT, Phase.COPY_BINARY,
+            Phase.METADATA };
+
+    @Test
+    public void testTimePerFileIsRoughlyConstant() {
+
+        // PREPARE
+        final List<Integer> sizes = new ArrayList<>();
+        for (final String size : System.getProperty(SIZES_PROPERTY).split(",")) {
+            sizes.add(Integer.valueOf(size.trim()));
+        }
+        // Warm up class loading and JIT with the smallest size
+        generate(sizes.get(0));
+
+        // TEST
+        final List<Double> nanosPerFile = new ArrayList<>();
+        for (final int size : sizes) {
+            final GenerationMetrics metrics = generate(size);
+            long millis = 0;
+            for (final Phase phase : PER_FILE_PHASES) {
+                millis += metrics.getPhaseMillis(phase);
+            }
+            final double perFile = millis * 1000000.0 / size;
+            nanosPerFile.add(perFile);
+            LOG.info("Scaling: {} files in {} ms, {} us/file", size, metrics.getWallMillis(), Math.round(perFile / 1000));
+        }
+
+        // VERIFY
+        final double first = Math.max(nanosPerFile.get(0), 1000.0);
+        final double last = nanosPerFile.get(nanosPerFile.size() - 1);
+        assertThat(last).isLessThanOrEqualTo(first * MAX_FACTOR);
+
+    }
+
+    private static GenerationMetrics generate(final int fileCount) {
+        final SyntheticProject project = new SyntheticProject.Builder().fileCount(fileCount).build();
+        final File configFile = project.create(new File("target/scaling/project-" + fileCount));
+        final Config config = ConfigImpl.load(configFile);
+        final GenerationMetrics metrics = new MavenArchetyper(config).generate(configFile.getParentFile());
+        assertThat(metrics.getTextFiles()).isEqualTo(project.getTextFileCount());
+        assertThat(metrics.getBinaryFiles()).isEqualTo(project.getBinaryFileCount());
+        assertThat(metrics.getReplacements()).isGreaterThan(0);
+        return metrics;
+    }
+
+}
@@ -0,0 +1,369 @@
+/**
+ * Copyright (C) 2023 Future Invent IT Consulting GmbH. All rights reserved.
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.marchetyper.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Creates a deterministic synthetic archetype project with an 'example' directory and a matching 'marchetyper/marchetyper-config.xml'.
+ * The same settings always create the same files with the same content. All files are located below 'src/main/java/org/fuin/synthetic',
+ * so the path mapping applies to every file.
+ */
+public final class SyntheticProject {
+
+    private int fileCount;
+
+    private int depth;
+
+    private int fanOut;
+
+    private int binaryPercent;
+
+    private int minFileSize;
+
+    private int maxFileSize;
+
+    private SizeDistribution sizeDistribution;
+
+    private int mappingCount;
+
+    private int hitsPerKilobyte;
+
+    private long seed;
+
+    private SyntheticProject() {
+        super();
+        depth = 4;
+        fanOut = 8;
+        binaryPercent = 10;
+        minFileSize = 256;
+        maxFileSize = 16384;
+        sizeDistribution = SizeDistribution.SKEWED;
+        mappingCount = 10;
+        hitsPerKilobyte = 2;
+        seed = 4711L;
+    }
+
+    /**
+     * Returns the number of files in the example directory.
+     * 
+     * @return Number of files.
+     */
+    public int getFileCount() {
+        return fileCount;
+    }
+
+    /**
+     * Returns the number of files in the example directory that are copied as binary files.
+     * 
+     * @return Number of binary files.
+     */
+    public int getBinaryFileCount() {
+        int count = 0;
+        for (int i = 0; i < fileCount; i++) {
+            if (isBinary(i)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of files in the example directory that are copied as text files.
+     * 
+     * @return Number of text files.
+     */
+    public int getTextFileCount() {
+        return fileCount - getBinaryFileCount();
+    }
+
+    /**
+     * Creates the project.
+     * 
+     * @param baseDir
+     *            Directory to create the 'example' and 'marchetyper' directories in. An existing directory is deleted first.
+     * 
+     * @return Configuration file.
+     */
+    public File create(final File baseDir) {
+        try {
+            FileUtils.deleteDirectory(baseDir);
+            final File exampleDir = new File(baseDir, "example");
+            final Random random = new Random(seed);
+            final byte[] buffer = new byte[maxFileSize];
+            for (int i = 0; i < fileCount; i++) {
+                final int size = size(random);
+                final File file = new File(exampleDir, path(i));
+                if (isBinary(i)) {
+                    random.nextBytes(buffer);
+                    FileUtils.writeByteArrayToFile(file, buffer, 0, size);
+                } else {
+                    FileUtils.writeStringToFile(file, text(random, i, size), StandardCharsets.UTF_8);
+                }
+            }
+            final File configFile = new File(new File(baseDir, "marchetyper"), "marchetyper-config.xml");
+            FileUtils.writeStringToFile(configFile, config(), StandardCharsets.UTF_8);
+            return configFile;
+        } catch (final IOException ex) {
+            throw new RuntimeException("Error creating synthetic project: " + baseDir, ex);
+        }
+    }
+
+    private boolean isBinary(final int index) {
+        return index % 100 < binaryPercent;
+    }
+
+    private String path(final int index) {
+        final StringBuilder sb = new StringBuilder("src/main/java/org/fuin/synthetic");
+        int n = index;
+        for (int level = 1; level < depth; level++) {
+            sb.append("/dir").append(n % fanOut);
+            n = n / fanOut;
+        }
+        sb.append("/File").append(index);
+        if (isBinary(index)) {
+            sb.append(".bin");
+        } else {
+            sb.append(".java");
+        }
+        return sb.toString();
+    }
+
+    private int size(final Random random) {
+        if (minFileSize == maxFileSize) {
+            return minFileSize;
+        }
+        if (sizeDistribution == SizeDistribution.UNIFORM) {
+            return minFileSize + random.nextInt(maxFileSize - minFileSize + 1);
+        }
+        final double logMin = Math.log(minFileSize);
+        final double logMax = Math.log(maxFileSize);
+        return (int) Math.round(Math.exp(logMin + random.nextDouble() * (logMax - logMin)));
+    }
+
+    private String text(final Random random, final int index, final int size) {
+        final StringBuilder sb = new StringBuilder(size + 64);
+        sb.append("package org.fuin.synthetic;\n\npublic class File").append(index).append(" {\n");
+        final double hitProbability = hitsPerKilobyte / 40.0;
+        while (sb.length() < size) {
+            if (mappingCount > 0 && random.nextDouble() < hitProbability) {
+                sb.append("    // Token_").append(random.nextInt(mappingCount)).append("_\n");
+            } else {
+                sb.append("    private int field").append(random.nextInt(1000)).append(";\n");
+            }
+        }
+        sb.setLength(size);
+        return sb.toString();
+    }
+
+    private String config() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("<marchetyper-config\n");
+        sb.append("    src-dir=\"../example\"\n");
+        sb.append("    dest-dir=\"../archetype\"\n");
+        sb.append("    binary-files=\".*\\.bin\"\n");
+        sb.append("    text-files=\".*\\.java\">\n\n");
+        sb.append("    <archetype group-id=\"org.fuin.synthetic\" artifact-id=\"synthetic-archetype\" version=\"1.0.0\">\n");
+        for (int i = 0; i < mappingCount; i++) {
+            sb.append("        <property name=\"token").append(i).append("\" default=\"Token_").append(i).append("_\" test=\"Token_")
+                    .append(i).append("_\" />\n");
+        }
+        sb.append("    </archetype>\n\n");
+        sb.append("    <path-mappings>\n");
+        sb.append("        <mapping search=\"org/fuin/synthetic\" replace=\"__pkgPath__\" />\n");
+        sb.append("    </path-mappings>\n\n");
+        sb.append("    <text-file-mappings>\n");
+        for (int i = 0; i < mappingCount; i++) {
+            sb.append("        <mapping search=\"Token_").append(i).append("_\" replace=\"${token").append(i)
+                    .append("}\" file=\".*\\.java\" />\n");
+        }
+        sb.append("    </text-file-mappings>\n\n");
+        sb.append("</marchetyper-config>\n");
+        return sb.toString();
+    }
+
+    /**
+     * Distribution of the file sizes between the minimum and maximum.
+     */
+    public enum SizeDistribution {
+
+        /** All sizes are equally likely. */
+        UNIFORM,
+
+        /** Log-uniform: Many small and few large files like in a typical source tree. */
+        SKEWED;
+
+    }
+
+    /**
+     * Builds an instance of the outer class.
+     */
+    public static final class Builder {
+
+        private SyntheticProject delegate;
+
+        /**
+         * Default constructor.
+         */
+        public Builder() {
+            super();
+            delegate = new SyntheticProject();
+        }
+
+        /**
+         * Sets the number of files.
+         * 
+         * @param fileCount
+         *            Number of files to create.
+         * 
+         * @return The builder.
+         */
+        public Builder fileCount(final int fileCount) {
+            delegate.fileCount = fileCount;
+            return this;
+        }
+
+        /**
+         * Sets the number of directory levels below 'src/main/java/org/fuin' including the 'synthetic' directory. Defaults to 4.
+         * 
+         * @param depth
+         *            Number of levels.
+         * 
+         * @return The builder.
+         */
+        public Builder depth(final int depth) {
+            delegate.depth = depth;
+            return this;
+        }
+
+        /**
+         * Sets the number of sub directories per directory. Defaults to 8 and must be at least 2.
+         * 
+         * @param fanOut
+         *            Number of sub directories.
+         * 
+         * @return The builder.
+         */
+        public Builder fanOut(final int fanOut) {
+            delegate.fanOut = fanOut;
+            return this;
+        }
+
+        /**
+         * Sets the percentage of binary files. Defaults to 10.
+         * 
+         * @param binaryPercent
+         *            Percentage between 0 and 100.
+         * 
+         * @return The builder.
+         */
+        public Builder binaryPercent(final int binaryPercent) {
+            delegate.binaryPercent = binaryPercent;
+            return this;
+        }
+
+        /**
+         * Sets the file sizes. Defaults to 256 to 16384 bytes with a {@link SizeDistribution#SKEWED} distribution.
+         * 
+         * @param minFileSize
+         *            Minimum size in bytes.
+         * @param maxFileSize
+         *            Maximum size in bytes.
+         * @param sizeDistribution
+         *            Distribution of the sizes between minimum and maximum.
+         * 
+         * @return The builder.
+         */
+        public Builder fileSize(final int minFileSize, final int maxFileSize, final SizeDistribution sizeDistribution) {
+            delegate.minFileSize = minFileSize;
+            delegate.maxFileSize = maxFileSize;
+            delegate.sizeDistribution = sizeDistribution;
+            return this;
+        }
+
+        /**
+         * Sets the number of text file mappings. Defaults to 10.
+         * 
+         * @param mappingCount
+         *            Number of mappings.
+         * 
+         * @return The builder.
+         */
+        public Builder mappingCount(final int mappingCount) {
+            delegate.mappingCount = mappingCount;
+            return this;
+        }
+
+        /**
+         * Sets the density of the mapping hits. Defaults to 2.
+         * 
+         * @param hitsPerKilobyte
+         *            Approximate number of search strings per kilobyte of text.
+         * 
+         * @return The builder.
+         */
+        public Builder hitsPerKilobyte(final int hitsPerKilobyte) {
+            delegate.hitsPerKilobyte = hitsPerKilobyte;
+            return this;
+        }
+
+        /**
+         * Sets the seed of the random values.
+         * 
+         * @param seed
+         *            Seed.
+         * 
+         * @return The builder.
+         */
+        public Builder seed(final long seed) {
+            delegate.seed = seed;
+            return this;
+        }
+
+        /**
+         * Builds a new instance of the outer class.
+         * 
+         * @return The new instance.
+         */
+        public SyntheticProject build() {
+            if (delegate.fileCount < 1) {
+                throw new IllegalStateException("It's mandatory to set a value for 'fileCount'");
+            }
+            if (delegate.depth < 1) {
+                throw new IllegalStateException("The 'depth' must be at least 1, but was: " + delegate.depth);
+            }
+            if (delegate.fanOut < 2) {
+                throw new IllegalStateException("The 'fanOut' must be at least 2, but was: " + delegate.fanOut);
+            }
+            if (delegate.minFileSize < 1 || delegate.maxFileSize < delegate.minFileSize) {
+                throw new IllegalStateException(
+                        "Invalid file sizes: min=" + delegate.minFileSize + ", max=" + delegate.maxFileSize);
+            }
+            final SyntheticProject tmp = delegate;
+            delegate = new SyntheticProject();
+            return tmp;
+        }
+
+    }
+
+}